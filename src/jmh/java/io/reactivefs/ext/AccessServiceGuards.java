@@ -0,0 +1,31 @@
+package io.reactivefs.ext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSMetrics;
+
+/**
+ * Creates the {@link AccessServiceGuard} with the default configuration for the benchmarks that run without the container.
+ */
+public final class AccessServiceGuards {
+
+    private AccessServiceGuards() {
+    }
+
+    public static AccessServiceGuard create(MeterRegistry registry) {
+        var guard = new AccessServiceGuard();
+        guard.RETRY_INITIAL_BACKOFF_MS = 200;
+        guard.RETRY_EXPIRATION_MS = 2000;
+        guard.retryBudgetRatio = 0.2;
+        guard.retryBudgetMax = 10;
+        guard.circuitBreakerEnabled = true;
+        guard.circuitBreakerWindow = 20;
+        guard.circuitBreakerMinCalls = 10;
+        guard.circuitBreakerFailureRatio = 0.5;
+        guard.circuitBreakerOpenMs = 5000;
+        guard.circuitBreakerHalfOpenCalls = 3;
+        guard.registry = registry;
+        guard.metrics = new RFSMetrics(registry);
+        guard.init();
+        return guard;
+    }
+}
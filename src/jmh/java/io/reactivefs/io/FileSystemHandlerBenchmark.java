@@ -0,0 +1,124 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivefs.RFSMetrics;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the reads and the writes of the {@link FileSystemHandler} at several file sizes. The content cache is disabled, thus every
+ * operation reaches the storage. The GC profiler shows the allocated bytes per operation: the streamed read should allocate about
+ * the chunks only, the full read and the write about the size of the file. The writes replace the file atomically, and they are
+ * flushed according to the <i>durability</i> parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileSystemHandlerBenchmark {
+
+    @Param({"1024", "65536", "1048576", "16777216"})
+    int size;
+
+    /** The durability policy of the writes, the others can be measured by <i>-p durability=fsync,group</i>. */
+    @Param({FileSync.NONE})
+    String durability;
+
+    private Vertx vertx;
+
+    private FileIoExecutor io;
+
+    private FileSystemHandler fileSystemHandler;
+
+    private Path directory;
+
+    private Path readPath;
+
+    private FileContent writeContent;
+
+    @Setup
+    public void init() throws IOException {
+        vertx = Vertx.vertx();
+        var registry = new SimpleMeterRegistry();
+        io = new FileIoExecutor();
+        io.engine = FileIoExecutor.VERTX_ENGINE;
+        io.poolSize = 16;
+        io.queueSize = 1024;
+        io.registry = registry;
+        io.init();
+        fileSystemHandler = new FileSystemHandler();
+        fileSystemHandler.vertx = vertx;
+        fileSystemHandler.io = io;
+        fileSystemHandler.registry = registry;
+        fileSystemHandler.metrics = new RFSMetrics(registry);
+        fileSystemHandler.readChunkSize = 65536;
+        fileSystemHandler.attributeCache = new FileAttributeCache();
+        fileSystemHandler.attributeCache.maxSize = 10000;
+        fileSystemHandler.attributeCache.ttl = 5000;
+        fileSystemHandler.contentCache = new FileContentCache();
+        fileSystemHandler.contentCache.enabled = false;
+        fileSystemHandler.contentCache.registry = registry;
+        fileSystemHandler.contentCache.init();
+        fileSystemHandler.mappedFiles = new MappedFileCache();
+        fileSystemHandler.mappedFiles.readMode = "async";
+        fileSystemHandler.mappedFiles.registry = registry;
+        fileSystemHandler.mappedFiles.init();
+        fileSystemHandler.compressor = new FileCompressor();
+        fileSystemHandler.fileSync = new FileSync();
+        fileSystemHandler.fileSync.durability = durability;
+        fileSystemHandler.fileSync.groupCommitWindowMs = 2;
+        fileSystemHandler.fileSync.groupCommitMaxBatch = 256;
+        fileSystemHandler.fileSync.io = io;
+        fileSystemHandler.fileSync.registry = registry;
+        fileSystemHandler.fileSync.init();
+        fileSystemHandler.directoryCache = new DirectoryCache();
+        fileSystemHandler.directoryCache.maxSize = 10000;
+        fileSystemHandler.directoryCache.registry = registry;
+        fileSystemHandler.directoryCache.init();
+        fileSystemHandler.init();
+
+        var content = new byte[size];
+        new Random(42).nextBytes(content);
+        directory = Files.createTempDirectory("file-system-handler-benchmark");
+        readPath = Files.write(directory.resolve("read.bin"), content);
+        writeContent = new FileContent(directory.resolve("write.bin"), content);
+    }
+
+    @TearDown
+    public void shutdown() throws IOException {
+        Files.deleteIfExists(readPath);
+        Files.deleteIfExists(writeContent.path());
+        Files.deleteIfExists(directory);
+        fileSystemHandler.fileSync.shutdown();
+        io.shutdown();
+        vertx.closeAndAwait();
+    }
+
+    @Benchmark
+    public Buffer readFile() {
+        return fileSystemHandler.readFile(readPath).await().indefinitely();
+    }
+
+    @Benchmark
+    public long openAndStream() {
+        return fileSystemHandler.openFile(readPath)
+            .flatMap(file -> file.read(0, file.size())
+                .collect().in(() -> new long[1], (total, chunk) -> total[0] += chunk.length())
+                .call(file::close))
+            .await().indefinitely()[0];
+    }
+
+    @Benchmark
+    public Void writeFile() {
+        return fileSystemHandler.writeFile(writeContent).await().indefinitely();
+    }
+}
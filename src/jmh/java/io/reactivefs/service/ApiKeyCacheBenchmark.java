@@ -0,0 +1,90 @@
+package io.reactivefs.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.ext.AccessServiceGuards;
+import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.model.ApplicationAuth;
+import io.reactivefs.model.DocumentFileAccess;
+import io.smallrye.mutiny.Uni;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures {@link ApiKeyCache#checkOrSet(String)} called by concurrent writers. When all the threads use the same key, every check is
+ * a cache hit; when every thread uses its own key, the threads keep replacing the cached key, thus every check calls the ACL, that
+ * responds immediately here, so the cost of the validation pipeline and the contention on the cache are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ApiKeyCacheBenchmark {
+
+    @Param({"shared", "per-thread"})
+    String keys;
+
+    private ApiKeyCache apiKeyCache;
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup
+    public void init() {
+        var registry = new SimpleMeterRegistry();
+        apiKeyCache = new ApiKeyCache();
+        apiKeyCache.documentAccessService = new AuthorizingAccessService();
+        apiKeyCache.accessServiceGuard = AccessServiceGuards.create(registry);
+        apiKeyCache.metrics = new RFSMetrics(registry);
+        // the context propagation of Mutiny is initialized by the first call, that fails if it is done by several threads at once
+        apiKeyCache.checkOrSet("apikey").await().indefinitely();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        String apiKey;
+
+        @Setup
+        public void init(ApiKeyCacheBenchmark benchmark) {
+            apiKey = "shared".equals(benchmark.keys) ? "apikey" : "apikey-" + benchmark.threads.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public Void checkOrSet(Caller caller) {
+        return apiKeyCache.checkOrSet(caller.apiKey).await().indefinitely();
+    }
+
+    /**
+     * Authorizes every ApiKey without any latency.
+     */
+    private static class AuthorizingAccessService implements DocumentAccessResourceService {
+
+        private static final Uni<ApplicationAuth> AUTHORIZED = Uni.createFrom().item(new ApplicationAuth(true));
+
+        @Override
+        public Uni<DocumentFileAccess> getUserDocumentAccess(String token, Long documentId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<DocumentFileAccess> getAttachmentAccess(String token, Long attachmentId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<DocumentFileAccess> getPerformanceResultAccess(String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Uni<ApplicationAuth> validateApiKey(String apiKey) {
+            return AUTHORIZED;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.reactivefs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.io.FileContent;
+import io.reactivefs.model.DocumentCreateRequest;
+import io.reactivefs.model.DocumentUploadRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of the document creation request to the file content, that decodes the Base64 content, and resolves the path.
+ * The GC profiler shows the allocated bytes per operation, that should stay close to the size of the decoded content.<p>
+ * The <i>bindAndDecode</i> benchmark binds the JSON to the {@link DocumentCreateRequest} and decodes its content like the endpoints did
+ * by <i>Base64.getDecoder().decode(content.getBytes(UTF_8))</i>, thus it allocates the body as a String and the content twice. The
+ * <i>streamDecode</i> benchmark decodes the same JSON by the {@link DocumentCreateRequestDecoder}, that should allocate only its buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentDecodeBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int size;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private UserDocumentStore documentStore;
+
+    private DocumentCreateRequest createRequest;
+
+    private byte[] json;
+
+    @Setup
+    public void init() throws IOException {
+        var pathResolver = new UserDocumentPathResolver();
+        pathResolver.userDocumentRootDirectory = "/tmp/fs/user";
+        documentStore = new UserDocumentStore();
+        documentStore.pathResolver = pathResolver;
+        documentStore.metrics = new RFSMetrics(new SimpleMeterRegistry());
+        var content = new byte[size];
+        new Random(42).nextBytes(content);
+        createRequest = new DocumentCreateRequest("SampleOrg", "2312345", "contract.pdf", Base64.getEncoder().encodeToString(content));
+        json = mapper.writeValueAsBytes(createRequest);
+    }
+
+    @Benchmark
+    public FileContent toFileContent() {
+        return documentStore.toFileContent(createRequest);
+    }
+
+    @Benchmark
+    public FileContent bindAndDecode() throws IOException {
+        return documentStore.toFileContent(mapper.readValue(json, DocumentCreateRequest.class));
+    }
+
+    @Benchmark
+    public DocumentUploadRequest streamDecode() throws IOException {
+        return DocumentCreateRequestDecoder.read(new ByteArrayInputStream(json), OutputStream.nullOutputStream());
+    }
+}
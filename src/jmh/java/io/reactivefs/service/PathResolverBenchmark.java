@@ -0,0 +1,49 @@
+package io.reactivefs.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the path resolution of the document stores, that runs on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathResolverBenchmark {
+
+    private UserDocumentPathResolver userDocumentPathResolver;
+
+    private AttachmentPathResolver attachmentPathResolver;
+
+    private PerformanceResultPathResolver performanceResultPathResolver;
+
+    @Setup
+    public void init() {
+        userDocumentPathResolver = new UserDocumentPathResolver();
+        userDocumentPathResolver.userDocumentRootDirectory = "/tmp/fs/user";
+        attachmentPathResolver = new AttachmentPathResolver();
+        attachmentPathResolver.attachmentRootDirectory = "/tmp/fs/attachment";
+        performanceResultPathResolver = new PerformanceResultPathResolver();
+        performanceResultPathResolver.performanceDocumentRootDirectory = "/tmp/fs/perf";
+    }
+
+    @Benchmark
+    public Path userDocument() {
+        return userDocumentPathResolver.resolve("SampleOrg", "2312345", "contract.pdf");
+    }
+
+    @Benchmark
+    public Path attachment() {
+        return attachmentPathResolver.resolve("SampleOrg", null, "attachment.pdf");
+    }
+
+    @Benchmark
+    public Path performanceResult() {
+        return performanceResultPathResolver.resolve("SampleOrg", "2312345", null);
+    }
+}
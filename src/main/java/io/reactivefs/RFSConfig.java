@@ -6,12 +6,150 @@ public class RFSConfig {
 
     public static final String RETRY_EXPIRATION_MS = "fs.retry.expiration.ms";
 
+    public static final String ACL_RETRY_BUDGET_RATIO = "fs.acl.retry.budget.ratio";
+
+    public static final String ACL_RETRY_BUDGET_MAX = "fs.acl.retry.budget.max";
+
+    public static final String ACL_CIRCUIT_BREAKER_ENABLED = "fs.acl.circuit.breaker.enabled";
+
+    public static final String ACL_CIRCUIT_BREAKER_WINDOW = "fs.acl.circuit.breaker.window";
+
+    public static final String ACL_CIRCUIT_BREAKER_MIN_CALLS = "fs.acl.circuit.breaker.min.calls";
+
+    public static final String ACL_CIRCUIT_BREAKER_FAILURE_RATIO = "fs.acl.circuit.breaker.failure.ratio";
+
+    public static final String ACL_CIRCUIT_BREAKER_OPEN_MS = "fs.acl.circuit.breaker.open.ms";
+
+    public static final String ACL_CIRCUIT_BREAKER_HALF_OPEN_CALLS = "fs.acl.circuit.breaker.half.open.calls";
+
     public static final String ATTACHMENT_DOCUMENT_ROOT_DIRECTORY = "fs.attachment.document.dir";
 
     public static final String USER_DOCUMENT_ROOT_DIRECTORY = "fs.user.document.dir";
 
     public static final String PERFORMANCE_DOCUMENT_ROOT_DIRECTORY = "fs.performance.document.dir";
 
+    public static final String UPLOAD_DIRECTORY = "fs.upload.dir";
+
+    public static final String UPLOAD_SESSION_TTL_MS = "fs.upload.session.ttl.ms";
+
+    public static final String UPLOAD_MAX_SESSIONS = "fs.upload.max.sessions";
+
+    public static final String UPLOAD_MAX_SIZE = "fs.upload.max.size";
+
+    public static final String WRITE_DURABILITY = "fs.write.durability";
+
+    public static final String WRITE_GROUP_COMMIT_WINDOW_MS = "fs.write.group.commit.window.ms";
+
+    public static final String WRITE_GROUP_COMMIT_MAX_BATCH = "fs.write.group.commit.max.batch";
+
+    public static final String IO_ENGINE = "fs.io.engine";
+
+    public static final String IO_POOL_SIZE = "fs.io.pool.size";
+
+    public static final String IO_QUEUE_SIZE = "fs.io.queue.size";
+
+    public static final String DECODE_POOL_SIZE = "fs.decode.pool.size";
+
+    public static final String DECODE_QUEUE_SIZE = "fs.decode.queue.size";
+
+    public static final String DECODE_IDLE_TIMEOUT_MS = "fs.decode.idle.timeout.ms";
+
+    public static final String USER_DOCUMENT_BULKHEAD_MAX_CONCURRENT = "fs.user.document.bulkhead.max.concurrent";
+
+    public static final String USER_DOCUMENT_BULKHEAD_MAX_QUEUE = "fs.user.document.bulkhead.max.queue";
+
+    public static final String ATTACHMENT_DOCUMENT_BULKHEAD_MAX_CONCURRENT = "fs.attachment.document.bulkhead.max.concurrent";
+
+    public static final String ATTACHMENT_DOCUMENT_BULKHEAD_MAX_QUEUE = "fs.attachment.document.bulkhead.max.queue";
+
+    public static final String PERFORMANCE_DOCUMENT_BULKHEAD_MAX_CONCURRENT = "fs.performance.document.bulkhead.max.concurrent";
+
+    public static final String PERFORMANCE_DOCUMENT_BULKHEAD_MAX_QUEUE = "fs.performance.document.bulkhead.max.queue";
+
+    public static final String LIMIT_ENABLED = "fs.limit.enabled";
+
+    public static final String LIMIT_READ_INITIAL = "fs.limit.read.initial";
+
+    public static final String LIMIT_READ_MIN = "fs.limit.read.min";
+
+    public static final String LIMIT_READ_MAX = "fs.limit.read.max";
+
+    public static final String LIMIT_WRITE_INITIAL = "fs.limit.write.initial";
+
+    public static final String LIMIT_WRITE_MIN = "fs.limit.write.min";
+
+    public static final String LIMIT_WRITE_MAX = "fs.limit.write.max";
+
+    public static final String LIMIT_BACKOFF_RATIO = "fs.limit.backoff.ratio";
+
+    public static final String LIMIT_LATENCY_TOLERANCE = "fs.limit.latency.tolerance";
+
+    public static final String LIMIT_MIN_LATENCY_WINDOW_MS = "fs.limit.min.latency.window.ms";
+
+    public static final String LIMIT_SAMPLE_MAX_BODY_BYTES = "fs.limit.sample.max.body.bytes";
+
+    public static final String LIMIT_RETRY_AFTER_SECONDS = "fs.limit.retry.after.seconds";
+
+    public static final String JFR_RECORDING_ENABLED = "fs.jfr.recording.enabled";
+
+    public static final String JFR_RECORDING_MAX_AGE_MS = "fs.jfr.recording.max.age.ms";
+
+    public static final String JFR_RECORDING_MAX_SIZE = "fs.jfr.recording.max.size";
+
+    public static final String JFR_DUMP_DIRECTORY = "fs.jfr.dump.dir";
+
+    public static final String READ_CHUNK_SIZE = "fs.read.chunk.size";
+
+    public static final String READ_MODE = "fs.read.mode";
+
+    public static final String MMAP_MIN_SIZE = "fs.mmap.min.size";
+
+    public static final String MMAP_CACHE_MAX_BYTES = "fs.mmap.cache.max.bytes";
+
+    public static final String ATTRIBUTE_CACHE_SIZE = "fs.attribute.cache.size";
+
+    public static final String ATTRIBUTE_CACHE_TTL_MS = "fs.attribute.cache.ttl.ms";
+
+    public static final String DIRECTORY_CACHE_SIZE = "fs.directory.cache.size";
+
+    public static final String CONTENT_CACHE_ENABLED = "fs.content.cache.enabled";
+
+    public static final String CONTENT_CACHE_MAX_BYTES = "fs.content.cache.max.bytes";
+
+    public static final String CONTENT_CACHE_MAX_ENTRY_BYTES = "fs.content.cache.max.entry.bytes";
+
+    public static final String CONTENT_CACHE_OFF_HEAP = "fs.content.cache.off.heap";
+
+    public static final String ACCESS_CACHE_SIZE = "fs.access.cache.size";
+
+    public static final String ACCESS_CACHE_TTL_MS = "fs.access.cache.ttl.ms";
+
+    public static final String ACCESS_CACHE_NEGATIVE_TTL_MS = "fs.access.cache.negative.ttl.ms";
+
+    public static final String ACCESS_CACHE_REFRESH_MS = "fs.access.cache.refresh.ms";
+
+    public static final String COMPRESSION_ENABLED = "fs.compression.enabled";
+
+    public static final String COMPRESSION_EXTENSIONS = "fs.compression.extensions";
+
+    public static final String COMPRESSION_MIN_SIZE = "fs.compression.min.size";
+
+    public static final String COMPRESSION_MAX_RATIO = "fs.compression.max.ratio";
+
+    public static final String ARCHIVE_MAX_DOCUMENTS = "fs.archive.max.documents";
+
+    public static final String ARCHIVE_ACCESS_CONCURRENCY = "fs.archive.access.concurrency";
+
+    public static final String BATCH_WRITE_CONCURRENCY = "fs.batch.write.concurrency";
+
+    public static final String BATCH_WRITE_PREFETCH = "fs.batch.write.prefetch";
+
+    public static final String USER_DOCUMENT_CACHE_CONTROL = "fs.user.document.cache.control";
+
+    public static final String ATTACHMENT_DOCUMENT_CACHE_CONTROL = "fs.attachment.document.cache.control";
+
+    public static final String PERFORMANCE_DOCUMENT_CACHE_CONTROL = "fs.performance.document.cache.control";
+
     private RFSConfig() {
     }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package io.reactivefs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Measures the stages of the request pipeline, thus the latency of a slow request can be attributed to the ACL, to the ApiKey validation,
+ * to the path resolution or to the storage. The metrics are exposed on the Prometheus endpoint (<i>/q/metrics</i>).<p>
+ * The stage timers are tagged by the outcome (success, failure, cancelled), and they publish percentile histograms like the
+ * end-to-end <i>http.server.requests</i> timer, thus the percentiles can be aggregated across the instances.
+ * The bytes read and written are counted per store, and the failed requests are counted by their root cause.
+ */
+@ApplicationScoped
+public class RFSMetrics {
+
+    /** The calls of the ACL, tagged by the endpoint. */
+    public static final String ACL_CALL = "fs.acl.call";
+
+    /** The ApiKey validations, tagged by the cache hit or miss. */
+    public static final String API_KEY_VALIDATION = "fs.apikey.validation";
+
+    /** The path resolutions, tagged by the store. */
+    public static final String PATH_RESOLUTION = "fs.path.resolution";
+
+    /** The storage operations, tagged by the operation. */
+    public static final String FILE_OPERATION = "fs.file.operation";
+
+    public static final String BYTES_READ = "fs.store.bytes.read";
+
+    public static final String BYTES_WRITTEN = "fs.store.bytes.written";
+
+    /** The failed requests, tagged by the operation and the root cause. */
+    public static final String ERRORS = "fs.errors";
+
+    public static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    private static final String OUTCOME = "outcome";
+
+    private final MeterRegistry registry;
+
+    @Inject
+    public RFSMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Measures the time from the subscription to the termination of the given operation.
+     *
+     * @param name The name of the timer.
+     * @param operation The measured operation.
+     * @param tags The key value pairs of the tags.
+     * @return The result of the operation.
+     */
+    public <T> Uni<T> timed(String name, Uni<T> operation, String... tags) {
+        return Uni.createFrom().deferred(() -> {
+            var sample = Timer.start(registry);
+            return operation
+                .onItemOrFailure()
+                .invoke((item, failure) -> sample.stop(timer(name, tags, failure == null ? "success" : "failure")))
+                .onCancellation()
+                .invoke(() -> sample.stop(timer(name, tags, "cancelled")));
+        });
+    }
+
+    /**
+     * @param name The name of the timer.
+     * @param tags The key value pairs of the tags.
+     * @return The operator that measures the time from the subscription to the termination of the Uni it is plugged into.
+     * @see Uni#plug(Function)
+     */
+    public <T> Function<Uni<T>, Uni<T>> timed(String name, String... tags) {
+        return operation -> timed(name, operation, tags);
+    }
+
+    /**
+     * Measures the given synchronous operation.
+     *
+     * @param name The name of the timer.
+     * @param operation The measured operation.
+     * @param tags The key value pairs of the tags.
+     * @return The result of the operation.
+     */
+    public <T> T timed(String name, Supplier<T> operation, String... tags) {
+        var sample = Timer.start(registry);
+        var outcome = "failure";
+        try {
+            var result = operation.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(timer(name, tags, outcome));
+        }
+    }
+
+    public Counter bytesRead(String store) {
+        return Counter.builder(BYTES_READ)
+            .tag("store", store)
+            .baseUnit("bytes")
+            .description("The number of the bytes read from the store")
+            .register(registry);
+    }
+
+    public Counter bytesWritten(String store) {
+        return Counter.builder(BYTES_WRITTEN)
+            .tag("store", store)
+            .baseUnit("bytes")
+            .description("The number of the bytes written to the store")
+            .register(registry);
+    }
+
+    /**
+     * Counts the failed request by the class of its root cause, the wrapper exceptions are skipped.
+     *
+     * @param operation The kind of the failed operation, e.g. read or write.
+     * @param failure The failure of the request.
+     */
+    public void error(String operation, Throwable failure) {
+        var cause = failure;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        registry.counter(ERRORS, "operation", operation, "cause", cause.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Publishes the percentile histograms of the pipeline timers and the HTTP server requests.
+     */
+    @Produces
+    @Singleton
+    static MeterFilter histograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !(id.getName().startsWith("fs.") || id.getName().equals(HTTP_SERVER_REQUESTS))) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                    .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+
+    private Timer timer(String name, String[] tags, String outcome) {
+        return Timer.builder(name)
+            .tags(tags)
+            .tag(OUTCOME, outcome)
+            .register(registry);
+    }
+}
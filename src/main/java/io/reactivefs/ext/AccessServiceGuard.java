@@ -0,0 +1,186 @@
+package io.reactivefs.ext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.jfr.FlightEvents;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Protects the access checker service (ACL) from the load of the failing calls, and the callers from waiting for a degraded service.<p>
+ * The calls are guarded by a {@link CircuitBreaker}, that rejects them with a {@link CircuitBreakerOpenException} while it is open.
+ * Only the transient failures are retried using the configured exponential backoff: the server errors, the timeouts and the connection
+ * errors; the client errors, like an unknown token, are not. The retries are taken from a global {@link RetryBudget}, thus they cannot
+ * multiply the load of the service when most of the calls fail.<p>
+ * The retries, the rejected calls and the state of the breaker are published as the <i>fs.acl</i> metrics.
+ */
+@ApplicationScoped
+public class AccessServiceGuard {
+
+    public static final String SERVICE_NAME = "acl";
+
+    /** Initial interval, wait for the first retry to call the ACL. */
+    @ConfigProperty(name = RFSConfig.RETRY_INITIAL_BACKOFF_MS, defaultValue = "200")
+    int RETRY_INITIAL_BACKOFF_MS;
+
+    /** The time in millis after the first call that specifies when to give up the retry. */
+    @ConfigProperty(name = RFSConfig.RETRY_EXPIRATION_MS, defaultValue = "2000")
+    int RETRY_EXPIRATION_MS;
+
+    /** The number of the retries allowed per first attempt. */
+    @ConfigProperty(name = RFSConfig.ACL_RETRY_BUDGET_RATIO, defaultValue = "0.2")
+    double retryBudgetRatio;
+
+    /** The maximum number of the retries that can be saved up, and can happen in a burst. */
+    @ConfigProperty(name = RFSConfig.ACL_RETRY_BUDGET_MAX, defaultValue = "10")
+    int retryBudgetMax;
+
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_ENABLED, defaultValue = "true")
+    boolean circuitBreakerEnabled;
+
+    /** The number of the last calls whose outcome decides whether the breaker opens. */
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_WINDOW, defaultValue = "20")
+    int circuitBreakerWindow;
+
+    /** The minimum number of the calls before the breaker can open. */
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_MIN_CALLS, defaultValue = "10")
+    int circuitBreakerMinCalls;
+
+    /** The ratio of the failed calls that opens the breaker. */
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_FAILURE_RATIO, defaultValue = "0.5")
+    double circuitBreakerFailureRatio;
+
+    /** The time in millis while the calls are rejected after the breaker has opened. */
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_OPEN_MS, defaultValue = "5000")
+    long circuitBreakerOpenMs;
+
+    /** The number of the trial calls that must succeed for closing the breaker. */
+    @ConfigProperty(name = RFSConfig.ACL_CIRCUIT_BREAKER_HALF_OPEN_CALLS, defaultValue = "3")
+    int circuitBreakerHalfOpenCalls;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RFSMetrics metrics;
+
+    private CircuitBreaker circuitBreaker;
+
+    private RetryBudget retryBudget;
+
+    private Counter retries;
+
+    private Counter exhaustedRetries;
+
+    private Counter rejectedCalls;
+
+    @PostConstruct
+    void init() {
+        circuitBreaker = new CircuitBreaker(circuitBreakerWindow, circuitBreakerMinCalls, circuitBreakerFailureRatio, circuitBreakerOpenMs,
+            circuitBreakerHalfOpenCalls, System::nanoTime);
+        retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetMax);
+        retries = registry.counter("fs.acl.retries");
+        exhaustedRetries = registry.counter("fs.acl.retry.budget.exhausted");
+        rejectedCalls = registry.counter("fs.acl.circuit.breaker.rejected");
+        Gauge.builder("fs.acl.retry.budget.available", retryBudget, RetryBudget::available)
+            .description("The number of the ACL retries that can be taken from the budget")
+            .register(registry);
+        Gauge.builder("fs.acl.circuit.breaker.state", circuitBreaker, breaker -> breaker.state().ordinal())
+            .description("The state of the ACL circuit breaker: 0 closed, 1 open, 2 half-open")
+            .register(registry);
+    }
+
+    /**
+     * Calls the ACL through the circuit breaker, and retries the transient failures while the retry budget allows it.
+     * Every attempt is measured by the <i>fs.acl.call</i> timer tagged by the endpoint, and it is recorded as a flight recorder event.
+     *
+     * @param endpoint The name of the called ACL endpoint.
+     * @param call The call of the ACL; it is invoked once for every attempt.
+     * @return The result of the call, or a failure if it failed, or it was rejected by the circuit breaker.
+     */
+    public <T> Uni<T> call(String endpoint, Supplier<Uni<T>> call) {
+        return Uni.createFrom().deferred(() -> attempt(call)
+                .plug(FlightEvents.aclLookup(endpoint))
+                .plug(metrics.timed(RFSMetrics.ACL_CALL, "endpoint", endpoint)))
+            .onFailure(this::shouldRetry)
+            .retry()
+            .withBackOff(Duration.ofMillis(RETRY_INITIAL_BACKOFF_MS))
+            .expireIn(RETRY_EXPIRATION_MS)
+            .onSubscription()
+            .invoke(retryBudget::deposit);
+    }
+
+    public CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.state();
+    }
+
+    private <T> Uni<T> attempt(Supplier<Uni<T>> call) {
+        if (!circuitBreakerEnabled) {
+            return call.get();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedCalls.increment();
+            return Uni.createFrom().failure(new CircuitBreakerOpenException(SERVICE_NAME));
+        }
+        return call.get()
+            .onItemOrFailure()
+            .invoke((item, failure) -> {
+                if (failure != null && isRetryable(failure)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+            })
+            .onCancellation()
+            .invoke(circuitBreaker::onFailure);
+    }
+
+    private boolean shouldRetry(Throwable failure) {
+        if (!isRetryable(failure)) {
+            return false;
+        }
+        if (!retryBudget.tryWithdraw()) {
+            exhaustedRetries.increment();
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * @param failure The failure of an ACL call.
+     * @return true if the failure is transient, so the call may succeed when it is retried.
+     */
+    static boolean isRetryable(Throwable failure) {
+        if (failure instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+        if (failure instanceof WebApplicationException e) {
+            var status = e.getResponse().getStatus();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        for (var cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException) {
+                return false;
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return failure instanceof ProcessingException;
+    }
+}
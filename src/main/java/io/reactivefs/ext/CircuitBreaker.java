@@ -0,0 +1,147 @@
+package io.reactivefs.ext;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a remote service for a while when most of the recent calls to it failed, thus a degraded service is not loaded
+ * further by the calls that would fail anyway, and the callers fail fast instead of waiting for it.<p>
+ * The outcomes of the last calls are kept in a count based sliding window. If the window contains enough calls, and the ratio
+ * of the failed ones reaches the threshold, then the breaker opens and rejects the calls. After the open duration it lets a few
+ * trial calls through (half-open): if all of them succeed, then it closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+
+    private final int minCalls;
+
+    private final double failureRatio;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+
+    private int calls;
+
+    private int failures;
+
+    private int next;
+
+    private long openedAt;
+
+    private int trialsStarted;
+
+    private int trialsSucceeded;
+
+    /**
+     * @param windowSize The number of the last calls whose outcome is kept.
+     * @param minCalls The minimum number of the calls in the window before the breaker can open.
+     * @param failureRatio The ratio of the failed calls in the window that opens the breaker.
+     * @param openMillis The time in millis while the calls are rejected after the breaker has opened.
+     * @param halfOpenCalls The number of the trial calls that must succeed for closing the breaker.
+     * @param nanoClock The source of the monotonic time in nanos.
+     */
+    public CircuitBreaker(int windowSize, int minCalls, double failureRatio, long openMillis, int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize <= 0 || minCalls <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("windowSize, minCalls and halfOpenCalls must be positive");
+        }
+        this.window = new boolean[windowSize];
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRatio = failureRatio;
+        this.openNanos = openMillis * 1_000_000;
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks for permission to call the service; every permitted call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return false if the call must be rejected without calling the service.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && calls >= minCalls && failures >= failureRatio * calls) {
+            open();
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+}
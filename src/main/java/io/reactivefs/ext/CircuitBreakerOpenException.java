@@ -0,0 +1,11 @@
+package io.reactivefs.ext;
+
+/**
+ * Signals that the call was rejected without calling the remote service, because its {@link CircuitBreaker} is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String service) {
+        super("The circuit breaker of " + service + " is open", null, false, false);
+    }
+}
@@ -0,0 +1,63 @@
+package io.reactivefs.ext;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the retries to a ratio of the first attempts, thus the retries cannot multiply the load of a failing service.<p>
+ * Every first attempt deposits the configured ratio of a retry into the budget, and every retry withdraws a whole one.
+ * The balance cannot exceed the configured maximum, that is also the initial balance, so only that many retries can happen in a burst.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio The number of the retries allowed per first attempt, like 0.2 for one retry per five attempts.
+     * @param maxRetries The maximum number of the retries that can be saved up in the budget.
+     */
+    public RetryBudget(double ratio, int maxRetries) {
+        if (ratio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("ratio and maxRetries must not be negative");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = maxRetries * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Records a first attempt.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+
+    /**
+     * Takes a retry from the budget.
+     *
+     * @return false if the budget is exhausted, so the call must not be retried.
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            var current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return The number of the retries that can be taken from the budget now.
+     */
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
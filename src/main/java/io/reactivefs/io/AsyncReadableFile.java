@@ -0,0 +1,64 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.file.AsyncFile;
+
+import java.io.EOFException;
+import java.util.stream.LongStream;
+
+/**
+ * Reads the file using positional reads of the Vert.x {@link AsyncFile}, one chunk at a time.
+ * The read fails with {@link EOFException} if the file has been truncated since it was opened.
+ */
+public class AsyncReadableFile implements ReadableFile {
+
+    private final AsyncFile file;
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final int chunkSize;
+
+    public AsyncReadableFile(AsyncFile file, long size, long lastModified, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.file = file;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        var end = offset + length;
+        return Multi.createFrom()
+            .items(() -> LongStream.iterate(offset, position -> position < end, position -> position + chunkSize).boxed())
+            .onItem()
+            .transformToUniAndConcatenate(position -> {
+                var count = (int) Math.min(chunkSize, end - position);
+                return file.read(Buffer.buffer(count), 0, position, count)
+                    .flatMap(chunk -> chunk.length() < count
+                        ? Uni.createFrom().failure(new EOFException("The file is shorter than it was at the time it was opened"))
+                        : Uni.createFrom().item(chunk));
+            });
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return file.close();
+    }
+}
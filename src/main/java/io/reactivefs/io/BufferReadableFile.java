@@ -0,0 +1,56 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.util.stream.LongStream;
+
+/**
+ * Serves the file content that is already loaded into the memory. The chunks are slices of the content, they are not copied.
+ */
+public class BufferReadableFile implements ReadableFile {
+
+    private final Buffer content;
+
+    private final FileAttributes attributes;
+
+    private final int chunkSize;
+
+    public BufferReadableFile(Buffer content, FileAttributes attributes, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.content = content;
+        this.attributes = attributes;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long size() {
+        return attributes.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return attributes.lastModified();
+    }
+
+    @Override
+    public FileAttributes attributes() {
+        return attributes;
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        var end = offset + length;
+        return Multi.createFrom()
+            .items(() -> LongStream.iterate(offset, position -> position < end, position -> position + chunkSize).boxed())
+            .map(position -> content.slice(position.intValue(), (int) Math.min(position + chunkSize, end)));
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return Uni.createFrom().voidItem();
+    }
+}
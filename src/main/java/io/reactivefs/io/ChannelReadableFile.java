@@ -0,0 +1,73 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.unchecked.Unchecked;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.stream.LongStream;
+
+/**
+ * Reads the file using blocking positional reads of a NIO {@link FileChannel}, one chunk at a time on the {@link FileIoExecutor}.
+ */
+public class ChannelReadableFile implements ReadableFile {
+
+    private final FileChannel channel;
+
+    private final FileAttributes attributes;
+
+    private final int chunkSize;
+
+    private final FileIoExecutor io;
+
+    public ChannelReadableFile(FileChannel channel, FileAttributes attributes, int chunkSize, FileIoExecutor io) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.channel = channel;
+        this.attributes = attributes;
+        this.chunkSize = chunkSize;
+        this.io = io;
+    }
+
+    @Override
+    public long size() {
+        return attributes.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return attributes.lastModified();
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        var end = offset + length;
+        return Multi.createFrom()
+            .items(() -> LongStream.iterate(offset, position -> position < end, position -> position + chunkSize).boxed())
+            .onItem()
+            .transformToUniAndConcatenate(position -> io.execute(Unchecked.supplier(() -> readChunk(position, (int) Math.min(chunkSize, end - position)))));
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return io.execute(Unchecked.supplier(() -> {
+            channel.close();
+            return null;
+        }));
+    }
+
+    private Buffer readChunk(long position, int count) throws IOException {
+        var chunk = ByteBuffer.allocate(count);
+        while (chunk.hasRemaining()) {
+            if (channel.read(chunk, position + chunk.position()) < 0) {
+                throw new EOFException("The file is shorter than it was at the time it was opened");
+            }
+        }
+        return Buffer.buffer(chunk.array());
+    }
+}
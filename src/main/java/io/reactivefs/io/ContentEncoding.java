@@ -0,0 +1,55 @@
+package io.reactivefs.io;
+
+import java.nio.file.Path;
+
+/**
+ * Defines the encodings of the stored variants of a document. The encoded variants are stored in the hidden <i>.variants</i>
+ * folder next to the document, and their file names are extended by the extension of the encoding, thus they cannot collide
+ * with the documents, like a <i>report.csv.gz</i> document next to the <i>report.csv</i> document.
+ */
+public enum ContentEncoding {
+
+    IDENTITY("identity", ""),
+
+    GZIP("gzip", ".gz");
+
+    /** The folder of the variants, that is reserved: it cannot be the name of a document. */
+    public static final String VARIANTS_FOLDER = ".variants";
+
+    private final String token;
+
+    private final String extension;
+
+    ContentEncoding(String token, String extension) {
+        this.token = token;
+        this.extension = extension;
+    }
+
+    /**
+     * @return The name of the encoding that is used in the <i>Accept-Encoding</i> and <i>Content-Encoding</i> headers.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * @param path The path of the document.
+     * @return The path of the variant of the document in this encoding.
+     */
+    public Path resolve(Path path) {
+        return this == IDENTITY ? path : path.resolveSibling(VARIANTS_FOLDER).resolve(path.getFileName() + extension);
+    }
+
+    /**
+     * @param path The path of a file.
+     * @return true if the path is in the folder of the variants or it is that folder, thus it cannot be the path of a document.
+     */
+    public static boolean isReserved(Path path) {
+        for (var name : path) {
+            if (VARIANTS_FOLDER.equals(name.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
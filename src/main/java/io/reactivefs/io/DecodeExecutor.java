@@ -0,0 +1,112 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.reactivefs.RFSConfig;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking decoders of the request bodies, like the JSON parser of a document, on a dedicated pool. A decoder holds its thread
+ * while the body arrives at the pace of the client, thus the slow clients must not take the threads of the {@link FileIoExecutor},
+ * that serve every read and write of the server.<p>
+ * The pool has a fixed number of threads and a bounded queue; when the queue is full, the decoding fails with a
+ * {@link java.util.concurrent.RejectedExecutionException}. The body must arrive in the configured idle time, otherwise its read fails,
+ * thus a client that stops sending cannot hold a thread forever. The pool metrics are published as the <i>executor</i> metrics with
+ * the <i>fs.decode</i> name.
+ */
+@ApplicationScoped
+public class DecodeExecutor {
+
+    public static final String POOL_NAME = "fs.decode";
+
+    /** The number of the request bodies that are decoded concurrently. */
+    @ConfigProperty(name = RFSConfig.DECODE_POOL_SIZE, defaultValue = "16")
+    int poolSize;
+
+    /** The maximum number of the request bodies waiting for a decoder. */
+    @ConfigProperty(name = RFSConfig.DECODE_QUEUE_SIZE, defaultValue = "256")
+    int queueSize;
+
+    /** The time in millis a decoder waits for the next chunk of the body, or for its turn to go on, before it fails. */
+    @ConfigProperty(name = RFSConfig.DECODE_IDLE_TIMEOUT_MS, defaultValue = "30000")
+    long idleTimeoutMs;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new DecodeThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorServiceMetrics.monitor(registry, executor, POOL_NAME, Tags.empty());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the given decoder on the pool.
+     *
+     * @param decoder The blocking decoder.
+     * @return The result of the decoder, or its exception as it is, or a {@link java.util.concurrent.RejectedExecutionException}
+     * if the queue of the pool is full.
+     */
+    public <T> Uni<T> execute(Callable<T> decoder) {
+        return Uni.createFrom().<T>emitter(emitter -> {
+                try {
+                    emitter.complete(decoder.call());
+                } catch (Exception e) {
+                    emitter.fail(e);
+                }
+            })
+            .runSubscriptionOn(executor);
+    }
+
+    /**
+     * @param body The request body that should be decoded, it is resumed.
+     * @param maxQueuedBytes The number of the arrived, but not decoded bytes, above the body is paused.
+     * @return The blocking stream of the body, whose reads fail if the body does not send anything for the idle time.
+     */
+    public ReadStreamInputStream inputStream(ReadStream<Buffer> body, long maxQueuedBytes) {
+        return new ReadStreamInputStream(body, maxQueuedBytes, idleTimeout());
+    }
+
+    /**
+     * @return The time a decoder waits for the body, or for its turn to go on.
+     */
+    public Duration idleTimeout() {
+        return Duration.ofMillis(idleTimeoutMs);
+    }
+
+    private static class DecodeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, POOL_NAME + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.reactivefs.io;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivefs.RFSConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.file.Path;
+
+/**
+ * Keeps the folders that are known to exist, thus the folder of the organization or the user is not created again before every write.<p>
+ * The cache is bounded, the least recently used folders are evicted when it is full. A folder is known once it has been created or
+ * a file has been written into it, and it is forgotten when it is deleted by the File Server. The folders can be deleted by others
+ * as well, thus a known folder is only a hint: the writes recreate it when it turns out to be missing.
+ * The hit, miss and eviction counters are published as the <i>fs.directory.cache</i> metrics.
+ */
+@ApplicationScoped
+public class DirectoryCache {
+
+    public static final String CACHE_NAME = "fs.directory.cache";
+
+    /** The maximum number of the known folders. */
+    @ConfigProperty(name = RFSConfig.DIRECTORY_CACHE_SIZE, defaultValue = "10000")
+    int maxSize;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<Path, Boolean> directories;
+
+    @PostConstruct
+    void init() {
+        directories = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, directories, CACHE_NAME);
+    }
+
+    /**
+     * @param directory The path of the folder.
+     * @return true if the folder has been created or written recently, thus it probably exists.
+     */
+    public boolean isKnown(Path directory) {
+        return directories.getIfPresent(directory) != null;
+    }
+
+    public void add(Path directory) {
+        directories.put(directory, Boolean.TRUE);
+    }
+
+    /**
+     * Forgets the given folder; it must be called when the folder is deleted.
+     *
+     * @param directory The path of the folder.
+     */
+    public void invalidate(Path directory) {
+        directories.invalidate(directory);
+    }
+}
@@ -0,0 +1,67 @@
+package io.reactivefs.io;
+
+import io.reactivefs.RFSConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the attributes of the recently accessed files, thus a revalidation request can be answered without touching the storage.<p>
+ * The cache is bounded, the least recently used entry is evicted when it is full. The entries are invalidated when the file is
+ * written or deleted by the File Server, and they expire after the configured time, because the files can be changed
+ * by others as well, for example the performance reports are copied by the admins.
+ */
+@ApplicationScoped
+public class FileAttributeCache {
+
+    /** The maximum number of files whose attributes are cached. */
+    @ConfigProperty(name = RFSConfig.ATTRIBUTE_CACHE_SIZE, defaultValue = "10000")
+    int maxSize;
+
+    /** The time in millis after the cached attributes are read again from the storage. */
+    @ConfigProperty(name = RFSConfig.ATTRIBUTE_CACHE_TTL_MS, defaultValue = "5000")
+    long ttl;
+
+    private final Map<Path, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Entry> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    /**
+     * @param path The path of the file.
+     * @return The cached attributes of the file, or empty if they are not cached or expired.
+     */
+    public Optional<FileAttributes> get(Path path) {
+        var entry = entries.get(path);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - entry.cachedAt() > ttl) {
+            entries.remove(path, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.attributes());
+    }
+
+    public void put(Path path, FileAttributes attributes) {
+        entries.put(path, new Entry(attributes, System.currentTimeMillis()));
+    }
+
+    /**
+     * Removes the attributes of the given file; it must be called when the file is changed.
+     *
+     * @param path The path of the file.
+     */
+    public void invalidate(Path path) {
+        entries.remove(path);
+    }
+
+    private record Entry(FileAttributes attributes, long cachedAt) {}
+}
@@ -0,0 +1,10 @@
+package io.reactivefs.io;
+
+/**
+ * Defines the attributes of a stored file that are needed for answering the requests without reading its content.
+ *
+ * @param size The size of the file in bytes.
+ * @param lastModified The last modification time of the file in milliseconds since the epoch.
+ */
+public record FileAttributes(long size, long lastModified) {
+}
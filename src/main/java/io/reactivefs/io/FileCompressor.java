@@ -0,0 +1,103 @@
+package io.reactivefs.io;
+
+import io.reactivefs.RFSConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Creates the compressed variants of the documents when they are written, thus the compressible documents, like CSV or HTML reports,
+ * can be sent compressed to the clients that accept it, without compressing them by every request.<p>
+ * Only the documents with the configured extensions and above the configured size are compressed, and the compressed variant
+ * is kept only if it saves enough space.
+ */
+@ApplicationScoped
+public class FileCompressor {
+
+    @ConfigProperty(name = RFSConfig.COMPRESSION_ENABLED, defaultValue = "true")
+    boolean enabled;
+
+    /** The comma separated list of the file extensions whose content is compressible. */
+    @ConfigProperty(name = RFSConfig.COMPRESSION_EXTENSIONS, defaultValue = "csv,txt,html,htm,xml,json")
+    String extensions;
+
+    /** The documents smaller than this are not compressed. */
+    @ConfigProperty(name = RFSConfig.COMPRESSION_MIN_SIZE, defaultValue = "1024")
+    int minSize;
+
+    /** The compressed variant is kept only if its size is not larger than this ratio of the original size. */
+    @ConfigProperty(name = RFSConfig.COMPRESSION_MAX_RATIO, defaultValue = "0.9")
+    double maxRatio;
+
+    private Set<String> compressibleExtensions;
+
+    @PostConstruct
+    void init() {
+        compressibleExtensions = Arrays.stream(extensions.split(","))
+            .map(String::trim)
+            .map(extension -> extension.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param path The path of the document.
+     * @param size The size of the document in bytes.
+     * @return true if the compressed variant of the document should be created.
+     */
+    public boolean isCompressible(Path path, long size) {
+        if (!enabled || size < minSize) {
+            return false;
+        }
+        var fileName = path.getFileName().toString();
+        var dot = fileName.lastIndexOf('.');
+        return dot >= 0 && compressibleExtensions.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Compresses the given content; it is a CPU intensive operation, thus it must not be called on the event loop.
+     *
+     * @param content The content of the document.
+     * @return The content in gzip format, or empty if the compression does not save enough space.
+     */
+    public Optional<byte[]> gzip(byte[] content) {
+        var compressed = new ByteArrayOutputStream(content.length / 2);
+        try (var gzip = new GZIPOutputStream(compressed) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size() <= content.length * maxRatio ? Optional.of(compressed.toByteArray()) : Optional.empty();
+    }
+
+    /**
+     * Compresses the given content into the given file like {@link #gzip(byte[])}, but the content is never held in the memory as
+     * a whole, thus the stored documents of any size can be compressed; it must not be called on the event loop either.
+     *
+     * @param content The content of the document.
+     * @param size The size of the content in bytes.
+     * @param target The new file that receives the content in gzip format.
+     * @return true if the compression saves enough space; the file is written in both cases.
+     * @throws IOException if the content cannot be read, or the file cannot be written.
+     */
+    public boolean gzip(InputStream content, long size, Path target) throws IOException {
+        try (var gzip = new GZIPOutputStream(Files.newOutputStream(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            content.transferTo(gzip);
+        }
+        return Files.size(target) <= size * maxRatio;
+    }
+}
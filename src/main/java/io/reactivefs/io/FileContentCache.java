@@ -0,0 +1,133 @@
+package io.reactivefs.io;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.Unpooled;
+import io.reactivefs.RFSConfig;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Keeps the content of the frequently read small files in the memory, thus the popular documents, like the attachments of a newsletter,
+ * are not read from the storage by every request.<p>
+ * The cache is bounded by the total size of the cached content, and it uses the frequency aware W-TinyLFU eviction policy of Caffeine,
+ * so a burst of files that are read only once does not evict the popular ones. Files larger than the configured limit are never cached.<p>
+ * The content can be stored outside the heap; in that case the memory is reclaimed by the garbage collector once the content is evicted
+ * and no response is being sent from it, thus the direct memory limit of the JVM must have some headroom above the cache size.<p>
+ * The entries are invalidated when the file is written or deleted by the File Server, and an entry is served only if the attributes
+ * of the file have not been changed since it was cached.
+ * The hit, miss and eviction counters are published as the <i>fs.content.cache</i> metrics.
+ */
+@ApplicationScoped
+public class FileContentCache {
+
+    public static final String CACHE_NAME = "fs.content.cache";
+
+    @ConfigProperty(name = RFSConfig.CONTENT_CACHE_ENABLED, defaultValue = "true")
+    boolean enabled;
+
+    /** The maximum total size of the cached content in bytes. */
+    @ConfigProperty(name = RFSConfig.CONTENT_CACHE_MAX_BYTES, defaultValue = "67108864")
+    long maxBytes;
+
+    /** The files larger than this are not cached. */
+    @ConfigProperty(name = RFSConfig.CONTENT_CACHE_MAX_ENTRY_BYTES, defaultValue = "1048576")
+    int maxEntryBytes;
+
+    /** If true, the content is stored in direct memory instead of the heap. */
+    @ConfigProperty(name = RFSConfig.CONTENT_CACHE_OFF_HEAP, defaultValue = "false")
+    boolean offHeap;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<Path, CachedContent> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Path path, CachedContent content) -> content.content().length())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".weighted.size", cache, c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+            .baseUnit("bytes")
+            .description("The total size of the cached file content")
+            .register(registry);
+    }
+
+    /**
+     * @param attributes The current attributes of the file.
+     * @return true if the content of the file can be cached.
+     */
+    public boolean isCacheable(FileAttributes attributes) {
+        return enabled && attributes.size() <= maxEntryBytes;
+    }
+
+    /**
+     * @param path The path of the file.
+     * @param attributes The current attributes of the file.
+     * @return The cached content if it belongs to the current version of the file, otherwise empty.
+     */
+    public Optional<Buffer> get(Path path, FileAttributes attributes) {
+        var cached = cache.getIfPresent(path);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (!cached.attributes().equals(attributes)) {
+            cache.asMap().remove(path, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.content());
+    }
+
+    /**
+     * Caches the content of the given file.
+     *
+     * @param path The path of the file.
+     * @param attributes The attributes of the file at the time its content was read.
+     * @param content The content of the file.
+     * @return The cached content that must not be modified, or the given content if it is too large to be cached.
+     */
+    public Buffer put(Path path, FileAttributes attributes, Buffer content) {
+        if (!isCacheable(attributes)) {
+            return content;
+        }
+        var cached = offHeap ? toDirectBuffer(content) : content;
+        cache.put(path, new CachedContent(attributes, cached));
+        return cached;
+    }
+
+    /**
+     * Removes the content of the given file; it must be called when the file is changed.
+     *
+     * @param path The path of the file.
+     */
+    public void invalidate(Path path) {
+        cache.invalidate(path);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private Buffer toDirectBuffer(Buffer content) {
+        var direct = ByteBuffer.allocateDirect(content.length());
+        direct.put(content.getDelegate().getByteBuf().nioBuffer()).flip();
+        return Buffer.newInstance(io.vertx.core.buffer.Buffer.buffer(Unpooled.wrappedBuffer(direct)));
+    }
+
+    private record CachedContent(FileAttributes attributes, Buffer content) {}
+}
@@ -0,0 +1,218 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.reactivefs.RFSConfig;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking file system operations on a dedicated pool, thus the slow storage cannot exhaust the worker pool
+ * that serves the requests, and the file I/O can be sized and observed on its own.<p>
+ * The pool has a fixed number of threads and a bounded queue; when the queue is full, the operation fails with a
+ * {@link java.util.concurrent.RejectedExecutionException} instead of piling up. The pool metrics, like the active threads
+ * and the queued operations, are published as the <i>executor</i> metrics with the <i>fs.io</i> name, and its utilization
+ * as <i>fs.io.pool.utilization</i>.<p>
+ * If the <i>virtual-threads</i> engine is configured, then every operation runs on a virtual thread instead of the pool, and the
+ * operations of a request that already runs on a virtual thread are executed on that thread without any hop, see {@link #requestExecutor()}.
+ * The files are read by NIO {@link java.nio.channels.FileChannel} positional reads in this engine. The virtual threads are available
+ * from Java 21; on older runtimes the <i>vertx</i> engine is used instead, because the channel reads on the pool are slower than it.
+ */
+@ApplicationScoped
+public class FileIoExecutor {
+
+    public static final String POOL_NAME = "fs.io";
+
+    public static final String VERTX_ENGINE = "vertx";
+
+    public static final String VIRTUAL_THREADS_ENGINE = "virtual-threads";
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    /** The file operations run on the pool and the files are read by Vert.x if it is <i>vertx</i>, or on virtual threads if it is <i>virtual-threads</i>. */
+    @ConfigProperty(name = RFSConfig.IO_ENGINE, defaultValue = VERTX_ENGINE)
+    String engine;
+
+    /** The number of the threads that run the file operations; the bulkheads of the stores share them, thus their limits together should not exceed it. */
+    @ConfigProperty(name = RFSConfig.IO_POOL_SIZE, defaultValue = "32")
+    int poolSize;
+
+    /** The maximum number of the file operations waiting for a thread. */
+    @ConfigProperty(name = RFSConfig.IO_QUEUE_SIZE, defaultValue = "1024")
+    int queueSize;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ThreadPoolExecutor executor;
+
+    private ExecutorService virtualThreads;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), new IoThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorServiceMetrics.monitor(registry, executor, POOL_NAME, Tags.empty());
+        Gauge.builder(POOL_NAME + ".pool.utilization", executor, e -> (double) e.getActiveCount() / e.getMaximumPoolSize())
+            .description("The ratio of the busy file I/O threads")
+            .register(registry);
+        if (VIRTUAL_THREADS_ENGINE.equalsIgnoreCase(engine)) {
+            virtualThreads = newVirtualThreadExecutor();
+            if (virtualThreads == null) {
+                logger.warn("Virtual threads are not supported by Java {}, the {} engine is used", Runtime.version().feature(), VERTX_ENGINE);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        }
+    }
+
+    /**
+     * @return true if the files should be read by NIO channels on the virtual threads of this executor, instead of the Vert.x file system.
+     */
+    public boolean isChannelEngine() {
+        return virtualThreads != null;
+    }
+
+    /**
+     * @return The executor that the request pipelines should be subscribed on: a virtual thread per request if the virtual threads
+     * are used, otherwise the default worker pool.
+     */
+    public Executor requestExecutor() {
+        return virtualThreads != null ? virtualThreads : Infrastructure.getDefaultWorkerPool();
+    }
+
+    /**
+     * Runs the given blocking operation on the file I/O pool.
+     *
+     * @param operation The blocking operation.
+     * @return The result of the operation, that is emitted on a thread of the pool, or a failure if the operation failed,
+     * or it was rejected because the queue of the pool is full.
+     */
+    public <T> Uni<T> execute(Supplier<T> operation) {
+        return onPool(Uni.createFrom().item(operation));
+    }
+
+    /**
+     * Runs the given blocking operation on the file I/O pool.
+     *
+     * @param operation The blocking operation without result.
+     * @return The completion of the operation, or a failure like {@link #execute(Supplier)}.
+     */
+    public Uni<Void> run(Runnable operation) {
+        return execute(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given blocking operation on the file I/O pool, that may throw a checked exception, like an {@link java.io.IOException}.
+     *
+     * @param operation The blocking operation without result.
+     * @return The completion of the operation, or the exception of the operation as it is, or a failure like {@link #execute(Supplier)}.
+     */
+    public Uni<Void> runChecked(CheckedRunnable operation) {
+        return onPool(Uni.createFrom().emitter(emitter -> {
+            try {
+                operation.run();
+                emitter.complete(null);
+            } catch (Exception e) {
+                emitter.fail(e);
+            }
+        }));
+    }
+
+    /**
+     * @return The number of the operations waiting for a thread.
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    private <T> Uni<T> onPool(Uni<T> operation) {
+        if (virtualThreads == null) {
+            return operation.runSubscriptionOn(executor);
+        }
+        return Uni.createFrom().deferred(() -> isVirtual(Thread.currentThread())
+            ? operation
+            : operation.runSubscriptionOn(virtualThreads));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static class IoThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, POOL_NAME + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * A blocking operation that may throw a checked exception.
+     */
+    @FunctionalInterface
+    public interface CheckedRunnable {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,50 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.util.function.Supplier;
+
+/**
+ * Defines the content that is streamed to the client chunk by chunk, as fast as the client consumes it.
+ *
+ * @param length The number of bytes of the content, or -1 if it is not known in advance.
+ * @param content The lazy stream of the content chunks.
+ * @param close Releases the resources of the content, like the opened file; it is called once, when the response has been sent
+ *              or it cannot be sent anymore, because the chunks may refer to the resources until they are written out.
+ */
+public record FileStream(long length, Multi<Buffer> content, Supplier<Uni<Void>> close) {
+
+    /**
+     * Creates the stream of a content that does not hold any resources.
+     *
+     * @param length The number of bytes of the content, or -1 if it is not known in advance.
+     * @param content The lazy stream of the content chunks.
+     */
+    public FileStream(long length, Multi<Buffer> content) {
+        this(length, content, () -> Uni.createFrom().voidItem());
+    }
+
+    /**
+     * Creates the stream of the whole file content. The file is closed when the response has been sent.
+     *
+     * @param file The file opened for reading.
+     * @return The stream of the file content.
+     */
+    public static FileStream of(ReadableFile file) {
+        return of(file, 0, file.size());
+    }
+
+    /**
+     * Creates the stream of the given window of the file. The file is closed when the response has been sent.
+     *
+     * @param file The file opened for reading.
+     * @param offset The position of the first byte that should be streamed.
+     * @param length The number of bytes that should be streamed.
+     * @return The stream of the requested file content.
+     */
+    public static FileStream of(ReadableFile file, long offset, long length) {
+        return new FileStream(length, file.read(offset, length), file::close);
+    }
+}
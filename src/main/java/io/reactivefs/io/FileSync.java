@@ -0,0 +1,180 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flushes the written files and their folders to the storage device according to the configured durability policy:
+ * <ul>
+ *     <li><i>none</i>: nothing is flushed, the operating system writes the content back when it decides; a crash can lose the recent writes,</li>
+ *     <li><i>fsync</i>: every write is flushed on the file I/O pool before it is acknowledged,</li>
+ *     <li><i>group</i>: the flushes requested by the concurrent writers within the commit window are collected by one committer thread,
+ *     and they are executed together in parallel on the file I/O pool. Only the flushes of the same path are really grouped: a folder
+ *     that receives several files in the batch is flushed once for all of them. Every written file is still flushed by its own
+ *     {@link FileChannel#force}, because Java cannot flush several files by one call (like <i>syncfs</i>); the batch only lets the journal
+ *     of the file system merge them into fewer commits, and each writer pays the commit window on top of its flushes.</li>
+ * </ul>
+ * The batch sizes of the group commit are published as the <i>fs.sync.batch.size</i> metric.
+ */
+@ApplicationScoped
+public class FileSync {
+
+    public static final String NONE = "none";
+
+    public static final String FSYNC = "fsync";
+
+    public static final String GROUP_COMMIT = "group";
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /** The durability policy of the writes, that can be <i>none</i>, <i>fsync</i> or <i>group</i>. */
+    @ConfigProperty(name = RFSConfig.WRITE_DURABILITY, defaultValue = NONE)
+    String durability;
+
+    /** The time that the group commit waits for the flushes of the concurrent writers before it executes them. */
+    @ConfigProperty(name = RFSConfig.WRITE_GROUP_COMMIT_WINDOW_MS, defaultValue = "2")
+    long groupCommitWindowMs;
+
+    /** The maximum number of the flushes of a group commit; the batch is committed without waiting for the window when it is full. */
+    @ConfigProperty(name = RFSConfig.WRITE_GROUP_COMMIT_MAX_BATCH, defaultValue = "256")
+    int groupCommitMaxBatch;
+
+    @Inject
+    FileIoExecutor io;
+
+    @Inject
+    MeterRegistry registry;
+
+    /** The pending flushes of the next group commit by the path, the writers of the same path share the flush. Guarded by this. */
+    private final Map<Path, CompletableFuture<Void>> batch = new LinkedHashMap<>();
+
+    /** True after the shutdown, when no flush can be added to the group commit. Guarded by this. */
+    private boolean closed;
+
+    private ScheduledExecutorService committer;
+
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void init() {
+        if (isGroupCommit()) {
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "fs.sync.committer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            batchSizes = DistributionSummary.builder("fs.sync.batch.size")
+                .description("The number of the files and folders flushed by a group commit")
+                .register(registry);
+        }
+    }
+
+    /**
+     * Commits the pending flushes before the committer is stopped, thus no writer waits forever; the later flushes are rejected.
+     */
+    @PreDestroy
+    void shutdown() {
+        if (committer != null) {
+            synchronized (this) {
+                closed = true;
+            }
+            committer.shutdown();
+            commit();
+        }
+    }
+
+    /**
+     * Flushes the content of the given file, or the entries of the given folder, like a renamed file, to the storage device.
+     *
+     * @param path The path of the written file or of the folder of a renamed file.
+     * @return The completion when the path is flushed, or immediately if no durability is configured.
+     */
+    public Uni<Void> force(Path path) {
+        if (isGroupCommit()) {
+            return Uni.createFrom().completionStage(() -> enqueue(path));
+        }
+        if (FSYNC.equalsIgnoreCase(durability)) {
+            return io.runChecked(() -> forceNow(path));
+        }
+        return Uni.createFrom().voidItem();
+    }
+
+    private boolean isGroupCommit() {
+        return GROUP_COMMIT.equalsIgnoreCase(durability);
+    }
+
+    /**
+     * Adds the path to the next group commit, that is scheduled by the first writer of the batch, or started if the batch is full.
+     *
+     * @return The copy of the shared completion, thus the cancellation of a writer does not affect the others, or a failure after
+     * the shutdown.
+     */
+    private synchronized CompletableFuture<Void> enqueue(Path path) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("File sync is shut down"));
+        }
+        var pending = batch.computeIfAbsent(path, __ -> new CompletableFuture<>());
+        if (batch.size() == 1) {
+            committer.schedule(this::commit, groupCommitWindowMs, TimeUnit.MILLISECONDS);
+        } else if (batch.size() == groupCommitMaxBatch) {
+            committer.execute(this::commit);
+        }
+        return pending.copy();
+    }
+
+    /**
+     * Starts the flushes of the batch on the file I/O pool, where their writers are completed, thus the committer is not blocked by
+     * the device and it can collect the next batch.
+     */
+    private void commit() {
+        Map<Path, CompletableFuture<Void>> committed;
+        synchronized (this) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            committed = new LinkedHashMap<>(batch);
+            batch.clear();
+        }
+        batchSizes.record(committed.size());
+        committed.forEach((path, pending) -> io.runChecked(() -> forceNow(path))
+            .subscribe()
+            .with(__ -> pending.complete(null), pending::completeExceptionally));
+    }
+
+    /**
+     * Flushes the given file or folder. The folders cannot be opened on some platforms, like Windows, that is ignored, because
+     * their entries are flushed with the files there.
+     */
+    private static void forceNow(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!Files.isDirectory(path)) {
+                throw e;
+            }
+            logger.debug("Folder cannot be flushed: {}", path, e);
+        }
+    }
+}
@@ -1,26 +1,101 @@
 package io.reactivefs.io;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.jfr.FlightEvents;
 import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.unchecked.Unchecked;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.file.AsyncFile;
 import io.vertx.mutiny.core.file.FileSystem;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Reads and writes documents to the storage.
+ * <p>The file system operations run on the dedicated pool of the {@link FileIoExecutor}, using the file system of the Vert.x instance
+ * that is managed by Quarkus; only the chunks of the opened files are read by Vert.x asynchronously, or by NIO channels on the
+ * {@link FileIoExecutor} if its <i>virtual-threads</i> engine is in use.
+ * <p>The files are never written in place: the content is written to a temporary file next to the file, that is renamed atomically
+ * to the file, thus the concurrent readers and a crash see either the previous or the new content, but never a torn one.
+ * The temporary file and the folder are flushed to the storage device according to the durability policy of the {@link FileSync}.
  */
 @ApplicationScoped
 public class FileSystemHandler {
 
     private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private final FileSystem fileSystem = Vertx.vertx().fileSystem();
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    FileIoExecutor io;
+
+    @Inject
+    FileAttributeCache attributeCache;
+
+    @Inject
+    FileContentCache contentCache;
+
+    @Inject
+    MappedFileCache mappedFiles;
+
+    @Inject
+    FileCompressor compressor;
+
+    @Inject
+    FileSync fileSync;
+
+    @Inject
+    DirectoryCache directoryCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RFSMetrics metrics;
+
+    /** The maximum number of bytes that are read from a file at once when it is streamed. */
+    @ConfigProperty(name = RFSConfig.READ_CHUNK_SIZE, defaultValue = "65536")
+    int readChunkSize;
+
+    private FileSystem fileSystem;
+
+    /** Coalesces the concurrent reads of the same file. */
+    private SingleFlight<Path, Buffer> reads;
+
+    /** Coalesces the concurrent loads of the same file into the {@link FileContentCache}. */
+    private SingleFlight<Path, Buffer> loads;
+
+    @PostConstruct
+    void init() {
+        fileSystem = vertx.fileSystem();
+        reads = new SingleFlight<>("file.read", registry);
+        loads = new SingleFlight<>("file.load", registry);
+    }
 
     /**
      * Reads the files from the given folder.
@@ -32,64 +107,481 @@ public class FileSystemHandler {
             .onItem()
             .transformToUni(p -> {
                 logger.info("Folder read request: {}", p);
-                return fileSystem.readDir(p.toString());
+                return io.execute(() -> fileSystem.readDirBlocking(p.toString()));
             });
     }
 
     /**
-     * Create the directory represented by the path and any non-existent parents, asynchronously.
+     * Create the directory represented by the path and any non-existent parents, asynchronously. The directory is known
+     * by the {@link DirectoryCache} from then on.
      *
      * @param path The absolute path of the folder that should be created.
      * @see FileSystem#mkdirs
      */
     public Uni<Void> createDirectories(Path path) {
-        return fileSystem.mkdirs(path.toString());
+        return io.run(() -> fileSystem.mkdirsBlocking(path.toString()))
+            .invoke(() -> directoryCache.add(path))
+            .plug(FlightEvents.fileOperation("mkdirs", path, 0))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "mkdirs"));
     }
 
     /**
-     * Deletes the given file asynchronously. If there is an error it is discarded.
+     * Runs the write of a file into the given folder, creating the folder only when it is needed. If the folder is known to exist,
+     * the file is written at once, and the folder is created only if the write fails because it turns out to be missing, like when
+     * it has been deleted by others; the write is tried once more then. An unknown folder is created before the write, thus the first
+     * write into a new folder does not fail.
+     *
+     * @param directory The folder of the written file.
+     * @param write Starts the write; it is called again when the write is tried once more, thus it must not have consumed its content yet.
+     * @return The result of the write, or a failure if the operation failed.
+     * @see DirectoryCache
+     */
+    public <T> Uni<T> writeInDirectory(Path directory, Supplier<Uni<T>> write) {
+        return Uni.createFrom().deferred(() -> {
+            if (!directoryCache.isKnown(directory)) {
+                return createDirectories(directory).chain(write::get);
+            }
+            return write.get()
+                .onFailure(FileSystemHandler::isMissingFile)
+                .recoverWithUni(failure -> io.execute(() -> Files.isDirectory(directory))
+                    .flatMap(exists -> {
+                        if (exists) {
+                            return Uni.createFrom().<T>failure(failure);
+                        }
+                        logger.info("Known folder is missing, it is created again: {}", directory);
+                        directoryCache.invalidate(directory);
+                        return createDirectories(directory).chain(write::get);
+                    }));
+        });
+    }
+
+    /**
+     * Deletes the given file and its compressed variant asynchronously. If there is an error it is discarded.
+     * An empty folder can be deleted as well, it is forgotten by the {@link DirectoryCache} then.
      *
      * @param path The file path that should be deleted.
+     * @throws IllegalArgumentException if the path is reserved for the variants.
      */
     public Uni<Void> deleteFile(Path path) {
         return Uni.createFrom().item(path)
+            .map(FileSystemHandler::documentPath)
             .onItem()
             .transformToUni(p -> {
                 logger.info("File removal request: {}", p);
-                return fileSystem.delete(p.toString());
-            });
+                return io.execute(() -> {
+                        var folder = Files.isDirectory(p);
+                        fileSystem.deleteBlocking(p.toString());
+                        return folder;
+                    })
+                    .call(folder -> {
+                        if (folder) {
+                            directoryCache.invalidate(p);
+                            return Uni.createFrom().voidItem();
+                        }
+                        invalidate(p);
+                        return deleteVariant(p);
+                    })
+                    .replaceWithVoid();
+            })
+            .plug(FlightEvents.fileOperation("delete", path, 0))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "delete"));
     }
 
     /**
      * This function creates the given file at the specified path and writes the provided content to it.
-     * If the file already exists at that path, it will be replaced with the new content.
+     * If the file already exists at that path, it will be replaced with the new content atomically.
+     * <p>If the content is compressible, then its compressed variant is written into the variants folder next to the file as well;
+     * the variant of the previous content is removed before the file is replaced. The variant gets the modification time of the file
+     * it was created from, and it is served only while the file has the same modification time, thus the variant of a concurrent
+     * write that has already been replaced cannot be served in place of the current file.
      *
      * @param fileContent Contains the file path and its content that should be written out to the storage.
-     * @return The asynchronous result of the operation when completed, or a failure if the operation failed.
+     * @return The asynchronous result of the operation when completed, or a failure if the operation failed, like
+     * {@link IllegalArgumentException} if the path is reserved for the variants.
      * @see FileSystem#writeFile
+     * @see FileCompressor
      */
     public Uni<Void> writeFile(FileContent fileContent) {
         return Uni.createFrom().item(fileContent)
+            .invoke(fc -> documentPath(fc.path()))
             .onItem()
             .transformToUni(fc -> {
                 logger.info("File write request to path: {}", fc.path());
-                return fileSystem.writeFile(fc.path().toString(), Buffer.buffer(fc.content()));
-            });
+                return deleteVariant(fc.path())
+                    .chain(() -> replaceFile(fc.path(), temp -> io.execute(Unchecked.supplier(() -> {
+                        fileSystem.writeFileBlocking(temp.toString(), Buffer.buffer(fc.content()));
+                        return Files.getLastModifiedTime(temp);
+                    }))))
+                    .invoke(() -> invalidate(fc.path()))
+                    .call(modified -> writeVariant(fc, modified))
+                    .replaceWithVoid();
+            })
+            .plug(FlightEvents.fileOperation("write", fileContent.path(), fileContent.content().length))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "write"));
+    }
+
+    /**
+     * Creates the given file and writes the content to it as it arrives, thus the content is never held in the memory as a whole.
+     * If the file already exists at that path, it will be replaced with the new content atomically when the stream ends.
+     * <p>The stream is piped into a temporary file with backpressure: the stream is paused while the writes of the file are pending.
+     * The variant of the previous content is removed, and if the written file is compressible, then its compressed variant is created
+     * from the stored file afterwards. If the stream fails, the partially written temporary file is deleted, and the file is kept.
+     *
+     * @param path The path of the file.
+     * @param content The content that should be written out to the storage.
+     * @return The number of the written bytes, or a failure if the operation failed, like {@link IllegalArgumentException} if the path
+     * is reserved for the variants.
+     * @see AsyncFile
+     */
+    public Uni<Long> writeFile(Path path, ReadStream<Buffer> content) {
+        return writeFile(path, content, Supplier::get);
+    }
+
+    /**
+     * Writes the content like {@link #writeFile(Path, ReadStream)}, but the replacement of the file by the written temporary file
+     * is run by the given guard, like in a bulkhead slot, thus the guard is not held while the content arrives from the client.
+     *
+     * @param path The path of the file.
+     * @param content The content that should be written out to the storage.
+     * @param guard Runs the given replacement of the file.
+     * @return The number of the written bytes, or a failure if the operation failed.
+     */
+    public Uni<Long> writeFile(Path path, ReadStream<Buffer> content, Function<Supplier<Uni<Void>>, Uni<Void>> guard) {
+        return Uni.createFrom().item(path)
+            .map(FileSystemHandler::documentPath)
+            .onItem()
+            .transformToUni(p -> {
+                logger.info("File stream write request to path: {}", p);
+                return deleteVariant(p)
+                    .chain(() -> replaceFile(p, temp -> io.execute(() -> fileSystem.openBlocking(temp.toString(), new OpenOptions().setWrite(true).setCreateNew(true)))
+                        .flatMap(file -> content.pipe()
+                            .endOnComplete(false)
+                            .to(file)
+                            .map(__ -> file.getWritePos())
+                            .call(file::close)
+                            .onFailure()
+                            .call(() -> file.close()
+                                .onFailure()
+                                .recoverWithNull()))
+                        .flatMap(size -> io.execute(Unchecked.supplier(() -> new FileAttributes(size, Files.getLastModifiedTime(temp).toMillis())))), guard))
+                    .onTermination()
+                    .invoke(() -> invalidate(p))
+                    .call(attributes -> writeVariant(p, attributes))
+                    .map(FileAttributes::size);
+            })
+            .plug(FlightEvents.fileOperation("stream-write", path, Long::longValue))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "stream-write"));
+    }
+
+    /**
+     * Writes the content into the existing file from the given position as it arrives, without truncating the file, like a chunk of
+     * a resumable upload. The file is written in place, thus it must not be read until all of its chunks are written.
+     *
+     * @param path The path of the file.
+     * @param position The position of the first byte of the content in the file.
+     * @param maxLength The maximum number of bytes of the content, like the rest of the file after the position.
+     * @param content The content that should be written out to the file.
+     * @return The number of the written bytes, or a failure if the operation failed, like {@link IllegalArgumentException} as soon as
+     * the content exceeds the maximum length; the bytes written until then are kept.
+     * @see AsyncFile#setWritePos
+     */
+    public Uni<Long> writeFile(Path path, long position, long maxLength, ReadStream<Buffer> content) {
+        return Uni.createFrom().item(path)
+            .onItem()
+            .transformToUni(p -> {
+                logger.info("File chunk write request to path: {} at {}", p, position);
+                return io.execute(() -> fileSystem.openBlocking(p.toString(), new OpenOptions().setWrite(true).setCreate(false)))
+                    .flatMap(file -> LimitedReadStream.of(content, maxLength).pipe()
+                        .endOnComplete(false)
+                        .to(file.setWritePos(position))
+                        .map(__ -> file.getWritePos() - position)
+                        .call(file::close)
+                        .onFailure()
+                        .call(() -> file.close()
+                            .onFailure()
+                            .recoverWithNull()));
+            })
+            .plug(FlightEvents.fileOperation("chunk-write", path, Long::longValue))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "chunk-write"));
+    }
+
+    /**
+     * Moves the given file to the target path, replacing the file at the target path atomically if it exists. The file is renamed if both
+     * paths are on the same file system, otherwise it is copied next to the target path and deleted before it replaces the target.
+     * <p>The compressed variant of the replaced content is removed, and if the moved file is compressible, then its compressed variant
+     * is created from the stored file afterwards.
+     *
+     * @param source The file that should be moved, like an uploaded temporary file.
+     * @param target The path of the stored file.
+     * @return The size of the moved file, or a failure if the operation failed, like {@link IllegalArgumentException} if the target
+     * path is reserved for the variants.
+     * @see Files#move
+     */
+    public Uni<Long> moveFile(Path source, Path target) {
+        return Uni.createFrom().item(target)
+            .map(FileSystemHandler::documentPath)
+            .onItem()
+            .transformToUni(p -> {
+                logger.info("File move request from {} to path: {}", source, p);
+                return deleteVariant(p)
+                    .chain(() -> replaceFile(p, temp -> io.execute(Unchecked.supplier(() -> {
+                        var size = Files.size(source);
+                        Files.move(source, temp);
+                        return new FileAttributes(size, Files.getLastModifiedTime(temp).toMillis());
+                    }))))
+                    .invoke(() -> invalidate(p))
+                    .call(attributes -> writeVariant(p, attributes))
+                    .map(FileAttributes::size);
+            })
+            .plug(FlightEvents.fileOperation("move", target, Long::longValue))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "move"));
     }
 
     /**
      * Reads all the bytes from a given file.
      * <p>Note that this method is intended for simple cases where it is convenient to read all bytes into a byte array.
      * It is not intended for reading in large files.
+     * <p>The concurrent reads of the same file are coalesced, thus they share one read and its result.
      * @param path The path to the file.
-     * @return a byte buffer containing the bytes read from the file
+     * @return a byte buffer containing the bytes read from the file, that must not be modified because it can be shared by other callers
      */
     public Uni<Buffer> readFile(Path path) {
         return Uni.createFrom().item(path)
             .onItem()
-            .transformToUni(p -> {
+            .transformToUni(p -> reads.execute(p, () -> {
                 logger.info("File read request: {}", p);
-                return fileSystem.readFile(p.toString());
+                return io.execute(() -> fileSystem.readFileBlocking(p.toString()));
+            }))
+            .plug(FlightEvents.fileOperation("read", path, Buffer::length))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "read"));
+    }
+
+    /**
+     * Opens the given file for reading its content in chunks.
+     * <p>Unlike {@link #readFile(Path)} the content of large files is not loaded into the memory, it is read chunk by chunk
+     * as the consumer requests it. Small files are served from the {@link FileContentCache}, and they are read fully when they are not cached yet.
+     * Large files are read from their memory mapping if it is configured, see {@link MappedFileCache}.
+     * @param path The path to the file.
+     * @return The opened file that must be closed by the caller, or a failure if the file cannot be opened.
+     * @see FileSystem#open
+     */
+    public Uni<ReadableFile> openFile(Path path) {
+        return Uni.createFrom().item(path)
+            .onItem()
+            .transformToUni(p -> {
+                logger.info("File open request: {}", p);
+                return io.execute(() -> fileSystem.propsBlocking(p.toString()))
+                    .map(props -> new FileAttributes(props.size(), props.lastModifiedTime()))
+                    .invoke(attributes -> attributeCache.put(p, attributes))
+                    .flatMap(attributes -> {
+                        if (contentCache.isCacheable(attributes)) {
+                            return openCached(p, attributes);
+                        }
+                        return mappedFiles.isMappable(attributes) ? openMapped(p, attributes) : openAsync(p, attributes);
+                    });
+            })
+            .plug(FlightEvents.fileOperation("open", path, ReadableFile::size))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "open"));
+    }
+
+    private Uni<ReadableFile> openAsync(Path path, FileAttributes attributes) {
+        if (io.isChannelEngine()) {
+            return io.execute(Unchecked.supplier(() -> FileChannel.open(path, StandardOpenOption.READ)))
+                .map(channel -> new ChannelReadableFile(channel, attributes, readChunkSize, io));
+        }
+        return io.execute(() -> fileSystem.openBlocking(path.toString(), new OpenOptions().setRead(true).setWrite(false).setCreate(false)))
+            .map(file -> new AsyncReadableFile(file, attributes.size(), attributes.lastModified(), readChunkSize));
+    }
+
+    private Uni<ReadableFile> openMapped(Path path, FileAttributes attributes) {
+        return io.execute(Unchecked.supplier(() -> mappedFiles.acquire(path, attributes)))
+            .map(mapped -> new MappedReadableFile(mapped, readChunkSize));
+    }
+
+    private Uni<ReadableFile> openCached(Path path, FileAttributes attributes) {
+        var cached = contentCache.get(path, attributes);
+        if (cached.isPresent()) {
+            return Uni.createFrom().item(new BufferReadableFile(cached.get(), attributes, readChunkSize));
+        }
+        return loads.execute(path, () -> io.execute(() -> fileSystem.readFileBlocking(path.toString()))
+                .map(content -> contentCache.put(path, new FileAttributes(content.length(), attributes.lastModified()), content)))
+            .map(content -> new BufferReadableFile(content, new FileAttributes(content.length(), attributes.lastModified()), readChunkSize));
+    }
+
+    /**
+     * Checks whether the given file has a variant in the given encoding, that was created from its current content: the variant
+     * must have the same modification time as the file.
+     *
+     * @param path The path to the file.
+     * @param attributes The current attributes of the file.
+     * @param encoding The encoding of the variant.
+     * @return true if the variant can be served instead of the file.
+     */
+    public Uni<Boolean> hasVariant(Path path, FileAttributes attributes, ContentEncoding encoding) {
+        if (encoding == ContentEncoding.IDENTITY) {
+            return Uni.createFrom().item(true);
+        }
+        if (!compressor.isCompressible(path, attributes.size())) {
+            return Uni.createFrom().item(false);
+        }
+        return getAttributes(encoding.resolve(path))
+            .map(variant -> variant.lastModified() == attributes.lastModified())
+            .onFailure()
+            .recoverWithItem(false);
+    }
+
+    /**
+     * Gets the size and the last modification time of the given file without reading its content.
+     * <p>The attributes are served from the {@link FileAttributeCache} if they are available, otherwise they are read from the storage.
+     * @param path The path to the file.
+     * @return The attributes of the file, or a failure if the file does not exist.
+     * @see FileSystem#props
+     */
+    public Uni<FileAttributes> getAttributes(Path path) {
+        var cached = attributeCache.get(path);
+        if (cached.isPresent()) {
+            return Uni.createFrom().item(cached.get());
+        }
+        return io.execute(() -> fileSystem.propsBlocking(path.toString()))
+            .map(props -> new FileAttributes(props.size(), props.lastModifiedTime()))
+            .invoke(attributes -> attributeCache.put(path, attributes))
+            .plug(metrics.timed(RFSMetrics.FILE_OPERATION, "operation", "stat"));
+    }
+
+    /**
+     * @param modified The modification time of the written file, that the variant gets as well.
+     */
+    private Uni<Void> writeVariant(FileContent fileContent, FileTime modified) {
+        if (!compressor.isCompressible(fileContent.path(), fileContent.content().length)) {
+            return Uni.createFrom().voidItem();
+        }
+        var variant = ContentEncoding.GZIP.resolve(fileContent.path());
+        return Uni.createFrom().item(() -> compressor.gzip(fileContent.content()))
+            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+            .flatMap(compressed -> compressed.isPresent()
+                ? writeInDirectory(variant.getParent(), () -> replaceFile(variant, temp -> io.runChecked(() -> {
+                        fileSystem.writeFileBlocking(temp.toString(), Buffer.buffer(compressed.get()));
+                        Files.setLastModifiedTime(temp, modified);
+                    })))
+                    .invoke(() -> invalidate(variant))
+                : Uni.createFrom().voidItem())
+            .onFailure()
+            .recoverWithUni(failure -> {
+                logger.warn("Compressed variant cannot be written: {}", variant, failure);
+                return Uni.createFrom().voidItem();
+            });
+    }
+
+    /**
+     * Creates the compressed variant of the stored file from its content like {@link #writeVariant(FileContent, FileTime)}, but the
+     * file is compressed as it is read, thus its content is never held in the memory. The file is opened before its modification time
+     * is checked, thus if it has been replaced by a concurrent write meanwhile, then the content of that write is not compressed
+     * as the variant of this one.
+     *
+     * @param path The path of the stored file.
+     * @param attributes The attributes of the stored file when it was written, that the variant gets as well.
+     */
+    private Uni<Void> writeVariant(Path path, FileAttributes attributes) {
+        if (!compressor.isCompressible(path, attributes.size())) {
+            return Uni.createFrom().voidItem();
+        }
+        var variant = ContentEncoding.GZIP.resolve(path);
+        return writeInDirectory(variant.getParent(), () -> replaceFileIf(variant, temp -> Uni.createFrom().item(Unchecked.supplier(() -> {
+                    try (var content = Files.newInputStream(path)) {
+                        if (Files.getLastModifiedTime(path).toMillis() != attributes.lastModified()
+                            || !compressor.gzip(content, attributes.size(), temp)) {
+                            return false;
+                        }
+                    }
+                    Files.setLastModifiedTime(temp, FileTime.fromMillis(attributes.lastModified()));
+                    return true;
+                }))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool()), Boolean::booleanValue))
+            .invoke(() -> invalidate(variant))
+            .replaceWithVoid()
+            .onFailure()
+            .recoverWithUni(failure -> {
+                logger.warn("Compressed variant cannot be written: {}", variant, failure);
+                return Uni.createFrom().voidItem();
             });
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the content of the given file into a temporary file next to it, then replaces the file with the temporary file: the
+     * temporary file is flushed, it is renamed atomically to the file, then the folder is flushed, thus the rename is durable as well.
+     * If any of the steps fails, the temporary file is deleted.
+     *
+     * @param path The path of the file that should be replaced.
+     * @param write Writes the content to the given temporary file.
+     * @return The result of the write, when the file is replaced.
+     */
+    private <T> Uni<T> replaceFile(Path path, Function<Path, Uni<T>> write) {
+        return replaceFile(path, write, Supplier::get);
+    }
+
+    /**
+     * @param guard Runs the flushes and the rename of the temporary file after the content has been written.
+     * @see #replaceFile(Path, Function)
+     */
+    private <T> Uni<T> replaceFile(Path path, Function<Path, Uni<T>> write, Function<Supplier<Uni<Void>>, Uni<Void>> guard) {
+        return replaceFileIf(path, write, __ -> true, guard);
+    }
+
+    /**
+     * @param replace Tells whether the file should be replaced by the result of the write; if not, the temporary file is deleted.
+     * @see #replaceFile(Path, Function)
+     */
+    private <T> Uni<T> replaceFileIf(Path path, Function<Path, Uni<T>> write, Predicate<T> replace) {
+        return replaceFileIf(path, write, replace, Supplier::get);
+    }
+
+    private <T> Uni<T> replaceFileIf(Path path, Function<Path, Uni<T>> write, Predicate<T> replace, Function<Supplier<Uni<Void>>, Uni<Void>> guard) {
+        var temp = path.resolveSibling("." + path.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        return write.apply(temp)
+            .call(result -> replace.test(result)
+                ? guard.apply(() -> fileSync.force(temp)
+                    .chain(() -> io.runChecked(() -> Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)))
+                    .chain(() -> fileSync.force(path.getParent())))
+                : io.runChecked(() -> Files.deleteIfExists(temp)))
+            .onFailure()
+            .call(() -> io.runChecked(() -> Files.deleteIfExists(temp))
+                .onFailure()
+                .recoverWithNull());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path is reserved for the variants, thus it cannot be written or deleted as a document.
+     */
+    private static Path documentPath(Path path) {
+        if (ContentEncoding.isReserved(path)) {
+            throw new IllegalArgumentException("File path is reserved: " + path);
+        }
+        return path;
+    }
+
+    /**
+     * @return true if the failure is caused by a missing file or folder (ENOENT).
+     */
+    public static boolean isMissingFile(Throwable failure) {
+        for (var cause = failure; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof NoSuchFileException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Uni<Void> deleteVariant(Path path) {
+        var variant = ContentEncoding.GZIP.resolve(path);
+        return io.run(() -> fileSystem.deleteBlocking(variant.toString()))
+            .invoke(() -> invalidate(variant))
+            .onFailure()
+            .recoverWithNull();
+    }
+
+    private void invalidate(Path path) {
+        attributeCache.invalidate(path);
+        contentCache.invalidate(path);
+        mappedFiles.invalidate(path);
+    }
+}
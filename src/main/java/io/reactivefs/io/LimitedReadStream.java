@@ -0,0 +1,104 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.vertx.TypeArg;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Passes the chunks of the stream until the given number of bytes, and fails the stream as soon as a chunk exceeds it, thus the
+ * consumer, like a pipe into a file, is not fed with more content than expected. The stream is paused then, and its rest is dropped.
+ */
+final class LimitedReadStream implements ReadStream<Buffer> {
+
+    private final ReadStream<Buffer> delegate;
+
+    private final long limit;
+
+    private long received;
+
+    private boolean exceeded;
+
+    private Handler<Throwable> exceptionHandler;
+
+    private LimitedReadStream(ReadStream<Buffer> delegate, long limit) {
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    /**
+     * @param stream The stream that should be limited.
+     * @param limit The maximum number of bytes of the stream.
+     * @return The stream that fails with {@link IllegalArgumentException} when it exceeds the limit.
+     */
+    @SuppressWarnings("unchecked")
+    static io.vertx.mutiny.core.streams.ReadStream<io.vertx.mutiny.core.buffer.Buffer> of(
+        io.vertx.mutiny.core.streams.ReadStream<io.vertx.mutiny.core.buffer.Buffer> stream, long limit) {
+        var limited = new LimitedReadStream((ReadStream<Buffer>) stream.getDelegate(), limit);
+        return io.vertx.mutiny.core.streams.ReadStream.newInstance(limited,
+            new TypeArg<>(chunk -> io.vertx.mutiny.core.buffer.Buffer.newInstance((Buffer) chunk), io.vertx.mutiny.core.buffer.Buffer::getDelegate));
+    }
+
+    @Override
+    public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+        exceptionHandler = handler;
+        delegate.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+        if (handler == null) {
+            delegate.handler(null);
+            return this;
+        }
+        delegate.handler(chunk -> {
+            if (exceeded) {
+                return;
+            }
+            received += chunk.length();
+            if (received > limit) {
+                exceeded = true;
+                delegate.pause();
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(new IllegalArgumentException("Content exceeds the expected length of " + limit + " bytes"));
+                }
+                return;
+            }
+            handler.handle(chunk);
+        });
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> pause() {
+        delegate.pause();
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> resume() {
+        if (!exceeded) {
+            delegate.resume();
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> fetch(long amount) {
+        if (!exceeded) {
+            delegate.fetch(amount);
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+        delegate.endHandler(endHandler == null ? null : __ -> {
+            if (!exceeded) {
+                endHandler.handle(null);
+            }
+        });
+        return this;
+    }
+}
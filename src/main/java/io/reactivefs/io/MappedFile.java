@@ -0,0 +1,144 @@
+package io.reactivefs.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defines a file that is mapped into the memory in read-only regions.<p>
+ * The mapping is reference counted: it is created with one reference that belongs to the creator, every reader retains
+ * one more, and the regions are unmapped when the last reference is released. If the regions cannot be unmapped explicitly,
+ * then they are unmapped by the garbage collector.
+ */
+public final class MappedFile {
+
+    /** The size of the regions; a single mapping cannot be larger than 2 GiB. */
+    static final int REGION_SIZE = 1 << 30;
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private static final Unmapper UNMAPPER = Unmapper.create();
+
+    private final FileAttributes attributes;
+
+    private final MappedByteBuffer[] regions;
+
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private MappedFile(FileAttributes attributes, MappedByteBuffer[] regions) {
+        this.attributes = attributes;
+        this.regions = regions;
+    }
+
+    /**
+     * Maps the given file into the memory; it is a blocking operation.
+     *
+     * @param path The path to the file.
+     * @param lastModified The last modification time of the file.
+     * @return The mapped file with one reference that belongs to the caller.
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedFile map(Path path, long lastModified) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+            for (int i = 0; i < regions.length; i++) {
+                var position = (long) i * REGION_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+            }
+            return new MappedFile(new FileAttributes(size, lastModified), regions);
+        }
+    }
+
+    /**
+     * @return The attributes of the file at the time it was mapped.
+     */
+    public FileAttributes attributes() {
+        return attributes;
+    }
+
+    /**
+     * Adds a reference to the mapping.
+     *
+     * @return false if the mapping has already been released, so it cannot be used anymore.
+     */
+    public boolean retain() {
+        while (true) {
+            var current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes a reference from the mapping, and unmaps the regions if it was the last one.
+     * The regions must not be accessed by the caller after this call.
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            for (var region : regions) {
+                UNMAPPER.unmap(region);
+            }
+        }
+    }
+
+    /**
+     * @param position The position of the first byte.
+     * @param maxLength The maximum number of bytes.
+     * @return The number of bytes from the given position that can be sliced at once; the slice cannot span more regions.
+     */
+    int sliceLength(long position, long maxLength) {
+        return (int) Math.min(maxLength, REGION_SIZE - position % REGION_SIZE);
+    }
+
+    /**
+     * @param position The position of the first byte.
+     * @param length The number of bytes, that is not more than the {@link #sliceLength(long, long)}.
+     * @return The view of the given part of the mapped content without copying it.
+     */
+    ByteBuffer slice(long position, int length) {
+        return regions[(int) (position / REGION_SIZE)].slice((int) (position % REGION_SIZE), length);
+    }
+
+    /**
+     * Unmaps the regions using <i>sun.misc.Unsafe</i>, since the JDK does not offer a public API for it.
+     */
+    private record Unmapper(Object unsafe, Method invokeCleaner) {
+
+        static Unmapper create() {
+            try {
+                var unsafeClass = Class.forName("sun.misc.Unsafe");
+                var theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return new Unmapper(theUnsafe.get(null), unsafeClass.getMethod("invokeCleaner", ByteBuffer.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.warn("Mapped files cannot be unmapped explicitly, they are unmapped by the garbage collector", e);
+                return new Unmapper(null, null);
+            }
+        }
+
+        void unmap(MappedByteBuffer region) {
+            if (unsafe == null) {
+                return;
+            }
+            try {
+                invokeCleaner.invoke(unsafe, region);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Mapped region cannot be unmapped", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.reactivefs.io;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivefs.RFSConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Keeps the memory mappings of the large files, thus the files that are read repeatedly are mapped only once, and their content
+ * is sent from the page cache without copying it to the heap.<p>
+ * The files are mapped only if the <i>mmap</i> read mode is configured, and they are not smaller than the configured size.
+ * The cache is bounded by the total size of the mapped files. A mapping is unmapped when it is evicted, or the file is rewritten
+ * or deleted, and none of the responses is sending its content anymore.<p>
+ * The hit and miss counters are published as the <i>fs.mmap.cache</i> metrics.
+ *
+ * @see MappedFile
+ */
+@ApplicationScoped
+public class MappedFileCache {
+
+    public static final String CACHE_NAME = "fs.mmap.cache";
+
+    public static final String MMAP_READ_MODE = "mmap";
+
+    /** The files are read using memory mapping if it is <i>mmap</i>, otherwise they are read using asynchronous file reads. */
+    @ConfigProperty(name = RFSConfig.READ_MODE, defaultValue = "async")
+    String readMode;
+
+    /** The files smaller than this are not mapped. */
+    @ConfigProperty(name = RFSConfig.MMAP_MIN_SIZE, defaultValue = "8388608")
+    long minSize;
+
+    /** The maximum total size of the mapped files in bytes. */
+    @ConfigProperty(name = RFSConfig.MMAP_CACHE_MAX_BYTES, defaultValue = "1073741824")
+    long maxBytes;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<Path, MappedFile> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Path path, MappedFile file) -> (int) Math.min(Integer.MAX_VALUE, file.attributes().size()))
+            .removalListener((RemovalListener<Path, MappedFile>) (path, file, cause) -> file.release())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        Gauge.builder(CACHE_NAME + ".weighted.size", cache, c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+            .baseUnit("bytes")
+            .description("The total size of the mapped files")
+            .register(registry);
+    }
+
+    /**
+     * @param attributes The current attributes of the file.
+     * @return true if the file should be read from its memory mapping.
+     */
+    public boolean isMappable(FileAttributes attributes) {
+        return MMAP_READ_MODE.equalsIgnoreCase(readMode) && attributes.size() > 0 && attributes.size() >= minSize;
+    }
+
+    /**
+     * Gets the mapping of the given file, or maps it if it is not mapped yet, or it was changed since it has been mapped.
+     * <p>It is a blocking operation, thus it must not be called on the event loop.
+     *
+     * @param path The path of the file.
+     * @param attributes The current attributes of the file.
+     * @return The mapped file with one reference that belongs to the caller.
+     * @throws IOException if the file cannot be mapped
+     */
+    public MappedFile acquire(Path path, FileAttributes attributes) throws IOException {
+        var cached = cache.getIfPresent(path);
+        if (cached != null && cached.attributes().equals(attributes) && cached.retain()) {
+            return cached;
+        }
+        var mapped = MappedFile.map(path, attributes.lastModified());
+        mapped.retain();
+        cache.put(path, mapped);
+        return mapped;
+    }
+
+    /**
+     * Removes the mapping of the given file; it must be called when the file is changed.
+     *
+     * @param path The path of the file.
+     */
+    public void invalidate(Path path) {
+        cache.invalidate(path);
+    }
+}
@@ -0,0 +1,67 @@
+package io.reactivefs.io;
+
+import io.netty.buffer.Unpooled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Reads the file from its memory mapped regions. The chunks are views of the mapped content, so they are neither copied to the heap,
+ * nor read by system calls; therefore the file must not be closed until the chunks are written out.
+ */
+public class MappedReadableFile implements ReadableFile {
+
+    private final MappedFile file;
+
+    private final int chunkSize;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param file The mapped file, whose one reference is released when this file is closed.
+     * @param chunkSize The maximum size of the chunks.
+     */
+    public MappedReadableFile(MappedFile file, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.file = file;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long size() {
+        return file.attributes().size();
+    }
+
+    @Override
+    public long lastModified() {
+        return file.attributes().lastModified();
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        var end = offset + length;
+        return Multi.createFrom()
+            .items(() -> Stream.iterate(offset, position -> position < end, position -> position + chunkLength(position, end)))
+            .map(position -> Buffer.newInstance(io.vertx.core.buffer.Buffer.buffer(
+                Unpooled.wrappedBuffer(file.slice(position, chunkLength(position, end))))));
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return Uni.createFrom().voidItem()
+            .invoke(() -> {
+                if (closed.compareAndSet(false, true)) {
+                    file.release();
+                }
+            });
+    }
+
+    private int chunkLength(long position, long end) {
+        return file.sliceLength(position, Math.min(chunkSize, end - position));
+    }
+}
@@ -0,0 +1,51 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.Counter;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+/**
+ * Counts the bytes of the chunks that are actually read from the file, thus a partial or an aborted download is counted by what was sent.
+ */
+public class MeteredReadableFile implements ReadableFile {
+
+    private final ReadableFile file;
+
+    private final Counter bytesRead;
+
+    /**
+     * @param file The opened file.
+     * @param bytesRead The counter of the bytes read.
+     */
+    public MeteredReadableFile(ReadableFile file, Counter bytesRead) {
+        this.file = file;
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public long size() {
+        return file.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public FileAttributes attributes() {
+        return file.attributes();
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        return file.read(offset, length)
+            .invoke(chunk -> bytesRead.increment(chunk.length()));
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return file.close();
+    }
+}
@@ -0,0 +1,152 @@
+package io.reactivefs.io;
+
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads a Vert.x stream, like a request body, by a blocking parser or decoder, thus the content can be processed chunk by chunk as it arrives.<p>
+ * The arrived chunks are queued until they are read; the stream is paused when the queued bytes exceed the limit, and resumed when the
+ * reader has consumed half of them, thus a slow reader holds back the sender instead of buffering the whole content in the memory.<p>
+ * The reads block the calling thread, therefore the stream must not be read on the event loop. A read fails with
+ * {@link SocketTimeoutException} if nothing arrives in the idle time, thus a client that stops sending does not block the reader forever.
+ */
+public class ReadStreamInputStream extends InputStream {
+
+    private static final Object END = new Object();
+
+    private final ReadStream<Buffer> stream;
+
+    private final long maxQueuedBytes;
+
+    private final long idleTimeoutNanos;
+
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private boolean paused;
+
+    private volatile boolean closed;
+
+    private io.vertx.core.buffer.Buffer current;
+
+    private int position;
+
+    private boolean ended;
+
+    /**
+     * @param stream The stream that should be read, it is resumed by the constructor.
+     * @param maxQueuedBytes The number of the arrived, but not read bytes, above the stream is paused.
+     * @param idleTimeout The maximum time a read waits for the next chunk.
+     */
+    public ReadStreamInputStream(ReadStream<Buffer> stream, long maxQueuedBytes, Duration idleTimeout) {
+        this.stream = stream;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        stream.exceptionHandler(queue::add);
+        stream.endHandler(() -> queue.add(END));
+        stream.handler(this::onChunk);
+        stream.resume();
+    }
+
+    @Override
+    public int read() throws IOException {
+        var single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        var count = Math.min(length, current.length() - position);
+        current.getBytes(position, position + count, bytes, offset);
+        position += count;
+        consumed(count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length() - position;
+    }
+
+    /**
+     * Discards the chunks that arrive after the close, thus the rest of the stream does not pile up when the reader stops early.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        queue.clear();
+        if (paused) {
+            paused = false;
+            stream.resume();
+        }
+    }
+
+    private boolean nextChunk() throws IOException {
+        while (!ended && (current == null || position == current.length())) {
+            Object next;
+            try {
+                next = queue.poll(idleTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Stream read is interrupted");
+            }
+            if (next == null) {
+                throw new SocketTimeoutException("Stream has not sent anything for " + TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) + " ms");
+            }
+            if (next == END) {
+                ended = true;
+            } else if (next instanceof Throwable failure) {
+                throw new IOException("Stream cannot be read", failure);
+            } else {
+                current = (io.vertx.core.buffer.Buffer) next;
+                position = 0;
+            }
+        }
+        return !ended;
+    }
+
+    private void onChunk(Buffer chunk) {
+        if (closed) {
+            return;
+        }
+        queuedBytes.addAndGet(chunk.length());
+        queue.add(chunk.getDelegate());
+        pauseIfFull();
+    }
+
+    private void consumed(int count) {
+        queuedBytes.addAndGet(-count);
+        resumeIfDrained();
+    }
+
+    /** Decides on the current number of the queued bytes, thus a concurrent resume cannot be overtaken by a stale pause. */
+    private synchronized void pauseIfFull() {
+        if (!paused && !closed && queuedBytes.get() > maxQueuedBytes) {
+            paused = true;
+            stream.pause();
+        }
+    }
+
+    private synchronized void resumeIfDrained() {
+        if (paused && queuedBytes.get() <= maxQueuedBytes / 2) {
+            paused = false;
+            stream.resume();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+/**
+ * Defines a file that is opened for reading, and its content can be pulled in chunks.<p>
+ * The next chunk is read from the storage only when the downstream consumer requests it, therefore
+ * the memory used by the caller does not depend on the size of the file.
+ */
+public interface ReadableFile {
+
+    /**
+     * @return The size of the file in bytes at the time it was opened.
+     */
+    long size();
+
+    /**
+     * @return The last modification time of the file in milliseconds since the epoch, at the time it was opened.
+     */
+    long lastModified();
+
+    /**
+     * @return The attributes of the file at the time it was opened.
+     */
+    default FileAttributes attributes() {
+        return new FileAttributes(size(), lastModified());
+    }
+
+    /**
+     * Reads the given window of the file as a stream of chunks.
+     *
+     * @param offset The position of the first byte that should be read.
+     * @param length The number of bytes that should be read.
+     * @return The lazy stream of chunks, each of them is read when it is requested by the subscriber.
+     */
+    Multi<Buffer> read(long offset, long length);
+
+    /**
+     * Closes the file; it must be called when the content is not needed anymore.
+     *
+     * @return The asynchronous result of the operation when completed.
+     */
+    Uni<Void> close();
+}
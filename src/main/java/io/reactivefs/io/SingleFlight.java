@@ -0,0 +1,86 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces the concurrent identical operations, thus when many requests ask for the same resource at the same time,
+ * only the first one executes the operation, and the others share its result.<p>
+ * The operation is executed again by the first request that arrives after the previous execution terminated,
+ * so the results, and the failures as well, are never reused later. The number of the subscribers that were served by
+ * the executions are published as the <i>fs.single.flight.subscribers</i> distribution, tagged by the name of the flight.
+ *
+ * @param <K> The type of the key that identifies the identical operations.
+ * @param <V> The type of the result of the operation; it is shared by the subscribers, thus it must not be modified.
+ */
+public class SingleFlight<K, V> {
+
+    public static final String SUBSCRIBERS_METRIC = "fs.single.flight.subscribers";
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final DistributionSummary subscribers;
+
+    /**
+     * @param name The name of the coalesced operation that is used in the metrics.
+     * @param registry The registry of the metrics.
+     */
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.subscribers = DistributionSummary.builder(SUBSCRIBERS_METRIC)
+            .tag("flight", name)
+            .description("The number of the subscribers that shared the result of an operation")
+            .register(registry);
+    }
+
+    /**
+     * Joins the execution of the operation that belongs to the given key if it is in progress, otherwise starts it.
+     *
+     * @param key The key that identifies the operation.
+     * @param operation Creates the operation if there is no execution in progress.
+     * @return The lazy result of the shared execution.
+     */
+    public Uni<V> execute(K key, Supplier<Uni<V>> operation) {
+        return Uni.createFrom().deferred(() -> {
+            var flight = flights.computeIfAbsent(key, k -> new Flight<>());
+            if (flight.result == null) {
+                synchronized (flight) {
+                    if (flight.result == null) {
+                        flight.result = operation.get()
+                            .onTermination()
+                            .invoke(() -> land(key, flight))
+                            .memoize()
+                            .indefinitely();
+                    }
+                }
+            }
+            flight.subscribers.incrementAndGet();
+            return flight.result;
+        });
+    }
+
+    /**
+     * @return The number of the operations that are in progress.
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private void land(K key, Flight<V> flight) {
+        if (flights.remove(key, flight)) {
+            subscribers.record(flight.subscribers.get());
+        }
+    }
+
+    private static class Flight<V> {
+
+        private final AtomicInteger subscribers = new AtomicInteger();
+
+        private volatile Uni<V> result;
+    }
+}
@@ -0,0 +1,125 @@
+package io.reactivefs.io;
+
+import io.vertx.mutiny.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Encodes a ZIP archive incrementally: every operation returns the bytes of the archive that it produced,
+ * so the archive can be streamed while its entries are read, without holding any of them in the memory.<p>
+ * The entries are always written with the <i>DEFLATED</i> method, because the <i>STORED</i> method requires the size
+ * and the checksum of the entry before its content. If the content should not be compressed, then the level 0 is used,
+ * that stores the content in uncompressed blocks.<p>
+ * The instances are not thread-safe, and they must be closed, even if the archive is not finished.
+ */
+public class ZipStream implements AutoCloseable {
+
+    private final ChunkOutputStream output = new ChunkOutputStream();
+
+    private final ZipOutputStream zip = new ZipOutputStream(output);
+
+    /**
+     * @param compress false if the content should be stored without compression; otherwise the fastest compression level is used,
+     *                 because the archive is compressed while it is sent.
+     */
+    public ZipStream(boolean compress) {
+        zip.setLevel(compress ? Deflater.BEST_SPEED : Deflater.NO_COMPRESSION);
+    }
+
+    /**
+     * Starts a new entry; the previous entry must be closed before.
+     *
+     * @param name The name of the entry in the archive.
+     * @param lastModified The last modification time of the entry in milliseconds since the epoch.
+     * @return The bytes of the archive that are produced.
+     */
+    public Buffer putEntry(String name, long lastModified) {
+        var entry = new ZipEntry(name);
+        entry.setLastModifiedTime(FileTime.fromMillis(lastModified));
+        return apply(() -> zip.putNextEntry(entry));
+    }
+
+    /**
+     * Writes the given content of the current entry.
+     *
+     * @param chunk The next chunk of the entry content.
+     * @return The bytes of the archive that are produced, it may be empty.
+     */
+    public Buffer write(Buffer chunk) {
+        return apply(() -> zip.write(chunk.getBytes()));
+    }
+
+    /**
+     * Closes the current entry.
+     *
+     * @return The bytes of the archive that are produced.
+     */
+    public Buffer closeEntry() {
+        return apply(zip::closeEntry);
+    }
+
+    /**
+     * Writes the central directory of the archive.
+     *
+     * @return The bytes of the archive that are produced.
+     */
+    public Buffer finish() {
+        return apply(zip::finish);
+    }
+
+    /**
+     * Releases the native resources of the compression.
+     */
+    @Override
+    public void close() {
+        try {
+            zip.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Buffer apply(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.drain();
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Collects the bytes written by the {@link ZipOutputStream} until they are drained.
+     */
+    private static class ChunkOutputStream extends OutputStream {
+
+        private Buffer chunk = Buffer.buffer();
+
+        @Override
+        public void write(int b) {
+            chunk.appendByte((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            chunk.appendBytes(b, off, len);
+        }
+
+        Buffer drain() {
+            var drained = chunk;
+            chunk = Buffer.buffer();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.reactivefs.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.reactivefs.AclLookup")
+@Label("ACL Lookup")
+@Description("A call of the access checker service")
+class AclLookupEvent extends PipelineEvent {
+
+    @Label("Endpoint")
+    String endpoint;
+}
@@ -0,0 +1,14 @@
+package io.reactivefs.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.reactivefs.ApiKeyValidation")
+@Label("ApiKey Validation")
+@Description("The validation of the ApiKey of a write request")
+class ApiKeyValidationEvent extends PipelineEvent {
+
+    @Label("Cache Hit")
+    boolean cacheHit;
+}
@@ -0,0 +1,26 @@
+package io.reactivefs.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.reactivefs.FileOperation")
+@Label("File Operation")
+@Description("An operation of the file storage")
+class FileOperationEvent extends PipelineEvent {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Path Depth")
+    @Description("The number of the elements of the path")
+    int pathDepth;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,97 @@
+package io.reactivefs.jfr;
+
+import io.smallrye.mutiny.Uni;
+
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records the stages of the request pipeline as JDK Flight Recorder events. The operators are plugged into the Uni of the stage;
+ * when no recording is running, the stage is returned as it is, thus the disabled events cost only their allocation.
+ *
+ * @see FlightRecording
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * @param endpoint The name of the called ACL endpoint.
+     * @return The operator that records the ACL call.
+     */
+    public static <T> Function<Uni<T>, Uni<T>> aclLookup(String endpoint) {
+        return operation -> recorded(operation, () -> {
+            var event = new AclLookupEvent();
+            event.endpoint = endpoint;
+            return event;
+        }, (event, item) -> {});
+    }
+
+    /**
+     * @param cacheHit true if the ApiKey was validated before, thus the ACL is not called.
+     * @return The operator that records the ApiKey validation.
+     */
+    public static <T> Function<Uni<T>, Uni<T>> apiKeyValidation(boolean cacheHit) {
+        return operation -> recorded(operation, () -> {
+            var event = new ApiKeyValidationEvent();
+            event.cacheHit = cacheHit;
+            return event;
+        }, (event, item) -> {});
+    }
+
+    /**
+     * @param operation The name of the file operation.
+     * @param path The path of the file or the folder.
+     * @param bytes Gets the number of the bytes transferred by the operation from its result.
+     * @return The operator that records the file operation.
+     */
+    public static <T> Function<Uni<T>, Uni<T>> fileOperation(String operation, Path path, ToLongFunction<T> bytes) {
+        return stage -> recorded(stage, () -> {
+            var event = new FileOperationEvent();
+            event.operation = operation;
+            event.path = path.toString();
+            event.pathDepth = path.getNameCount();
+            return event;
+        }, (event, item) -> event.bytes = bytes.applyAsLong(item));
+    }
+
+    /**
+     * @param operation The name of the file operation.
+     * @param path The path of the file or the folder.
+     * @param bytes The number of the bytes transferred by the operation.
+     * @return The operator that records the file operation.
+     */
+    public static <T> Function<Uni<T>, Uni<T>> fileOperation(String operation, Path path, long bytes) {
+        return fileOperation(operation, path, item -> bytes);
+    }
+
+    private static <T, E extends PipelineEvent> Uni<T> recorded(Uni<T> operation, Supplier<E> factory, BiConsumer<E, T> onItem) {
+        return Uni.createFrom().deferred(() -> {
+            var event = factory.get();
+            if (!event.isEnabled()) {
+                return operation;
+            }
+            event.begin();
+            return operation
+                .onItemOrFailure()
+                .invoke((item, failure) -> {
+                    if (failure == null) {
+                        onItem.accept(event, item);
+                        event.outcome = "success";
+                    } else {
+                        event.outcome = failure.getClass().getSimpleName();
+                    }
+                    event.commit();
+                })
+                .onCancellation()
+                .invoke(() -> {
+                    event.outcome = "cancelled";
+                    event.commit();
+                });
+        });
+    }
+}
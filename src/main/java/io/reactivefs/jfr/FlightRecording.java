@@ -0,0 +1,104 @@
+package io.reactivefs.jfr;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.reactivefs.RFSConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps a continuous JDK Flight Recorder recording running as a ring buffer, thus when the latency spikes, the details of the last minutes
+ * can be dumped to a file without restarting the server.<p>
+ * The recording uses the low overhead <i>default</i> settings of the JDK plus the events of the request pipeline, see {@link FlightEvents}.
+ * The data older than the maximum age, or above the maximum size, is discarded.
+ */
+@ApplicationScoped
+public class FlightRecording {
+
+    public static final String RECORDING_NAME = "reactive-fs";
+
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    @ConfigProperty(name = RFSConfig.JFR_RECORDING_ENABLED, defaultValue = "true")
+    boolean enabled;
+
+    /** The time in millis while the recorded data is kept. */
+    @ConfigProperty(name = RFSConfig.JFR_RECORDING_MAX_AGE_MS, defaultValue = "600000")
+    long maxAgeMs;
+
+    /** The maximum size of the recorded data in bytes. */
+    @ConfigProperty(name = RFSConfig.JFR_RECORDING_MAX_SIZE, defaultValue = "104857600")
+    long maxSize;
+
+    /** The folder of the dumped recordings. */
+    @ConfigProperty(name = RFSConfig.JFR_DUMP_DIRECTORY, defaultValue = "/tmp/fs/jfr")
+    String dumpDirectory;
+
+    private volatile Recording recording;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMillis(maxAgeMs));
+            recording.setMaxSize(maxSize);
+            recording.enable(AclLookupEvent.class);
+            recording.enable(ApiKeyValidationEvent.class);
+            recording.enable(FileOperationEvent.class);
+            recording.start();
+            logger.info("Flight recording is started, max age: {} ms, max size: {} bytes", maxAgeMs, maxSize);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            logger.warn("Flight recording cannot be started", e);
+            recording = null;
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Writes the data of the running recording into a new file in the dump folder. It blocks the caller while the file is written.
+     *
+     * @return The path of the dumped recording.
+     * @throws IllegalStateException if the recording is not running.
+     * @throws IOException if the file cannot be written.
+     */
+    public Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        var directory = Files.createDirectories(Paths.get(dumpDirectory));
+        var file = directory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(DUMP_TIMESTAMP) + ".jfr");
+        recording.dump(file);
+        logger.info("Flight recording is dumped: {}", file);
+        return file;
+    }
+}
@@ -0,0 +1,18 @@
+package io.reactivefs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base of the events that record a stage of the request pipeline. The event spans from the subscription to the termination of the stage,
+ * thus its duration is the latency of the stage even if it is completed on another thread.
+ */
+@Category("Reactive FS")
+@StackTrace(false)
+abstract class PipelineEvent extends Event {
+
+    @Label("Outcome")
+    String outcome;
+}
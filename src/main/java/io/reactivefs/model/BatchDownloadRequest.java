@@ -0,0 +1,26 @@
+package io.reactivefs.model;
+
+import java.util.List;
+
+/**
+ * Defines the request for downloading more documents in a single ZIP archive.
+ *
+ * @param documentIds The identifiers of the requested user documents, may be null.
+ * @param attachmentIds The identifiers of the requested attachments, may be null.
+ * @param compression The compression method of the archive entries; if it is null, then the entries are deflated.
+ */
+public record BatchDownloadRequest(List<Long> documentIds, List<Long> attachmentIds, Compression compression) {
+
+    public BatchDownloadRequest {
+        documentIds = documentIds == null ? List.of() : List.copyOf(documentIds);
+        attachmentIds = attachmentIds == null ? List.of() : List.copyOf(attachmentIds);
+        compression = compression == null ? Compression.DEFLATE : compression;
+    }
+
+    public enum Compression {
+        /** The content is stored without compression, that is preferred for already compressed files, like PDF or images. */
+        STORE,
+        /** The content is compressed. */
+        DEFLATE
+    }
+}
@@ -0,0 +1,20 @@
+package io.reactivefs.model;
+
+/**
+ * Defines the outcome of a document of a batch write, the results are sent back as the documents are written, not in the sent order.
+ *
+ * @param index The position of the document in the batch, starting from 0.
+ * @param fileName The name of the document file, or null if the document cannot be parsed.
+ * @param written True if the document has been stored.
+ * @param error The reason why the document has not been stored, or null if it has been stored.
+ */
+public record BatchWriteResult(int index, String fileName, boolean written, String error) {
+
+    public static BatchWriteResult written(int index, String fileName) {
+        return new BatchWriteResult(index, fileName, true, null);
+    }
+
+    public static BatchWriteResult failed(int index, String fileName, Throwable failure) {
+        return new BatchWriteResult(index, fileName, false, failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,18 @@
+package io.reactivefs.model;
+
+/**
+ * Defines the metadata of a document that the user can access, that is available without reading its content.
+ *
+ * @param exists False if the user can access the document, but it has not been stored yet, or it has been removed.
+ * @param size The size of the document in bytes, or 0 if it does not exist.
+ * @param lastModified The last modification time of the document in milliseconds since the epoch, or 0 if it does not exist.
+ */
+public record DocumentMetadata(boolean exists, long size, long lastModified) {
+
+    /**
+     * @return The metadata of a document that does not exist.
+     */
+    public static DocumentMetadata missing() {
+        return new DocumentMetadata(false, 0, 0);
+    }
+}
@@ -0,0 +1,11 @@
+package io.reactivefs.model;
+
+/**
+ * Defines the owners and the name of a document, whose content is uploaded in the request body instead of in Base64 format.
+ *
+ * @param organizationId The organization id that identifies the organization level owner of the document.
+ * @param userId The user id is the user level owner of the document, it is not used for attachments.
+ * @param fileName The name of the file.
+ */
+public record DocumentUploadRequest(String organizationId, String userId, String fileName) {
+}
@@ -0,0 +1,10 @@
+package io.reactivefs.model;
+
+/**
+ * Describes a flight recording that was dumped to the file system of the server.
+ *
+ * @param path The path of the dumped recording on the server.
+ * @param size The size of the dumped recording in bytes.
+ */
+public record RecordingDump(String path, long size) {
+}
@@ -0,0 +1,12 @@
+package io.reactivefs.model;
+
+/**
+ * Defines the request for starting a resumable upload, whose content is sent later in chunks.
+ *
+ * @param organizationId The organization id that identifies the organization level owner of the document.
+ * @param userId The user id is the user level owner of the document, it is not used for attachments.
+ * @param fileName The name of the file.
+ * @param size The size of the whole content in bytes.
+ */
+public record ResumableUploadRequest(String organizationId, String userId, String fileName, long size) {
+}
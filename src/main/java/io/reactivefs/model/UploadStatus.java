@@ -0,0 +1,21 @@
+package io.reactivefs.model;
+
+import java.util.List;
+
+/**
+ * Defines the state of a resumable upload, thus the client can tell which chunks have to be sent again.
+ *
+ * @param uploadId The identifier of the upload.
+ * @param size The size of the whole content in bytes.
+ * @param received The number of the distinct bytes that have arrived.
+ * @param complete True if the whole content has arrived, thus the upload can be committed.
+ * @param ranges The ranges of the content that have arrived, ordered by their offset; the adjacent ranges are merged.
+ */
+public record UploadStatus(String uploadId, long size, long received, boolean complete, List<Range> ranges) {
+
+    /**
+     * @param offset The position of the first byte of the range.
+     * @param length The number of bytes of the range.
+     */
+    public record Range(long offset, long length) {}
+}
@@ -0,0 +1,87 @@
+package io.reactivefs.rest;
+
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.jfr.FlightRecording;
+import io.reactivefs.model.RecordingDump;
+import io.reactivefs.service.ApiKeyCache;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.unchecked.Unchecked;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+
+import static io.reactivefs.ext.DocumentAccessResourceService.API_KEY_HEADER;
+
+/**
+ * Defines the endpoints for the diagnosis of the File Server. The caller is authorized by its ApiKey, like the applications that store documents.
+ */
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class AdminResource {
+
+    @Inject
+    FlightRecording flightRecording;
+
+    @Inject
+    ApiKeyCache apiKeyCache;
+
+    @Inject
+    FileIoExecutor fileIoExecutor;
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    @Operation(
+        summary = "Dumps the continuous flight recording.",
+        description = "Writes the data of the last minutes of the continuous JDK Flight Recorder recording into a new file on the server. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The path and the size of the dumped recording.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the caller has no authorized to access to the service.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the flight recording is not running.",
+        content = @Content(mediaType = "application/json"))
+    @POST
+    @Path("jfr/dump")
+    public Uni<RestResponse<RecordingDump>> dumpFlightRecording(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey) {
+        return apiKeyCache
+            .checkOrSet(apiKey)
+            .chain(() -> fileIoExecutor.execute(Unchecked.supplier(() -> {
+                var file = flightRecording.dump();
+                return new RecordingDump(file.toString(), Files.size(file));
+            })))
+            .map(dump -> RestResponse.ResponseBuilder.ok(dump).status(RestResponse.Status.CREATED).build())
+            .onFailure()
+            .recoverWithItem(this::logAndEmpty);
+    }
+
+    private RestResponse<RecordingDump> logAndEmpty(Throwable failure) {
+        if (failure instanceof IllegalStateException) {
+            logger.warn(failure.getMessage());
+            return RestResponse.ResponseBuilder.<RecordingDump>create(RestResponse.Status.SERVICE_UNAVAILABLE).build();
+        }
+        logger.error("Flight recording dump error", failure);
+        return RestResponse.ResponseBuilder.<RecordingDump>create(RestResponse.Status.BAD_REQUEST).build();
+    }
+}
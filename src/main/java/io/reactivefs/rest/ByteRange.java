@@ -0,0 +1,99 @@
+package io.reactivefs.rest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Defines a satisfiable byte range of a file requested by the <i>Range</i> header, both positions are inclusive.
+ *
+ * @param first The position of the first byte of the range.
+ * @param last The position of the last byte of the range.
+ */
+public record ByteRange(long first, long last) {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private static final Pattern RANGE_SPEC = Pattern.compile("(\\d*)-(\\d*)");
+
+    public ByteRange {
+        if (first < 0 || last < first) {
+            throw new IllegalArgumentException("Invalid byte range: " + first + "-" + last);
+        }
+    }
+
+    public long length() {
+        return last - first + 1;
+    }
+
+    /**
+     * @param size The size of the whole file.
+     * @return The value of the <i>Content-Range</i> header that belongs to this range.
+     */
+    public String contentRange(long size) {
+        return "bytes " + first + "-" + last + "/" + size;
+    }
+
+    /**
+     * Parses the value of the <i>Range</i> header against a file of the given size.<p>
+     * Overlapping and adjacent ranges are merged, and the result is ordered by the position.
+     *
+     * @param header The value of the <i>Range</i> header, may be null.
+     * @param size The size of the requested file.
+     * @param maxRanges The maximum number of ranges that are served in a single response.
+     * @return Empty if the header is missing, malformed or has too many ranges, therefore it must be ignored and the whole file is sent.
+     * Otherwise the satisfiable ranges; if none of them is satisfiable then the list is empty.
+     */
+    public static Optional<List<ByteRange>> parse(String header, long size, int maxRanges) {
+        if (header == null || !header.startsWith(BYTES_UNIT)) {
+            return Optional.empty();
+        }
+        var specs = header.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > maxRanges) {
+            return Optional.empty();
+        }
+        var ranges = new ArrayList<ByteRange>();
+        for (var spec : specs) {
+            var matcher = RANGE_SPEC.matcher(spec.trim());
+            if (!matcher.matches() || matcher.group(1).isEmpty() && matcher.group(2).isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                if (matcher.group(1).isEmpty()) {
+                    var suffixLength = Long.parseLong(matcher.group(2));
+                    if (suffixLength > 0 && size > 0) {
+                        ranges.add(new ByteRange(Math.max(0, size - suffixLength), size - 1));
+                    }
+                    continue;
+                }
+                var first = Long.parseLong(matcher.group(1));
+                var last = matcher.group(2).isEmpty() ? Long.MAX_VALUE : Long.parseLong(matcher.group(2));
+                if (last < first) {
+                    return Optional.empty();
+                }
+                if (first < size) {
+                    ranges.add(new ByteRange(first, Math.min(last, size - 1)));
+                }
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(merge(ranges));
+    }
+
+    private static List<ByteRange> merge(List<ByteRange> ranges) {
+        ranges.sort(Comparator.comparingLong(ByteRange::first));
+        var merged = new ArrayList<ByteRange>();
+        for (var range : ranges) {
+            var previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range.first() <= previous.last() + 1) {
+                merged.set(merged.size() - 1, new ByteRange(previous.first(), Math.max(previous.last(), range.last())));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,129 @@
+package io.reactivefs.rest;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Adapts the number of the requests served concurrently to the observed latency (AIMD), thus under overload the excess requests
+ * are rejected immediately, instead of queueing in the worker pool and making every request slow.<p>
+ * The no-load latency is the minimum latency measured in a time window. While the latency of the completed requests stays within
+ * the tolerance of it, the limit grows additively when at least half of it is in use. When the latency exceeds the tolerance, or a
+ * request is dropped, the limit is decreased multiplicatively, at most once per round trip, thus a burst of slow responses that
+ * were all started under the same limit reduces it only once.
+ */
+public class ConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final double tolerance;
+
+    private final long minLatencyWindowNanos;
+
+    private final LongSupplier nanoClock;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long minLatency = Long.MAX_VALUE;
+
+    private long minLatencyResetAt;
+
+    private long lastDecreaseAt;
+
+    private boolean decreased;
+
+    /**
+     * @param initialLimit The limit before any latency has been measured.
+     * @param minLimit The lowest limit.
+     * @param maxLimit The highest limit.
+     * @param backoffRatio The multiplier of the limit when it is decreased.
+     * @param tolerance The ratio of the latency to the no-load latency above which the limit is decreased.
+     * @param minLatencyWindowMillis The time in millis after which the no-load latency is measured again.
+     * @param nanoClock The source of the monotonic time in nanos.
+     */
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance,
+                            long minLatencyWindowMillis, LongSupplier nanoClock) {
+        if (minLimit <= 0 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1 || tolerance < 1) {
+            throw new IllegalArgumentException("0 < minLimit <= maxLimit, 0 < backoffRatio < 1 and tolerance >= 1 are required");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.minLatencyWindowNanos = minLatencyWindowMillis * 1_000_000;
+        this.nanoClock = nanoClock;
+        this.minLatencyResetAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Asks for permission to serve a request; every permitted request must be followed by {@link #onSuccess(long)}, {@link #onDropped()}
+     * or {@link #onIgnore()}.
+     *
+     * @return false if the request must be rejected.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases the permit of a served request, and adapts the limit to its latency.
+     *
+     * @param latencyNanos The time in nanos spent on the request.
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        var now = nanoClock.getAsLong();
+        var concurrent = inFlight--;
+        if (now - minLatencyResetAt >= minLatencyWindowNanos) {
+            minLatency = Long.MAX_VALUE;
+            minLatencyResetAt = now;
+        }
+        minLatency = Math.min(minLatency, latencyNanos);
+        if (latencyNanos > minLatency * tolerance) {
+            decrease(now, latencyNanos);
+        } else if (concurrent * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Releases the permit of a request that failed because of the overload, e.g. timed out, and decreases the limit.
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        var now = nanoClock.getAsLong();
+        decrease(now, minLatency == Long.MAX_VALUE ? 0 : minLatency);
+    }
+
+    /**
+     * Releases the permit of a request whose outcome says nothing about the load, e.g. the client disconnected.
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void decrease(long now, long roundTripNanos) {
+        if (decreased && now - lastDecreaseAt < roundTripNanos) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseAt = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
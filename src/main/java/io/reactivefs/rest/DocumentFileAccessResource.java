@@ -1,31 +1,42 @@
 package io.reactivefs.rest;
 
 import io.reactivefs.RFSConfig;
-import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.ext.AccessServiceGuard;
+import io.reactivefs.io.ContentEncoding;
+import io.reactivefs.io.FileAttributes;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.io.FileStream;
+import io.reactivefs.io.FileSystemHandler;
+import io.reactivefs.model.BatchDownloadRequest;
 import io.reactivefs.model.DocumentFileAccess;
+import io.reactivefs.model.DocumentMetadata;
 import io.reactivefs.service.Attachment;
+import io.reactivefs.service.BulkheadFullException;
+import io.reactivefs.service.DocumentAccessCache;
+import io.reactivefs.service.DocumentArchiver;
 import io.reactivefs.service.DocumentStore;
 import io.reactivefs.service.PerformanceResult;
 import io.reactivefs.service.UserDocument;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.infrastructure.Infrastructure;
-import io.vertx.mutiny.core.buffer.Buffer;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
-import java.time.Duration;
 import java.util.function.BiFunction;
 
 import static io.reactivefs.ext.DocumentAccessResourceService.TOKEN_HEADER;
@@ -35,24 +46,46 @@ import static io.reactivefs.ext.DocumentAccessResourceService.TOKEN_HEADER;
  * The File Server does not offer neither session management and nor state management, but it authorizes
  * each request using the provided token by calling the access checker service (ACL).<p>
  * The documents are stored on the local file system. If the caller or the document cannot be identified,
- * or the document does not exist, or the user has no permission to access the document, then an empty response (HTTP 404) is returned.
+ * or the document does not exist, or the user has no permission to access the document, then an empty response (HTTP 404) is returned.<p>
+ * The endpoints support the <i>Range</i> and <i>If-Range</i> headers, thus the clients can fetch only the given parts of the document,
+ * and the conditional requests, that are answered with HTTP 304 without reading the document if the client has its current version.
+ * The compressible documents are sent in their pre-compressed variant to the clients that accept it.
+ * The <i>HEAD</i> requests and the metadata endpoints answer from the attributes of the documents without reading their content.
+ * More documents can be fetched at once in a ZIP archive, that is streamed while the documents are read.
  */
 @Path("/api")
 @Produces(MediaType.APPLICATION_OCTET_STREAM)
 public class DocumentFileAccessResource {
 
+    static final String ARCHIVE_MEDIA_TYPE = "application/zip";
+
+    static final String ARCHIVE_FILE_NAME = "documents.zip";
+
     private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    /** Initial interval, wait for the first retry to call the ACL. */
-    @ConfigProperty(name = RFSConfig.RETRY_INITIAL_BACKOFF_MS, defaultValue = "200")
-    int RETRY_INITIAL_BACKOFF_MS;
+    /** The value of the Cache-Control header of the user documents. */
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_CACHE_CONTROL, defaultValue = "private, no-cache")
+    String USER_DOCUMENT_CACHE_CONTROL;
+
+    /** The value of the Cache-Control header of the attachments. */
+    @ConfigProperty(name = RFSConfig.ATTACHMENT_DOCUMENT_CACHE_CONTROL, defaultValue = "private, no-cache")
+    String ATTACHMENT_DOCUMENT_CACHE_CONTROL;
+
+    /** The value of the Cache-Control header of the performance results. */
+    @ConfigProperty(name = RFSConfig.PERFORMANCE_DOCUMENT_CACHE_CONTROL, defaultValue = "private, no-cache")
+    String PERFORMANCE_DOCUMENT_CACHE_CONTROL;
+
+    @Inject
+    DocumentAccessCache fileAccessCache;
 
-    /** The absolute time in millis that specifies when to give up the retry. */
-    @ConfigProperty(name = RFSConfig.RETRY_EXPIRATION_MS, defaultValue = "2000")
-    int RETRY_EXPIRATION_MS;
+    @Inject
+    DocumentArchiver documentArchiver;
 
-    @RestClient
-    DocumentAccessResourceService fileAccessService;
+    @Inject
+    FileIoExecutor fileIoExecutor;
+
+    @Inject
+    RFSMetrics metrics;
 
     @Inject
     @UserDocument
@@ -72,20 +105,31 @@ public class DocumentFileAccessResource {
     @APIResponse(
         responseCode = "200",
         description = "The document content in binary format",
-        content = @Content(mediaType = "application/octet-stream"))
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "206",
+        description = "The requested ranges of the document content",
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the document")
     @APIResponse(
         responseCode = "400",
         description = "If the Token is missing from the header")
     @APIResponse(
         responseCode = "404",
         description = "If the requested document is not found, or the user has no authorization to access that resource")
+    @APIResponse(
+        responseCode = "416",
+        description = "If none of the requested ranges can be satisfied")
     @GET
     @Path("performance-document")
-    public Uni<RestResponse<byte[]>> getUserPerformanceResultDocument(
+    public Uni<RestResponse<FileStream>> getUserPerformanceResultDocument(
             @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
             @NotNull
-            @HeaderParam(TOKEN_HEADER) String token) {
-        return readFile(token, 0L, (t, __) -> fileAccessService.getPerformanceResultAccess(t), performanceResultDocumentStore);
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Context HttpHeaders headers) {
+        return readFile(token, 0L, (t, __) -> fileAccessCache.getPerformanceResultAccess(t), performanceResultDocumentStore, PERFORMANCE_DOCUMENT_CACHE_CONTROL, headers);
     }
 
     @Operation(
@@ -94,22 +138,33 @@ public class DocumentFileAccessResource {
     @APIResponse(
         responseCode = "200",
         description = "The document content in binary format",
-        content = @Content(mediaType = "application/octet-stream"))
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "206",
+        description = "The requested ranges of the document content",
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the document")
     @APIResponse(
         responseCode = "400",
         description = "If the Token is missing from the header")
     @APIResponse(
         responseCode = "404",
         description = "If the requested document is not found, or the user has no authorization to access that resource")
+    @APIResponse(
+        responseCode = "416",
+        description = "If none of the requested ranges can be satisfied")
     @GET
     @Path("document/{documentId}")
-    public Uni<RestResponse<byte[]>> getUserDocument(
+    public Uni<RestResponse<FileStream>> getUserDocument(
             @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
             @NotNull
             @HeaderParam(TOKEN_HEADER) String token,
             @Parameter(description = "The unique identifier of the requested document")
-            @PathParam("documentId") Long documentId) {
-        return readFile(token, documentId, fileAccessService::getUserDocumentAccess, userDocumentStore);
+            @PathParam("documentId") Long documentId,
+            @Context HttpHeaders headers) {
+        return readFile(token, documentId, fileAccessCache::getUserDocumentAccess, userDocumentStore, USER_DOCUMENT_CACHE_CONTROL, headers);
     }
 
     @Operation(
@@ -118,55 +173,327 @@ public class DocumentFileAccessResource {
     @APIResponse(
         responseCode = "200",
         description = "The document content in binary format",
-        content = @Content(mediaType = "application/octet-stream"))
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "206",
+        description = "The requested ranges of the document content",
+        content = @Content(mediaType = "application/octet-stream", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the document")
     @APIResponse(
         responseCode = "400",
         description = "If the Token is missing from the header")
     @APIResponse(
         responseCode = "404",
         description = "If the requested attachment is not found, or the user has no authorization to access that resource")
+    @APIResponse(
+        responseCode = "416",
+        description = "If none of the requested ranges can be satisfied")
     @GET
     @Path("attachment/{attachmentId}")
-    public Uni<RestResponse<byte[]>> getAttachment(
+    public Uni<RestResponse<FileStream>> getAttachment(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Parameter(description = "The unique identifier of the requested attachment")
+            @PathParam("attachmentId") Long attachmentId,
+            @Context HttpHeaders headers) {
+        return readFile(token, attachmentId, fileAccessCache::getAttachmentAccess, attachmentDocumentStore, ATTACHMENT_DOCUMENT_CACHE_CONTROL, headers);
+    }
+
+    @Operation(
+        summary = "Gets the headers of the user performance document",
+        description = "Answers with the headers of the document, like its length and validators, without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The headers of the document")
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the document")
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the requested document is not found, or the user has no authorization to access that resource")
+    @HEAD
+    @Path("performance-document")
+    public Uni<RestResponse<FileStream>> headUserPerformanceResultDocument(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Context HttpHeaders headers) {
+        return statFile(token, 0L, (t, __) -> fileAccessCache.getPerformanceResultAccess(t), performanceResultDocumentStore, PERFORMANCE_DOCUMENT_CACHE_CONTROL, headers);
+    }
+
+    @Operation(
+        summary = "Gets the headers of the user document",
+        description = "Answers with the headers of the document, like its length and validators, without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The headers of the document")
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the document")
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the requested document is not found, or the user has no authorization to access that resource")
+    @HEAD
+    @Path("document/{documentId}")
+    public Uni<RestResponse<FileStream>> headUserDocument(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Parameter(description = "The unique identifier of the requested document")
+            @PathParam("documentId") Long documentId,
+            @Context HttpHeaders headers) {
+        return statFile(token, documentId, fileAccessCache::getUserDocumentAccess, userDocumentStore, USER_DOCUMENT_CACHE_CONTROL, headers);
+    }
+
+    @Operation(
+        summary = "Gets the headers of the attachment",
+        description = "Answers with the headers of the attachment, like its length and validators, without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The headers of the attachment")
+    @APIResponse(
+        responseCode = "304",
+        description = "If the client already has the current version of the attachment")
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the requested attachment is not found, or the user has no authorization to access that resource")
+    @HEAD
+    @Path("attachment/{attachmentId}")
+    public Uni<RestResponse<FileStream>> headAttachment(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Parameter(description = "The unique identifier of the requested attachment")
+            @PathParam("attachmentId") Long attachmentId,
+            @Context HttpHeaders headers) {
+        return statFile(token, attachmentId, fileAccessCache::getAttachmentAccess, attachmentDocumentStore, ATTACHMENT_DOCUMENT_CACHE_CONTROL, headers);
+    }
+
+    @Operation(
+        summary = "Gets the metadata of the user performance document",
+        description = "Gets the size, the last modification time and the existence of the document without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The metadata of the document",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DocumentMetadata.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the user has no authorization to access the requested document")
+    @GET
+    @Path("performance-document/metadata")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<RestResponse<DocumentMetadata>> getUserPerformanceResultDocumentMetadata(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token) {
+        return readMetadata(token, 0L, (t, __) -> fileAccessCache.getPerformanceResultAccess(t), performanceResultDocumentStore);
+    }
+
+    @Operation(
+        summary = "Gets the metadata of the user document",
+        description = "Gets the size, the last modification time and the existence of the document without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The metadata of the document",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DocumentMetadata.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the user has no authorization to access the requested document")
+    @GET
+    @Path("document/{documentId}/metadata")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<RestResponse<DocumentMetadata>> getUserDocumentMetadata(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @Parameter(description = "The unique identifier of the requested document")
+            @PathParam("documentId") Long documentId) {
+        return readMetadata(token, documentId, fileAccessCache::getUserDocumentAccess, userDocumentStore);
+    }
+
+    @Operation(
+        summary = "Gets the metadata of the attachment",
+        description = "Gets the size, the last modification time and the existence of the attachment without reading its content. "
+            + "It calls the ACL service for identifying the user and the file.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The metadata of the attachment",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = DocumentMetadata.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the user has no authorization to access the requested attachment")
+    @GET
+    @Path("attachment/{attachmentId}/metadata")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<RestResponse<DocumentMetadata>> getAttachmentMetadata(
             @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
             @NotNull
             @HeaderParam(TOKEN_HEADER) String token,
             @Parameter(description = "The unique identifier of the requested attachment")
             @PathParam("attachmentId") Long attachmentId) {
-        return readFile(token, attachmentId, fileAccessService::getAttachmentAccess, attachmentDocumentStore);
+        return readMetadata(token, attachmentId, fileAccessCache::getAttachmentAccess, attachmentDocumentStore);
+    }
+
+    @Operation(
+        summary = "Gets more documents of the user in a single ZIP archive",
+        description = "Checks the access of every requested document and attachment by calling the ACL service, "
+            + "and streams the accessible ones in a ZIP archive. The documents that cannot be accessed are left out of the archive.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The ZIP archive of the accessible documents",
+        content = @Content(mediaType = "application/zip", schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the Token is missing from the header, or no document is requested, or too many documents are requested")
+    @APIResponse(
+        responseCode = "404",
+        description = "If none of the requested documents is found, or the user has no authorization to access them")
+    @POST
+    @Path("documents/archive")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(ARCHIVE_MEDIA_TYPE)
+    public Uni<RestResponse<FileStream>> getDocumentArchive(
+            @Parameter(description = "Signed token in Base 64 format that used for identification of the user")
+            @NotNull
+            @HeaderParam(TOKEN_HEADER) String token,
+            @NotNull BatchDownloadRequest request) {
+        return documentArchiver.archive(token, request)
+            .map(archive -> RestResponse.ResponseBuilder.ok(archive)
+                .header(HttpHeaders.CONTENT_TYPE, ARCHIVE_MEDIA_TYPE)
+                .header("Content-Disposition", "attachment; filename=\"" + ARCHIVE_FILE_NAME + "\"")
+                .build())
+            .onFailure(IllegalArgumentException.class)
+            .recoverWithItem(failure -> RestResponse.ResponseBuilder.<FileStream>create(RestResponse.Status.BAD_REQUEST).build())
+            .onFailure()
+            .recoverWithUni(this::logAndEmpty)
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
     }
 
     /**
-     * This function verifies the access rights of the provided user for the given document and retrieves the file content.<p>
+     * This function verifies the access rights of the provided user for the given document and opens the file for streaming its content.<p>
      * The user is identified by the token provided through a remote service endpoint
-     * of the Access Control List (ACL) server. If the user cannot be identified or does
-     * not have permission to access the requested document, the function returns null.<p>
-     * In the event that the remote endpoint call fails, the function will retry using a configured exponential backoff.
-     * If the requested file is not available on the local file system, it also returns null.
+     * of the Access Control List (ACL) server; its recent decisions are cached by the {@link DocumentAccessCache}.
+     * If the user cannot be identified or does not have permission to access the requested document, the function returns null.<p>
+     * In the event that the remote endpoint call fails transiently, it is retried by the {@link AccessServiceGuard} using a configured
+     * exponential backoff, unless the retry budget is exhausted or the circuit breaker of the ACL is open.
+     * If the requested file is not available on the local file system, it also returns null.<p>
+     * If the client sent a conditional request and its copy is still valid, then only the file attributes are checked,
+     * and an empty response is returned with HTTP 304.<p>
+     * If the client accepts compressed content, and the document has a pre-compressed variant, then the variant is sent.
      *
      * @param token         used for identification of the user
      * @param id            identifier of the requested document
      * @param fileAccess    defines the remote service endpoint call
      * @param documentStore used for reading the requested document from the local file system
-     * @return document content or null if user has no permission or the file is not available
+     * @param cacheControl  the value of the Cache-Control response header
+     * @param headers       the request headers, like <i>Range</i>, that define which part of the document should be sent
+     * @return document content stream or empty response if user has no permission or the file is not available
+     */
+    private Uni<RestResponse<FileStream>> readFile(String token, Long id, BiFunction<String, Long, Uni<DocumentFileAccess>> fileAccess, DocumentStore documentStore,
+                                                   String cacheControl, HttpHeaders headers) {
+        return fileAccess.apply(token, id)
+            .flatMap(access -> documentStore.stat(access)
+                .flatMap(attributes -> selectEncoding(access, attributes, documentStore, headers)
+                    .flatMap(encoding -> FileResponses.isNotModified(attributes, encoding, headers)
+                        ? Uni.createFrom().item(FileResponses.notModified(attributes, encoding, cacheControl))
+                        : openFile(access, attributes, encoding, documentStore, cacheControl, headers))))
+            .onFailure()
+            .recoverWithUni(this::logAndEmpty)
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    /**
+     * Verifies the access rights like {@link #readFile}, but it only gets the attributes of the document without opening it.
+     * The response describes the whole document in its original encoding.
+     *
+     * @return the headers of the document, or an empty response if the user has no permission or the file is not available
      */
-    private Uni<RestResponse<byte[]>> readFile(String token, Long id, BiFunction<String, Long, Uni<DocumentFileAccess>> fileAccess, DocumentStore documentStore) {
+    private Uni<RestResponse<FileStream>> statFile(String token, Long id, BiFunction<String, Long, Uni<DocumentFileAccess>> fileAccess, DocumentStore documentStore,
+                                                   String cacheControl, HttpHeaders headers) {
         return fileAccess.apply(token, id)
+            .flatMap(documentStore::stat)
+            .map(attributes -> FileResponses.isNotModified(attributes, ContentEncoding.IDENTITY, headers)
+                ? FileResponses.notModified(attributes, ContentEncoding.IDENTITY, cacheControl)
+                : FileResponses.head(attributes, cacheControl))
             .onFailure()
-            .retry()
-            .withBackOff(Duration.ofMillis(RETRY_INITIAL_BACKOFF_MS))
-            .expireIn(RETRY_EXPIRATION_MS)
-            .flatMap(documentStore::read)
-            .map(Buffer::getBytes)
-            .map(b -> RestResponse.ResponseBuilder.ok(b).build())
+            .recoverWithUni(this::logAndEmpty)
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    /**
+     * Verifies the access rights like {@link #readFile}, and gets the metadata of the document without opening it.
+     *
+     * @return the metadata of the document, that tells whether it exists, or an empty response if the user has no permission
+     */
+    private Uni<RestResponse<DocumentMetadata>> readMetadata(String token, Long id, BiFunction<String, Long, Uni<DocumentFileAccess>> fileAccess,
+                                                             DocumentStore documentStore) {
+        return fileAccess.apply(token, id)
+            .flatMap(access -> documentStore.stat(access)
+                .map(attributes -> new DocumentMetadata(true, attributes.size(), attributes.lastModified()))
+                .onFailure(FileSystemHandler::isMissingFile)
+                .recoverWithItem(DocumentMetadata::missing))
+            .map(RestResponse::ok)
             .onFailure()
             .recoverWithUni(this::logAndEmpty)
-            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    /**
+     * Selects the pre-compressed variant of the document if the client accepts it, and it is available.
+     */
+    private Uni<ContentEncoding> selectEncoding(DocumentFileAccess access, FileAttributes attributes, DocumentStore documentStore, HttpHeaders headers) {
+        var encoding = FileResponses.preferredEncoding(headers);
+        if (encoding == ContentEncoding.IDENTITY) {
+            return Uni.createFrom().item(encoding);
+        }
+        return documentStore.hasVariant(access, attributes, encoding)
+            .map(available -> available ? encoding : ContentEncoding.IDENTITY);
+    }
+
+    private Uni<RestResponse<FileStream>> openFile(DocumentFileAccess access, FileAttributes attributes, ContentEncoding encoding, DocumentStore documentStore,
+                                                   String cacheControl, HttpHeaders headers) {
+        if (encoding == ContentEncoding.IDENTITY) {
+            return documentStore.open(access).flatMap(file -> FileResponses.of(file, headers, cacheControl));
+        }
+        return documentStore.open(access, encoding).map(variant -> FileResponses.encoded(variant, attributes, encoding, cacheControl));
     }
 
-    private Uni<RestResponse<byte[]>> logAndEmpty(Throwable failure) {
+    private <T> Uni<RestResponse<T>> logAndEmpty(Throwable failure) {
+        if (failure instanceof BulkheadFullException) {
+            logger.warn(failure.getMessage());
+            metrics.error("read", failure);
+            return Uni.createFrom()
+                    .item(RestResponse.ResponseBuilder.<T>create(RestResponse.Status.SERVICE_UNAVAILABLE).build());
+        }
         logger.error("Document file access error", failure);
+        metrics.error("read", failure);
         return Uni.createFrom()
-                .item(RestResponse.ResponseBuilder.ok(Buffer.buffer().getBytes()).status(RestResponse.Status.NOT_FOUND).build());
+                .item(RestResponse.ResponseBuilder.<T>notFound().build());
     }
 }
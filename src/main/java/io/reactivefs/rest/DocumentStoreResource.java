@@ -1,13 +1,27 @@
 package io.reactivefs.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.io.FileStream;
+import io.reactivefs.model.BatchWriteResult;
 import io.reactivefs.model.DocumentCreateRequest;
 import io.reactivefs.model.DocumentRemoveRequest;
+import io.reactivefs.model.DocumentUploadRequest;
+import io.reactivefs.model.ResumableUploadRequest;
+import io.reactivefs.model.UploadStatus;
 import io.reactivefs.service.*;
+import io.smallrye.mutiny.Multi;
 import io.smallrye.mutiny.Uni;
-import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.unchecked.Unchecked;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -16,11 +30,16 @@ import org.eclipse.microprofile.openapi.annotations.media.SchemaProperty;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 
 import static io.reactivefs.ext.DocumentAccessResourceService.API_KEY_HEADER;
 
@@ -35,6 +54,10 @@ import static io.reactivefs.ext.DocumentAccessResourceService.API_KEY_HEADER;
 @Produces(MediaType.APPLICATION_JSON)
 public class DocumentStoreResource {
 
+    static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    static final String BATCH_PATH_SUFFIX = "/batch";
+
     @UserDocument
     @Inject
     DocumentStore userDocumentStore;
@@ -50,6 +73,24 @@ public class DocumentStoreResource {
     @Inject
     ApiKeyCache apiKeyCache;
 
+    @Inject
+    DocumentCreateRequestDecoder createRequestDecoder;
+
+    @Inject
+    DocumentBatchWriter batchWriter;
+
+    @Inject
+    ResumableUploads resumableUploads;
+
+    @Inject
+    ObjectMapper mapper;
+
+    @Inject
+    FileIoExecutor fileIoExecutor;
+
+    @Inject
+    RFSMetrics metrics;
+
     private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     @Operation(
@@ -76,12 +117,12 @@ public class DocumentStoreResource {
             .map(__ -> RestResponse.ResponseBuilder.ok(true).status(RestResponse.Status.ACCEPTED).build())
             .onFailure()
             .recoverWithUni(this::logAndEmptyWrite)
-            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
     }
 
     @Operation(
         summary = "Stores the given user document in the file store.",
-        description = "Stores the document on the local file system. The document must be in Base64 format. It calls the ACL service for authorizing the caller.")
+        description = "Stores the document on the local file system. The document must be in Base64 format, it is decoded into the file as it arrives. It calls the ACL service for authorizing the caller.")
     @APIResponse(
         responseCode = "201",
         description = "The caller has write permission and the file was successfully written to the storage.",
@@ -90,26 +131,31 @@ public class DocumentStoreResource {
         responseCode = "400",
         description = "If the sent document cannot be stored, or the caller has no authorized to access to the service.",
         content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
     @POST
     @Path("document")
+    @RequestBody(description = "Contains the document content and metadata for calculating the file path in the storage.",
+        content = @Content(schema = @Schema(implementation = DocumentCreateRequest.class, properties = {
+            @SchemaProperty(name = "organizationId", description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg"),
+            @SchemaProperty(name = "userId", description = "The user ID that is used for calculation of the subfolder under the organization folder.", example = "23453456"),
+            @SchemaProperty(name = "fileName", description = "The name of the file."),
+            @SchemaProperty(name = "content", description = "The document content in Base64 format.")
+            })))
     public Uni<RestResponse<Boolean>> createUserDocument(
         @Parameter(description = "The key that identifies the caller")
         @NotNull
         @HeaderParam(API_KEY_HEADER) String apiKey,
-        @RequestBody(description = "Contains the document content and metadata for calculating the file path in the storage.",
-            content = @Content(schema = @Schema(implementation = DocumentCreateRequest.class, properties = {
-                @SchemaProperty(name = "organizationId", description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg"),
-                @SchemaProperty(name = "userId", description = "The user ID that is used for calculation of the subfolder under the organization folder.", example = "23453456"),
-                @SchemaProperty(name = "fileName", description = "The name of the file."),
-                @SchemaProperty(name = "content", description = "The document content in Base64 format.")
-                })))
-            DocumentCreateRequest createRequest) {
-        return writeFile(apiKey, createRequest, userDocumentStore);
+        @Context HttpServerRequest request) {
+        var body = pausedBody(request);
+        return writeFile(apiKey, () -> createRequestDecoder.decode(body, userDocumentStore::write));
     }
 
     @Operation(
         summary = "Stores the given attachment in the file store.",
-        description = "Stores the document on the local file system. The document must be in Base64 format. It calls the ACL service for authorizing the caller.")
+        description = "Stores the document on the local file system. The document must be in Base64 format, it is decoded into the file as it arrives. It calls the ACL service for authorizing the caller.")
     @APIResponse(
         responseCode = "201",
         description = "The caller has write permission and the file was successfully written to the storage.",
@@ -118,34 +164,416 @@ public class DocumentStoreResource {
         responseCode = "400",
         description = "If the sent attachment cannot be stored, or the caller has no authorized to access to the service.",
         content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
     @POST
     @Path("attachment")
+    @RequestBody(description = "Contains the attachment and metadata for calculating the file path in the storage.",
+        content = @Content(schema = @Schema(implementation = DocumentCreateRequest.class, properties = {
+            @SchemaProperty(name = "organizationId", description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg"),
+            @SchemaProperty(name = "fileName", description = "The name of the file."),
+            @SchemaProperty(name = "content", description = "The attachment content in Base64 format")
+        })))
     public Uni<RestResponse<Boolean>> createAttachment(
         @Parameter(description = "The key that identifies the caller")
         @NotNull
         @HeaderParam(API_KEY_HEADER) String apiKey,
-        @RequestBody(description = "Contains the attachment and metadata for calculating the file path in the storage.",
-            content = @Content(schema = @Schema(implementation = DocumentCreateRequest.class, properties = {
-                @SchemaProperty(name = "organizationId", description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg"),
-                @SchemaProperty(name = "fileName", description = "The name of the file."),
-                @SchemaProperty(name = "content", description = "The attachment content in Base64 format")
-            })))
-            DocumentCreateRequest createRequest) {
-        return writeFile(apiKey, createRequest, attachmentDocumentStore);
+        @Context HttpServerRequest request) {
+        var body = pausedBody(request);
+        return writeFile(apiKey, () -> createRequestDecoder.decode(body, attachmentDocumentStore::write));
+    }
+
+    @Operation(
+        summary = "Stores the user document sent as binary content in the file store.",
+        description = "Writes the request body to the local file system as it arrives, thus large documents do not consume memory. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The caller has write permission and the file was successfully written to the storage.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the sent document cannot be stored, or the caller has no authorized to access to the service.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
+    @POST
+    @Path("document/{organizationId}/{userId}/{fileName}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    public Uni<RestResponse<Boolean>> streamUserDocument(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("organizationId") String organizationId, @PathParam("userId") String userId, @PathParam("fileName") String fileName,
+        @Context HttpServerRequest request) {
+        var content = pausedBody(request);
+        return writeFile(apiKey, () -> userDocumentStore.write(new DocumentUploadRequest(organizationId, userId, fileName), content));
+    }
+
+    @Operation(
+        summary = "Stores the attachment sent as binary content in the file store.",
+        description = "Writes the request body to the local file system as it arrives, thus large attachments do not consume memory. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The caller has write permission and the file was successfully written to the storage.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the sent attachment cannot be stored, or the caller has no authorized to access to the service.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
+    @POST
+    @Path("attachment/{organizationId}/{fileName}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    public Uni<RestResponse<Boolean>> streamAttachment(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("organizationId") String organizationId, @PathParam("fileName") String fileName,
+        @Context HttpServerRequest request) {
+        var content = pausedBody(request);
+        return writeFile(apiKey, () -> attachmentDocumentStore.write(new DocumentUploadRequest(organizationId, null, fileName), content));
+    }
+
+    @Operation(
+        summary = "Stores the user document uploaded as a multipart form in the file store.",
+        description = "The uploaded file is buffered on the disk instead of the memory, and it is moved into the storage. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The caller has write permission and the file was successfully written to the storage.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the sent document cannot be stored, or the caller has no authorized to access to the service.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
+    @POST
+    @Path("document")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public Uni<RestResponse<Boolean>> uploadUserDocument(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @Parameter(description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg")
+        @RestForm String organizationId,
+        @Parameter(description = "The user ID that is used for calculation of the subfolder under the organization folder.", example = "23453456")
+        @RestForm String userId,
+        @Parameter(description = "The name of the file.")
+        @RestForm String fileName,
+        @Parameter(description = "The document content.")
+        @RestForm("content") FileUpload content) {
+        return writeFile(apiKey, () -> userDocumentStore.write(new DocumentUploadRequest(organizationId, userId, fileName), uploadedFile(content)));
+    }
+
+    @Operation(
+        summary = "Stores the attachment uploaded as a multipart form in the file store.",
+        description = "The uploaded file is buffered on the disk instead of the memory, and it is moved into the storage. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The caller has write permission and the file was successfully written to the storage.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the sent attachment cannot be stored, or the caller has no authorized to access to the service.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "503",
+        description = "If the store has too many pending operations.",
+        content = @Content(mediaType = "application/json"))
+    @POST
+    @Path("attachment")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public Uni<RestResponse<Boolean>> uploadAttachment(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @Parameter(description = "The organization ID that identifies the subfolder under the base storage.", example = "SampleOrg")
+        @RestForm String organizationId,
+        @Parameter(description = "The name of the file.")
+        @RestForm String fileName,
+        @Parameter(description = "The attachment content.")
+        @RestForm("content") FileUpload content) {
+        return writeFile(apiKey, () -> attachmentDocumentStore.write(new DocumentUploadRequest(organizationId, null, fileName), uploadedFile(content)));
     }
 
-    private Uni<RestResponse<Boolean>> writeFile(String apiKey, DocumentCreateRequest createRequest, DocumentStore store) {
+    @Operation(
+        summary = "Stores the user documents sent in one request in the file store.",
+        description = "The request body contains the documents in NDJSON format, a document creation request per line, that are decoded and stored as they arrive. "
+            + "The caller is authorized once by calling the ACL service, and the result of each document is streamed back in NDJSON format when it is stored.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The caller has write permission; the results of the documents in the order of their completion.",
+        content = @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(implementation = BatchWriteResult.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the caller has no authorized to access to the service.")
+    @POST
+    @Path("documents" + BATCH_PATH_SUFFIX)
+    @Consumes(NDJSON_MEDIA_TYPE)
+    @Produces(NDJSON_MEDIA_TYPE)
+    @RequestBody(description = "The document creation requests in NDJSON format.",
+        content = @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(implementation = DocumentCreateRequest.class)))
+    public Uni<RestResponse<FileStream>> createUserDocuments(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @Context HttpServerRequest request) {
+        var body = pausedBody(request);
+        return writeBatch(apiKey, () -> batchWriter.write(body, userDocumentStore::write));
+    }
+
+    @Operation(
+        summary = "Stores the attachments sent in one request in the file store.",
+        description = "The request body contains the attachments in NDJSON format, a document creation request per line, that are decoded and stored as they arrive. "
+            + "The caller is authorized once by calling the ACL service, and the result of each attachment is streamed back in NDJSON format when it is stored.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The caller has write permission; the results of the attachments in the order of their completion.",
+        content = @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(implementation = BatchWriteResult.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the caller has no authorized to access to the service.")
+    @POST
+    @Path("attachments" + BATCH_PATH_SUFFIX)
+    @Consumes(NDJSON_MEDIA_TYPE)
+    @Produces(NDJSON_MEDIA_TYPE)
+    @RequestBody(description = "The attachment creation requests in NDJSON format.",
+        content = @Content(mediaType = NDJSON_MEDIA_TYPE, schema = @Schema(implementation = DocumentCreateRequest.class)))
+    public Uni<RestResponse<FileStream>> createAttachments(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @Context HttpServerRequest request) {
+        var body = pausedBody(request);
+        return writeBatch(apiKey, () -> batchWriter.write(body, attachmentDocumentStore::write));
+    }
+
+    @Operation(
+        summary = "Starts a resumable upload of a user document.",
+        description = "Creates the upload with the size and the owners of the document, whose content can be sent in chunks later. "
+            + "It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The upload is created, the response contains its identifier.",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadStatus.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the size or the name of the document is invalid, or the caller has no authorized to access to the service.")
+    @POST
+    @Path("document/uploads")
+    public Uni<RestResponse<UploadStatus>> startUserDocumentUpload(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @NotNull ResumableUploadRequest uploadRequest) {
+        return upload(apiKey, () -> resumableUploads.start(userDocumentStore, uploadRequest), RestResponse.Status.CREATED);
+    }
+
+    @Operation(
+        summary = "Starts a resumable upload of an attachment.",
+        description = "Creates the upload with the size and the owners of the attachment, whose content can be sent in chunks later. "
+            + "It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The upload is created, the response contains its identifier.",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadStatus.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the size or the name of the attachment is invalid, or the caller has no authorized to access to the service.")
+    @POST
+    @Path("attachment/uploads")
+    public Uni<RestResponse<UploadStatus>> startAttachmentUpload(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @NotNull ResumableUploadRequest uploadRequest) {
+        return upload(apiKey, () -> resumableUploads.start(attachmentDocumentStore, uploadRequest), RestResponse.Status.CREATED);
+    }
+
+    @Operation(
+        summary = "Sends a chunk of a resumable upload.",
+        description = "Writes the binary request body into the upload at the given offset as it arrives. "
+            + "The chunks can be sent in any order and in parallel, and the missing ones can be sent again. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The chunk is written, the response tells which ranges of the content have arrived.",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadStatus.class)))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the chunk is outside the content, or it cannot be written, or the caller has no authorized to access to the service.")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the upload does not exist, or it has already been committed or dropped.")
+    @APIResponse(
+        responseCode = "409",
+        description = "If the upload is being committed.")
+    @PUT
+    @Path("uploads/{uploadId}")
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    public Uni<RestResponse<UploadStatus>> writeUploadChunk(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("uploadId") String uploadId,
+        @Parameter(description = "The position of the chunk in the content.")
+        @QueryParam("offset") @DefaultValue("0") long offset,
+        @Context HttpServerRequest request) {
+        var chunk = pausedBody(request);
+        return upload(apiKey, () -> resumableUploads.write(uploadId, offset, chunk), RestResponse.Status.OK);
+    }
+
+    @Operation(
+        summary = "Gets the state of a resumable upload.",
+        description = "Tells which ranges of the content have arrived, thus the client can send the missing chunks again. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "200",
+        description = "The ranges of the content that have arrived.",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadStatus.class)))
+    @APIResponse(
+        responseCode = "404",
+        description = "If the upload does not exist, or it has already been committed or dropped.")
+    @GET
+    @Path("uploads/{uploadId}")
+    public Uni<RestResponse<UploadStatus>> getUploadStatus(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("uploadId") String uploadId) {
+        return upload(apiKey, () -> resumableUploads.status(uploadId), RestResponse.Status.OK);
+    }
+
+    @Operation(
+        summary = "Commits a resumable upload.",
+        description = "Stores the uploaded document in the file store when its whole content has arrived. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "201",
+        description = "The document was successfully written to the storage.",
+        content = @Content(mediaType = "application/json"))
+    @APIResponse(
+        responseCode = "400",
+        description = "If the content has not arrived completely, or the document cannot be stored, or the caller has no authorized to access to the service.")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the upload does not exist, or it has already been committed or dropped.")
+    @APIResponse(
+        responseCode = "409",
+        description = "If a chunk is being written, or the upload is already being committed.")
+    @POST
+    @Path("uploads/{uploadId}/commit")
+    @Consumes(MediaType.WILDCARD)
+    public Uni<RestResponse<Boolean>> commitUpload(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("uploadId") String uploadId) {
+        return upload(apiKey, () -> resumableUploads.commit(uploadId).replaceWith(true), RestResponse.Status.CREATED);
+    }
+
+    @Operation(
+        summary = "Drops a resumable upload.",
+        description = "Deletes the arrived content of the upload. It calls the ACL service for authorizing the caller.")
+    @APIResponse(
+        responseCode = "204",
+        description = "The upload is dropped.")
+    @APIResponse(
+        responseCode = "404",
+        description = "If the upload does not exist, or it has already been committed or dropped.")
+    @DELETE
+    @Path("uploads/{uploadId}")
+    @Consumes(MediaType.WILDCARD)
+    public Uni<RestResponse<Void>> abortUpload(
+        @Parameter(description = "The key that identifies the caller")
+        @NotNull
+        @HeaderParam(API_KEY_HEADER) String apiKey,
+        @PathParam("uploadId") String uploadId) {
+        return upload(apiKey, () -> resumableUploads.abort(uploadId), RestResponse.Status.NO_CONTENT);
+    }
+
+    /**
+     * Pauses the request body until it is piped into the file, thus no content is lost while the caller is authorized.
+     */
+    private static ReadStream<Buffer> pausedBody(HttpServerRequest request) {
+        return io.vertx.mutiny.core.http.HttpServerRequest.newInstance(request.pause());
+    }
+
+    private static java.nio.file.Path uploadedFile(FileUpload upload) {
+        if (upload == null) {
+            throw new IllegalArgumentException("The content of the document is missing");
+        }
+        return upload.uploadedFile();
+    }
+
+    private Uni<RestResponse<Boolean>> writeFile(String apiKey, Supplier<Uni<Void>> write) {
         return apiKeyCache
             .checkOrSet(apiKey)
-            .call(() -> store.write(createRequest))
+            .call(write::get)
             .map(__ -> RestResponse.ResponseBuilder.ok(true).status(RestResponse.Status.CREATED).build())
             .onFailure()
             .recoverWithUni(this::logAndEmptyWrite)
-            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    /**
+     * Authorizes the caller once, then streams the results of the batch as NDJSON lines while the documents are stored.
+     */
+    private Uni<RestResponse<FileStream>> writeBatch(String apiKey, Supplier<Multi<BatchWriteResult>> write) {
+        return apiKeyCache
+            .checkOrSet(apiKey)
+            .map(__ -> RestResponse.ResponseBuilder.ok(new FileStream(-1, write.get().map(Unchecked.function(this::toJsonLine))))
+                .header(HttpHeaders.CONTENT_TYPE, NDJSON_MEDIA_TYPE)
+                .build())
+            .onFailure()
+            .recoverWithItem(failure -> {
+                logger.error("Document batch write error", failure);
+                metrics.error("write", failure);
+                return RestResponse.ResponseBuilder.<FileStream>create(RestResponse.Status.BAD_REQUEST).build();
+            })
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    /**
+     * Authorizes the caller, then runs the operation of the resumable upload. The failures are answered by their kind: the missing
+     * upload with 404, the upload being committed with 409, the full store with 503, and any other with 400.
+     */
+    private <T> Uni<RestResponse<T>> upload(String apiKey, Supplier<Uni<T>> operation, RestResponse.Status status) {
+        return apiKeyCache
+            .checkOrSet(apiKey)
+            .chain(operation::get)
+            .map(result -> RestResponse.ResponseBuilder.<T>create(status).entity(result).build())
+            .onFailure()
+            .recoverWithItem(failure -> {
+                var failureStatus = failure instanceof NoSuchElementException ? RestResponse.Status.NOT_FOUND
+                    : failure instanceof IllegalStateException ? RestResponse.Status.CONFLICT
+                    : failure instanceof BulkheadFullException ? RestResponse.Status.SERVICE_UNAVAILABLE
+                    : RestResponse.Status.BAD_REQUEST;
+                logger.warn("Resumable upload error: {}", failure.getMessage());
+                metrics.error("write", failure);
+                return RestResponse.ResponseBuilder.<T>create(failureStatus).build();
+            })
+            .runSubscriptionOn(fileIoExecutor.requestExecutor());
+    }
+
+    private Buffer toJsonLine(BatchWriteResult result) throws IOException {
+        return Buffer.buffer(mapper.writeValueAsBytes(result)).appendByte((byte) '\n');
     }
 
     private Uni<RestResponse<Boolean>> logAndEmptyWrite(Throwable failure) {
+        if (failure instanceof BulkheadFullException) {
+            logger.warn(failure.getMessage());
+            metrics.error("write", failure);
+            return Uni.createFrom().item(RestResponse.ResponseBuilder.ok(false).status(RestResponse.Status.SERVICE_UNAVAILABLE).build());
+        }
         logger.error("Document write/delete error", failure);
+        metrics.error("write", failure);
         return Uni.createFrom().item(RestResponse.ResponseBuilder.ok(false).status(RestResponse.Status.BAD_REQUEST).build());
     }
 }
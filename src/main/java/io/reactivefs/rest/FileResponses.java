@@ -0,0 +1,278 @@
+package io.reactivefs.rest;
+
+import io.reactivefs.io.ContentEncoding;
+import io.reactivefs.io.FileAttributes;
+import io.reactivefs.io.FileStream;
+import io.reactivefs.io.ReadableFile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Builds the download responses from the opened file, honouring the <i>Range</i> and <i>If-Range</i> request headers.<p>
+ * Only the requested byte windows are read from the storage. If more ranges are requested, then the response is
+ * a <i>multipart/byteranges</i> document, whose parts are streamed one after the other.<p>
+ * Every response carries the <i>ETag</i> and <i>Last-Modified</i> validators of the file, thus the clients can revalidate
+ * their copy using the <i>If-None-Match</i> or <i>If-Modified-Since</i> headers, which are answered without reading the file content.<p>
+ * If the client accepts it, then the pre-compressed variant of the file is sent with the <i>Content-Encoding</i> header. The variants
+ * have their own entity tags, and the ranges are always served from the original file.
+ */
+public final class FileResponses {
+
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
+
+    public static final String CONTENT_RANGE = "Content-Range";
+
+    public static final String RANGE = "Range";
+
+    public static final String IF_RANGE = "If-Range";
+
+    public static final String VARY = "Vary";
+
+    /** Requests with more ranges than this are answered with the whole file. */
+    static final int MAX_RANGES = 16;
+
+    private static final String CRLF = "\r\n";
+
+    private FileResponses() {
+    }
+
+    /**
+     * Selects the encoding of the response from the <i>Accept-Encoding</i> header. If ranges are requested, then the original file is sent.
+     *
+     * @param headers The headers of the request.
+     * @return The preferred encoding that the client accepts.
+     */
+    public static ContentEncoding preferredEncoding(HttpHeaders headers) {
+        var acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || headers.getHeaderString(RANGE) != null) {
+            return ContentEncoding.IDENTITY;
+        }
+        var codings = Arrays.stream(acceptEncoding.split(",")).map(String::trim).toList();
+        var gzip = codings.stream()
+            .filter(coding -> codingName(coding).equalsIgnoreCase(ContentEncoding.GZIP.token()))
+            .findFirst()
+            .or(() -> codings.stream().filter(coding -> codingName(coding).equals("*")).findFirst());
+        return gzip.filter(FileResponses::isAccepted).isPresent() ? ContentEncoding.GZIP : ContentEncoding.IDENTITY;
+    }
+
+    /**
+     * Checks whether the copy of the client is still valid, so the file content should not be sent again.
+     * <p>If the <i>If-None-Match</i> header is present, then the <i>If-Modified-Since</i> header is ignored.
+     *
+     * @param attributes The current attributes of the file.
+     * @param encoding The encoding of the variant that would be sent.
+     * @param headers The headers of the request.
+     * @return true if the client has the current version of the file.
+     */
+    public static boolean isNotModified(FileAttributes attributes, ContentEncoding encoding, HttpHeaders headers) {
+        var ifNoneMatch = headers.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            var etag = opaqueTag(etag(attributes, encoding));
+            return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || opaqueTag(tag).equals(etag));
+        }
+        var ifModifiedSince = parseDate(headers.getHeaderString(HttpHeaders.IF_MODIFIED_SINCE));
+        return ifModifiedSince.isPresent() && attributes.lastModified() / 1000 <= ifModifiedSince.get();
+    }
+
+    /**
+     * Creates the response without content, telling the client that its copy is still valid (304).
+     *
+     * @param attributes The current attributes of the file.
+     * @param encoding The encoding of the variant that would be sent.
+     * @param cacheControl The value of the <i>Cache-Control</i> header.
+     */
+    public static RestResponse<FileStream> notModified(FileAttributes attributes, ContentEncoding encoding, String cacheControl) {
+        return RestResponse.ResponseBuilder.<FileStream>create(RestResponse.Status.NOT_MODIFIED)
+            .header(HttpHeaders.ETAG, etag(attributes, encoding))
+            .lastModified(new Date(attributes.lastModified()))
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .header(VARY, HttpHeaders.ACCEPT_ENCODING)
+            .build();
+    }
+
+    /**
+     * Creates the response of a <i>HEAD</i> request that describes the whole file without sending its content.
+     *
+     * @param attributes The current attributes of the file.
+     * @param cacheControl The value of the <i>Cache-Control</i> header.
+     * @return The response with the validators and the length of the file (200).
+     */
+    public static RestResponse<FileStream> head(FileAttributes attributes, String cacheControl) {
+        return withValidators(RestResponse.ResponseBuilder.ok(), attributes, ContentEncoding.IDENTITY, cacheControl)
+            .header(HttpHeaders.CONTENT_LENGTH, attributes.size())
+            .build();
+    }
+
+    /**
+     * Creates the response of the given encoded variant of a file. The variant is closed when the response is sent.
+     *
+     * @param variant The variant opened for reading.
+     * @param attributes The current attributes of the original file, that the validators are derived from.
+     * @param encoding The encoding of the variant.
+     * @param cacheControl The value of the <i>Cache-Control</i> header.
+     * @return The response with the whole variant (200).
+     */
+    public static RestResponse<FileStream> encoded(ReadableFile variant, FileAttributes attributes, ContentEncoding encoding, String cacheControl) {
+        return withValidators(RestResponse.ResponseBuilder.ok(FileStream.of(variant)), attributes, encoding, cacheControl)
+            .header(HttpHeaders.CONTENT_ENCODING, encoding.token())
+            .build();
+    }
+
+    /**
+     * Creates the response of the given file. The file is closed when the response is sent, or when it turned out that no content should be sent.
+     *
+     * @param file The file opened for reading.
+     * @param headers The headers of the request.
+     * @param cacheControl The value of the <i>Cache-Control</i> header.
+     * @return The response with the whole file (200), with the requested ranges (206),
+     * or without content if none of the requested ranges can be satisfied (416).
+     */
+    public static Uni<RestResponse<FileStream>> of(ReadableFile file, HttpHeaders headers, String cacheControl) {
+        var ranges = isRangeApplicable(file.attributes(), headers.getHeaderString(IF_RANGE))
+            ? ByteRange.parse(headers.getHeaderString(RANGE), file.size(), MAX_RANGES)
+            : Optional.<List<ByteRange>>empty();
+        if (ranges.isEmpty()) {
+            return Uni.createFrom().item(withValidators(RestResponse.ResponseBuilder.ok(FileStream.of(file)), file.attributes(), ContentEncoding.IDENTITY, cacheControl)
+                .build());
+        }
+        var satisfiable = ranges.get();
+        if (satisfiable.isEmpty()) {
+            return file.close()
+                .map(__ -> RestResponse.ResponseBuilder.<FileStream>create(RestResponse.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(CONTENT_RANGE, "bytes */" + file.size())
+                    .build());
+        }
+        var response = satisfiable.size() == 1 ? singlePart(file, satisfiable.get(0)) : multiPart(file, satisfiable);
+        return Uni.createFrom().item(withValidators(response, file.attributes(), ContentEncoding.IDENTITY, cacheControl).build());
+    }
+
+    /**
+     * @param attributes The attributes of the file.
+     * @return The strong entity tag of the file, that is changed whenever the file is rewritten.
+     */
+    public static String etag(FileAttributes attributes) {
+        return etag(attributes, ContentEncoding.IDENTITY);
+    }
+
+    /**
+     * @param attributes The attributes of the original file.
+     * @param encoding The encoding of the variant.
+     * @return The strong entity tag of the given variant of the file, that is changed whenever the file is rewritten.
+     */
+    public static String etag(FileAttributes attributes, ContentEncoding encoding) {
+        var suffix = encoding == ContentEncoding.IDENTITY ? "" : "-" + encoding.token();
+        return "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModified()) + suffix + "\"";
+    }
+
+    private static RestResponse.ResponseBuilder<FileStream> withValidators(RestResponse.ResponseBuilder<FileStream> response, FileAttributes attributes,
+                                                                           ContentEncoding encoding, String cacheControl) {
+        return response
+            .header(ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.ETAG, etag(attributes, encoding))
+            .lastModified(new Date(attributes.lastModified()))
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .header(VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static RestResponse.ResponseBuilder<FileStream> singlePart(ReadableFile file, ByteRange range) {
+        return RestResponse.ResponseBuilder.create(RestResponse.Status.PARTIAL_CONTENT, FileStream.of(file, range.first(), range.length()))
+            .header(CONTENT_RANGE, range.contentRange(file.size()));
+    }
+
+    private static RestResponse.ResponseBuilder<FileStream> multiPart(ReadableFile file, List<ByteRange> ranges) {
+        var boundary = UUID.randomUUID().toString();
+        var partHeaders = ranges.stream()
+            .map(range -> "--" + boundary + CRLF
+                + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM + CRLF
+                + CONTENT_RANGE + ": " + range.contentRange(file.size()) + CRLF + CRLF)
+            .toList();
+        var closing = "--" + boundary + "--" + CRLF;
+        long length = closing.length();
+        for (int i = 0; i < ranges.size(); i++) {
+            length += partHeaders.get(i).length() + ranges.get(i).length() + CRLF.length();
+        }
+        var content = Multi.createFrom().range(0, ranges.size())
+            .onItem()
+            .transformToMultiAndConcatenate(i -> Multi.createBy().concatenating().streams(
+                Multi.createFrom().item(() -> Buffer.buffer(partHeaders.get(i))),
+                file.read(ranges.get(i).first(), ranges.get(i).length()),
+                Multi.createFrom().item(() -> Buffer.buffer(CRLF))))
+            .onCompletion()
+            .continueWith(() -> List.of(Buffer.buffer(closing)));
+        return RestResponse.ResponseBuilder.create(RestResponse.Status.PARTIAL_CONTENT, new FileStream(length, content, file::close))
+            .type("multipart/byteranges; boundary=" + boundary);
+    }
+
+    /**
+     * The ranges are served only if the file has not been changed since the client got the validator that is sent in the <i>If-Range</i> header.
+     * Weak entity tags never match.
+     */
+    private static boolean isRangeApplicable(FileAttributes attributes, String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag(attributes));
+        }
+        return parseDate(ifRange).filter(seconds -> seconds == attributes.lastModified() / 1000).isPresent();
+    }
+
+    private static String codingName(String coding) {
+        var separator = coding.indexOf(';');
+        return (separator < 0 ? coding : coding.substring(0, separator)).trim();
+    }
+
+    /**
+     * @return true if the quality of the given element of the <i>Accept-Encoding</i> header is not zero.
+     */
+    private static boolean isAccepted(String coding) {
+        var parameters = coding.split(";");
+        for (int i = 1; i < parameters.length; i++) {
+            var parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The weak comparison of the entity tags ignores the weakness indicator.
+     */
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * @return The seconds since the epoch of the given HTTP date, or empty if it cannot be parsed.
+     */
+    private static Optional<Long> parseDate(String date) {
+        if (date == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
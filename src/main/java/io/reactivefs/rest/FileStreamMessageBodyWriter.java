@@ -0,0 +1,157 @@
+package io.reactivefs.rest;
+
+import io.reactivefs.io.FileStream;
+import io.smallrye.mutiny.subscription.MultiSubscriber;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Type;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the {@link FileStream} to the HTTP response chunk by chunk.<p>
+ * The next chunk is requested only when the previous one has been handed over to the connection and its write queue is not full,
+ * so a slow client slows down the file read instead of the content piling up in the memory.<p>
+ * The resources of the stream are released when the last chunk has been written out, or the connection is closed,
+ * because the chunks may refer to them, like the memory mapped files, until they are sent. If the stream fails after the status and
+ * the headers have been sent, then the failure cannot be reported anymore: the connection is reset instead, thus the client does not
+ * take the truncated content for a complete one.<p>
+ * When the response goes through WriterInterceptors, the stream is written by {@link #writeTo} instead: the chunks are copied into
+ * the output stream one after the other on the calling thread, that must be allowed to block.
+ */
+@Provider
+public class FileStreamMessageBodyWriter implements ServerMessageBodyWriter<FileStream> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target, MediaType mediaType) {
+        return FileStream.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return FileStream.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(FileStream stream, Type genericType, ServerRequestContext context) {
+        var requestContext = (ResteasyReactiveRequestContext) context;
+        requestContext.suspend();
+        var response = requestContext.serverRequest().unwrap(RoutingContext.class).response();
+        if (stream.length() >= 0) {
+            response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(stream.length()));
+        } else {
+            response.setChunked(true);
+        }
+        stream.content().subscribe().withSubscriber(new ResponseSubscriber(stream, response, requestContext));
+    }
+
+    /**
+     * Copies the chunks of the stream into the output stream, requesting the next chunk only when the previous one has been copied.
+     * The stream is released when it is drained or the copy fails, like when the client has gone.
+     */
+    @Override
+    public void writeTo(FileStream stream, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        try (var chunks = stream.content().subscribe().asStream(1, () -> new ArrayBlockingQueue<>(1))) {
+            var iterator = chunks.iterator();
+            while (iterator.hasNext()) {
+                entityStream.write(iterator.next().getBytes());
+            }
+        } finally {
+            stream.close().get()
+                .onFailure()
+                .invoke(failure -> logger.warn("File stream cannot be closed", failure))
+                .onFailure()
+                .recoverWithNull()
+                .await()
+                .indefinitely();
+        }
+    }
+
+    private static final class ResponseSubscriber implements MultiSubscriber<Buffer> {
+
+        private final FileStream stream;
+
+        private final HttpServerResponse response;
+
+        private final ResteasyReactiveRequestContext requestContext;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile Flow.Subscription subscription;
+
+        ResponseSubscriber(FileStream stream, HttpServerResponse response, ResteasyReactiveRequestContext requestContext) {
+            this.stream = stream;
+            this.response = response;
+            this.requestContext = requestContext;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            requestContext.serverResponse().addCloseHandler(() -> {
+                subscription.cancel();
+                close();
+            });
+            subscription.request(1);
+        }
+
+        @Override
+        public void onItem(Buffer chunk) {
+            response.write(chunk.getDelegate());
+            if (response.writeQueueFull()) {
+                response.drainHandler(__ -> {
+                    response.drainHandler(null);
+                    subscription.request(1);
+                });
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable failure) {
+            close();
+            if (response.headWritten()) {
+                logger.warn("File stream failed after the response was started, the connection is reset", failure);
+                response.reset();
+                requestContext.resume();
+                return;
+            }
+            requestContext.resume(failure);
+        }
+
+        @Override
+        public void onCompletion() {
+            response.end().onComplete(__ -> close());
+            requestContext.resume();
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                stream.close().get()
+                    .subscribe()
+                    .with(__ -> {}, failure -> logger.warn("File stream cannot be closed", failure));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.reactivefs.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sheds the load of the document endpoints when they are overloaded: the requests above the adaptive {@link ConcurrencyLimit} are
+ * rejected with <i>503 Service Unavailable</i> and a <i>Retry-After</i> header, before any work is done for them.<p>
+ * The reads ({@link DocumentFileAccessResource}) and the writes ({@link DocumentStoreResource}) have separate limits, thus slow
+ * writes do not reduce the read capacity. The latency of a request is measured until the headers of its response have been written,
+ * thus the transfer of the response body, that is paced by the client, is not included; the 503 responses of the stores count as
+ * dropped requests. The batch writes and the requests with a large or chunked body hold a permit while they run, but their latency
+ * is not sampled, because it depends on the size of the body and on the client instead of the load. The limits, the in-flight and the rejected requests
+ * are published as the <i>fs.limit</i> metrics tagged by the kind.
+ */
+public class LoadSheddingFilter {
+
+    public static final String METRIC_PREFIX = "fs.limit";
+
+    public static final String RETRY_AFTER = "Retry-After";
+
+    @ConfigProperty(name = RFSConfig.LIMIT_ENABLED, defaultValue = "true")
+    boolean enabled;
+
+    /** The concurrency limit of the reads before any latency has been measured. */
+    @ConfigProperty(name = RFSConfig.LIMIT_READ_INITIAL, defaultValue = "64")
+    int readInitial;
+
+    @ConfigProperty(name = RFSConfig.LIMIT_READ_MIN, defaultValue = "8")
+    int readMin;
+
+    @ConfigProperty(name = RFSConfig.LIMIT_READ_MAX, defaultValue = "512")
+    int readMax;
+
+    /** The concurrency limit of the writes before any latency has been measured. */
+    @ConfigProperty(name = RFSConfig.LIMIT_WRITE_INITIAL, defaultValue = "32")
+    int writeInitial;
+
+    @ConfigProperty(name = RFSConfig.LIMIT_WRITE_MIN, defaultValue = "4")
+    int writeMin;
+
+    @ConfigProperty(name = RFSConfig.LIMIT_WRITE_MAX, defaultValue = "256")
+    int writeMax;
+
+    /** The multiplier of the limit when the latency grows. */
+    @ConfigProperty(name = RFSConfig.LIMIT_BACKOFF_RATIO, defaultValue = "0.9")
+    double backoffRatio;
+
+    /** The ratio of the latency to the no-load latency above which the limit is decreased. */
+    @ConfigProperty(name = RFSConfig.LIMIT_LATENCY_TOLERANCE, defaultValue = "2.0")
+    double latencyTolerance;
+
+    /** The time in millis after which the no-load latency is measured again. */
+    @ConfigProperty(name = RFSConfig.LIMIT_MIN_LATENCY_WINDOW_MS, defaultValue = "30000")
+    long minLatencyWindowMs;
+
+    /** The maximum size of the request body for which the latency is sampled. */
+    @ConfigProperty(name = RFSConfig.LIMIT_SAMPLE_MAX_BODY_BYTES, defaultValue = "65536")
+    long sampleMaxBodyBytes;
+
+    /** The seconds after which the rejected clients may try again. */
+    @ConfigProperty(name = RFSConfig.LIMIT_RETRY_AFTER_SECONDS, defaultValue = "1")
+    int retryAfterSeconds;
+
+    @Inject
+    MeterRegistry registry;
+
+    private ConcurrencyLimit readLimit;
+
+    private ConcurrencyLimit writeLimit;
+
+    private Counter readRejected;
+
+    private Counter writeRejected;
+
+    @PostConstruct
+    void init() {
+        readLimit = new ConcurrencyLimit(readInitial, readMin, readMax, backoffRatio, latencyTolerance, minLatencyWindowMs, System::nanoTime);
+        writeLimit = new ConcurrencyLimit(writeInitial, writeMin, writeMax, backoffRatio, latencyTolerance, minLatencyWindowMs, System::nanoTime);
+        readRejected = registerMetrics("read", readLimit);
+        writeRejected = registerMetrics("write", writeLimit);
+    }
+
+    @ServerRequestFilter
+    public Optional<RestResponse<Void>> limit(SimpleResourceInfo resourceInfo, RoutingContext context) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        var resourceClass = resourceInfo.getResourceClass();
+        ConcurrencyLimit limit;
+        Counter rejected;
+        if (DocumentFileAccessResource.class.isAssignableFrom(resourceClass)) {
+            limit = readLimit;
+            rejected = readRejected;
+        } else if (DocumentStoreResource.class.isAssignableFrom(resourceClass)) {
+            limit = writeLimit;
+            rejected = writeRejected;
+        } else {
+            return Optional.empty();
+        }
+        if (!limit.tryAcquire()) {
+            rejected.increment();
+            return Optional.of(RestResponse.ResponseBuilder.<Void>create(RestResponse.Status.SERVICE_UNAVAILABLE)
+                .header(RETRY_AFTER, retryAfterSeconds)
+                .build());
+        }
+        var start = System.nanoTime();
+        var sampled = isSampled(context.request());
+        var latency = new AtomicLong(-1);
+        context.addHeadersEndHandler(__ -> latency.set(System.nanoTime() - start));
+        context.addEndHandler(result -> {
+            if (result.failed() || !sampled || latency.get() < 0) {
+                limit.onIgnore();
+            } else if (context.response().getStatusCode() == RestResponse.StatusCode.SERVICE_UNAVAILABLE) {
+                limit.onDropped();
+            } else {
+                limit.onSuccess(latency.get());
+            }
+        });
+        return Optional.empty();
+    }
+
+    /**
+     * @return false for the batches and for the bodies that are chunked or larger than {@link #sampleMaxBodyBytes}, because their
+     * upload is paced by the client.
+     */
+    private boolean isSampled(HttpServerRequest request) {
+        if (request.path().endsWith(DocumentStoreResource.BATCH_PATH_SUFFIX)) {
+            return false;
+        }
+        if (request.method() == HttpMethod.GET || request.method() == HttpMethod.HEAD || request.method() == HttpMethod.DELETE) {
+            return true;
+        }
+        var contentLength = request.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength == null) {
+            return request.getHeader(HttpHeaders.TRANSFER_ENCODING) == null;
+        }
+        try {
+            return Long.parseLong(contentLength) <= sampleMaxBodyBytes;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tells the clients of every overloaded response, like the ones of the full store bulkheads, when they may try again.
+     */
+    @ServerResponseFilter
+    public void retryAfter(ContainerResponseContext response) {
+        if (response.getStatus() == RestResponse.StatusCode.SERVICE_UNAVAILABLE && !response.getHeaders().containsKey(RETRY_AFTER)) {
+            response.getHeaders().putSingle(RETRY_AFTER, retryAfterSeconds);
+        }
+    }
+
+    private Counter registerMetrics(String kind, ConcurrencyLimit limit) {
+        Gauge.builder(METRIC_PREFIX + ".limit", limit, ConcurrencyLimit::limit)
+            .tag("kind", kind)
+            .description("The number of the requests that can be served concurrently")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", limit, ConcurrencyLimit::inFlight)
+            .tag("kind", kind)
+            .description("The number of the requests being served")
+            .register(registry);
+        return Counter.builder(METRIC_PREFIX + ".rejected")
+            .tag("kind", kind)
+            .description("The number of the requests rejected because of the overload")
+            .register(registry);
+    }
+}
@@ -1,15 +1,16 @@
 package io.reactivefs.service;
 
-import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.ext.AccessServiceGuard;
+import io.reactivefs.jfr.FlightEvents;
 import io.reactivefs.ext.DocumentAccessResourceService;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.unchecked.Unchecked;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
-import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 
 @ApplicationScoped
@@ -18,20 +19,19 @@ public class ApiKeyCache {
     @RestClient
     DocumentAccessResourceService documentAccessService;
 
-    /** Initial interval, wait for the first retry */
-    @ConfigProperty(name = RFSConfig.RETRY_INITIAL_BACKOFF_MS, defaultValue = "200")
-    int RETRY_INITIAL_BACKOFF_MS;
+    @Inject
+    AccessServiceGuard accessServiceGuard;
 
-    /** The absolute time in millis that specifies when to give up the retry */
-    @ConfigProperty(name = RFSConfig.RETRY_EXPIRATION_MS, defaultValue = "2000")
-    int RETRY_EXPIRATION_MS;
+    @Inject
+    RFSMetrics metrics;
 
     private AtomicReference<String> cache = new AtomicReference<>("");
 
     /**
      * This function verifies the provided <i>ApiKey</i> key. If the key has not been set previously,
-     * it is validated by making a call to the access checker service (ACL).
+     * it is validated by making a call to the access checker service (ACL), that is guarded by the {@link AccessServiceGuard}.
      * If the value is found to be invalid, an error is thrown. If the value is valid, it is stored in the cache.
+     * The validation is measured by the <i>fs.apikey.validation</i> timer tagged by the cache hit or miss.
      *
      * @param apiKey The key that must be checked.
      * @return firing the result of the operation when completed, or a failure if the operation failed.
@@ -40,7 +40,9 @@ public class ApiKeyCache {
     public Uni<Void> checkOrSet(String apiKey) {
         return Uni.createFrom().item(apiKey)
             .onItem().transformToUni(this::isChanged)
-            .onItem().transformToUni(changed -> validateOrSkip(apiKey, changed))
+            .onItem().transformToUni(changed -> validateOrSkip(apiKey, changed)
+                .plug(FlightEvents.apiKeyValidation(!changed))
+                .plug(metrics.timed(RFSMetrics.API_KEY_VALIDATION, "cache", changed ? "miss" : "hit")))
             .onItem().transformToUni(this::update);
     }
 
@@ -61,11 +63,7 @@ public class ApiKeyCache {
 
     private Uni<String> validateOrSkip(String key, boolean validate) {
         return validate ?
-            documentAccessService.validateApiKey(key)
-                .onFailure()
-                .retry()
-                .withBackOff(Duration.ofMillis(RETRY_INITIAL_BACKOFF_MS))
-                .expireIn(RETRY_EXPIRATION_MS)
+            accessServiceGuard.call("key", () -> documentAccessService.validateApiKey(key))
                 .map(Unchecked.function(applicationAuth -> {
                     if (applicationAuth.authorized()) {
                         return key;
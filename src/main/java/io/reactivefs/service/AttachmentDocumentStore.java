@@ -1,13 +1,25 @@
 package io.reactivefs.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
 import io.reactivefs.io.FileContent;
+import io.reactivefs.io.ContentEncoding;
+import io.reactivefs.io.FileAttributes;
 import io.reactivefs.io.FileSystemHandler;
+import io.reactivefs.io.MeteredReadableFile;
+import io.reactivefs.io.ReadableFile;
 import io.reactivefs.model.DocumentCreateRequest;
 import io.reactivefs.model.DocumentFileAccess;
+import io.reactivefs.model.DocumentUploadRequest;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
@@ -20,6 +32,8 @@ import static org.apache.commons.lang3.StringUtils.isAnyBlank;
 @ApplicationScoped
 public class AttachmentDocumentStore implements DocumentStore {
 
+    public static final String STORE_NAME = "attachment";
+
     @Inject
     FileSystemHandler fileSystemHandler;
 
@@ -27,12 +41,74 @@ public class AttachmentDocumentStore implements DocumentStore {
     @Inject
     DocumentPathResolver pathResolver;
 
+    /** The maximum number of the concurrent storage operations of the store. */
+    @ConfigProperty(name = RFSConfig.ATTACHMENT_DOCUMENT_BULKHEAD_MAX_CONCURRENT, defaultValue = "12")
+    int bulkheadMaxConcurrent;
+
+    /** The maximum number of the storage operations of the store waiting for a slot. */
+    @ConfigProperty(name = RFSConfig.ATTACHMENT_DOCUMENT_BULKHEAD_MAX_QUEUE, defaultValue = "256")
+    int bulkheadMaxQueue;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RFSMetrics metrics;
+
+    private StoreBulkhead bulkhead;
+
+    private Counter bytesRead;
+
+    private Counter bytesWritten;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new StoreBulkhead(STORE_NAME, bulkheadMaxConcurrent, bulkheadMaxQueue, registry);
+        bytesRead = metrics.bytesRead(STORE_NAME);
+        bytesWritten = metrics.bytesWritten(STORE_NAME);
+    }
+
     @Override
     public Uni<Buffer> read(DocumentFileAccess fileAccess) {
         return Uni.createFrom().item(fileAccess)
             .map(function(this::attachmentPath))
             .onItem()
-            .transformToUni(fileSystemHandler::readFile);
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.readFile(path)))
+            .invoke(content -> bytesRead.increment(content.length()));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::attachmentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(path), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<FileAttributes> stat(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::attachmentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.getAttributes(path)));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::attachmentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(encoding.resolve(path)), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<Boolean> hasVariant(DocumentFileAccess fileAccess, FileAttributes attributes, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::attachmentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.hasVariant(path, attributes, encoding)));
     }
 
     @Override
@@ -40,16 +116,50 @@ public class AttachmentDocumentStore implements DocumentStore {
         return Uni.createFrom().item(createRequest)
             .map(function(this::toFileContent))
             .onItem()
-            .call(fileContent -> fileSystemHandler.createDirectories(fileContent.path().getParent()))
+            .transformToUni(fileContent -> bulkhead.execute(() -> fileSystemHandler.writeInDirectory(fileContent.path().getParent(),
+                () -> fileSystemHandler.writeFile(fileContent)))
+                .invoke(() -> bytesWritten.increment(fileContent.content().length)));
+    }
+
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, ReadStream<Buffer> content) {
+        return Uni.createFrom().item(uploadRequest)
+            .map(function(this::attachmentPath))
             .onItem()
-            .transformToUni(fileSystemHandler::writeFile);
+            .transformToUni(path -> fileSystemHandler.writeInDirectory(path.getParent(),
+                () -> fileSystemHandler.writeFile(path, content, bulkhead::execute)))
+            .invoke(size -> bytesWritten.increment(size))
+            .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, Path uploadedFile) {
+        return Uni.createFrom().item(uploadRequest)
+            .map(function(this::attachmentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.writeInDirectory(path.getParent(),
+                () -> fileSystemHandler.moveFile(uploadedFile, path))))
+            .invoke(size -> bytesWritten.increment(size))
+            .replaceWithVoid();
+    }
+
+    @Override
+    public void validate(DocumentUploadRequest uploadRequest) {
+        attachmentPath(uploadRequest);
     }
 
     private Path attachmentPath(DocumentFileAccess fileAccess) {
         if (isAnyBlank(fileAccess.organizationId(), fileAccess.fileName())) {
             throw new IllegalArgumentException("Attachment document file cannot be identified");
         }
-        return pathResolver.resolve(fileAccess.organizationId(), null, fileAccess.fileName());
+        return resolvePath(fileAccess.organizationId(), null, fileAccess.fileName());
+    }
+
+    private Path attachmentPath(DocumentUploadRequest uploadRequest) {
+        if (isAnyBlank(uploadRequest.organizationId(), uploadRequest.fileName())) {
+            throw new IllegalArgumentException("Attachment document file path cannot be determined");
+        }
+        return resolvePath(uploadRequest.organizationId(), null, uploadRequest.fileName());
     }
 
     /**
@@ -64,6 +174,10 @@ public class AttachmentDocumentStore implements DocumentStore {
             throw new IllegalArgumentException("Attachment document file path cannot be determined");
         }
         var content = Base64.getDecoder().decode(createRequest.content().getBytes(StandardCharsets.UTF_8));
-        return new FileContent(pathResolver.resolve(createRequest.organizationId(), null, createRequest.fileName()), content);
+        return new FileContent(resolvePath(createRequest.organizationId(), null, createRequest.fileName()), content);
+    }
+
+    private Path resolvePath(String organizationId, String userId, String fileName) {
+        return metrics.timed(RFSMetrics.PATH_RESOLUTION, () -> pathResolver.resolve(organizationId, userId, fileName), "store", STORE_NAME);
     }
 }
@@ -0,0 +1,11 @@
+package io.reactivefs.service;
+
+/**
+ * Signals that the storage operation was rejected, because the {@link StoreBulkhead} of the store has no free slot in its queue.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String store) {
+        super("The bulkhead of the " + store + " store is full", null, false, false);
+    }
+}
@@ -0,0 +1,185 @@
+package io.reactivefs.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.ext.AccessServiceGuard;
+import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.io.SingleFlight;
+import io.reactivefs.model.DocumentFileAccess;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.commons.lang3.StringUtils.isAllBlank;
+
+/**
+ * Caches the document access decisions of the access checker service (ACL), thus the subsequent downloads of the same document
+ * by the same user do not wait for the ACL round trip.<p>
+ * The entries are identified by the token, the type and the identifier of the requested resource. An entry is fresh for the configured
+ * refresh interval; after that it is still served, but it is reloaded in the background (stale-while-revalidate), so a slow ACL service
+ * does not stall the reads that were just authorized. If the reload fails, then the stale entry is kept until it expires.<p>
+ * The denied lookups, when the ACL responds with an empty {@link DocumentFileAccess}, are cached as well, but for a shorter time.
+ * The lookups are guarded by the {@link AccessServiceGuard}, that retries the transient failures of the ACL, and fails fast when
+ * the ACL is degraded. The failed lookups are not cached. The concurrent identical lookups share one ACL call, because the cache keeps
+ * the future of the load in progress. The hit and miss counters are published as the <i>fs.access.cache</i> metrics, and the number of
+ * the lookups that shared a load is published like the ones of a {@link SingleFlight}, tagged as the <i>acl.lookup</i> flight.
+ */
+@ApplicationScoped
+public class DocumentAccessCache {
+
+    public static final String CACHE_NAME = "fs.access.cache";
+
+    /** The maximum number of the cached access decisions. */
+    @ConfigProperty(name = RFSConfig.ACCESS_CACHE_SIZE, defaultValue = "10000")
+    int cacheSize;
+
+    /** The granted access is served for this time in millis after it was loaded. */
+    @ConfigProperty(name = RFSConfig.ACCESS_CACHE_TTL_MS, defaultValue = "60000")
+    long ttlMs;
+
+    /** The denied access is served for this time in millis after it was loaded. */
+    @ConfigProperty(name = RFSConfig.ACCESS_CACHE_NEGATIVE_TTL_MS, defaultValue = "5000")
+    long negativeTtlMs;
+
+    /** The entry is reloaded in the background when it is requested after this time in millis. */
+    @ConfigProperty(name = RFSConfig.ACCESS_CACHE_REFRESH_MS, defaultValue = "15000")
+    long refreshMs;
+
+    @RestClient
+    DocumentAccessResourceService documentAccessService;
+
+    @Inject
+    AccessServiceGuard accessServiceGuard;
+
+    @Inject
+    MeterRegistry registry;
+
+    private AsyncLoadingCache<AccessKey, DocumentFileAccess> cache;
+
+    /** The number of the lookups waiting for the loads in progress by the key. */
+    private final Map<AccessKey, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private DistributionSummary subscribers;
+
+    @PostConstruct
+    void init() {
+        subscribers = DistributionSummary.builder(SingleFlight.SUBSCRIBERS_METRIC)
+            .tag("flight", "acl.lookup")
+            .description("The number of the subscribers that shared the result of an operation")
+            .register(registry);
+        cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfter(new AccessExpiry())
+            .refreshAfterWrite(Duration.ofMillis(refreshMs))
+            .recordStats()
+            .buildAsync((key, executor) -> load(key).subscribeAsCompletionStage());
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * @see DocumentAccessResourceService#getUserDocumentAccess(String, Long)
+     */
+    public Uni<DocumentFileAccess> getUserDocumentAccess(String token, Long documentId) {
+        return get(new AccessKey(token, ResourceType.USER_DOCUMENT, documentId));
+    }
+
+    /**
+     * @see DocumentAccessResourceService#getAttachmentAccess(String, Long)
+     */
+    public Uni<DocumentFileAccess> getAttachmentAccess(String token, Long attachmentId) {
+        return get(new AccessKey(token, ResourceType.ATTACHMENT, attachmentId));
+    }
+
+    /**
+     * @see DocumentAccessResourceService#getPerformanceResultAccess(String)
+     */
+    public Uni<DocumentFileAccess> getPerformanceResultAccess(String token) {
+        return get(new AccessKey(token, ResourceType.PERFORMANCE_RESULT, 0L));
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    /**
+     * @return The lookup over a copy of the cached future, thus the cancellation of a caller does not cancel the shared load.
+     */
+    private Uni<DocumentFileAccess> get(AccessKey key) {
+        return Uni.createFrom().completionStage(() -> {
+            var future = cache.get(key);
+            var load = loads.get(key);
+            if (load != null && !future.isDone()) {
+                load.incrementAndGet();
+            }
+            return future.copy();
+        });
+    }
+
+    /**
+     * The lookups that join the load are counted until it terminates; the background reloads without a waiting lookup are not recorded.
+     */
+    private Uni<DocumentFileAccess> load(AccessKey key) {
+        var load = new AtomicInteger();
+        loads.put(key, load);
+        return accessServiceGuard.call(key.type().endpoint, () -> switch (key.type()) {
+                case USER_DOCUMENT -> documentAccessService.getUserDocumentAccess(key.token(), key.id());
+                case ATTACHMENT -> documentAccessService.getAttachmentAccess(key.token(), key.id());
+                case PERFORMANCE_RESULT -> documentAccessService.getPerformanceResultAccess(key.token());
+            })
+            .onTermination()
+            .invoke(() -> {
+                if (loads.remove(key, load) && load.get() > 0) {
+                    subscribers.record(load.get());
+                }
+            });
+    }
+
+    private enum ResourceType {
+        USER_DOCUMENT("document"), ATTACHMENT("attachment"), PERFORMANCE_RESULT("performance-document");
+
+        /** The name of the ACL endpoint that decides the access. */
+        private final String endpoint;
+
+        ResourceType(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private record AccessKey(String token, ResourceType type, Long id) {}
+
+    /**
+     * The entry expires after the TTL that belongs to the access decision; it is restarted when the entry is reloaded.
+     */
+    private class AccessExpiry implements Expiry<AccessKey, DocumentFileAccess> {
+
+        @Override
+        public long expireAfterCreate(AccessKey key, DocumentFileAccess access, long currentTime) {
+            var ttl = isAllBlank(access.organizationId(), access.userId(), access.fileName()) ? negativeTtlMs : ttlMs;
+            return Duration.ofMillis(ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(AccessKey key, DocumentFileAccess access, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, access, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(AccessKey key, DocumentFileAccess access, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
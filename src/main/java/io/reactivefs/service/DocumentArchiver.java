@@ -0,0 +1,168 @@
+package io.reactivefs.service;
+
+import io.reactivefs.RFSConfig;
+import io.reactivefs.io.FileStream;
+import io.reactivefs.io.ReadableFile;
+import io.reactivefs.io.ZipStream;
+import io.reactivefs.model.BatchDownloadRequest;
+import io.reactivefs.model.DocumentFileAccess;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Collects more documents of the user into a single ZIP archive that is streamed to the client.<p>
+ * The access of the requested documents is checked concurrently, but the number of the parallel ACL calls is bounded.
+ * The documents that the user cannot access, or that do not exist, are left out of the archive.<p>
+ * The documents are read one after the other, chunk by chunk, as the client consumes the archive,
+ * thus none of them is held in the memory.
+ */
+@ApplicationScoped
+public class DocumentArchiver {
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /** The maximum number of the documents in an archive. */
+    @ConfigProperty(name = RFSConfig.ARCHIVE_MAX_DOCUMENTS, defaultValue = "100")
+    int maxDocuments;
+
+    /** The maximum number of the concurrent access checks of an archive. */
+    @ConfigProperty(name = RFSConfig.ARCHIVE_ACCESS_CONCURRENCY, defaultValue = "8")
+    int accessConcurrency;
+
+    @Inject
+    DocumentAccessCache accessCache;
+
+    @Inject
+    @UserDocument
+    DocumentStore userDocumentStore;
+
+    @Inject
+    @Attachment
+    DocumentStore attachmentDocumentStore;
+
+    /**
+     * Creates the archive of the requested documents that the user can access.
+     *
+     * @param token   used for identification of the user
+     * @param request the identifiers of the requested documents
+     * @return the stream of the archive, or a failure if none of the documents can be accessed
+     * @throws IllegalArgumentException if no document is requested, or more documents are requested than the configured limit
+     */
+    public Uni<FileStream> archive(String token, BatchDownloadRequest request) {
+        var requested = new ArrayList<RequestedDocument>();
+        request.documentIds().forEach(id -> requested.add(new RequestedDocument(requested.size(), "documents/", id,
+            accessCache::getUserDocumentAccess, userDocumentStore)));
+        request.attachmentIds().forEach(id -> requested.add(new RequestedDocument(requested.size(), "attachments/", id,
+            accessCache::getAttachmentAccess, attachmentDocumentStore)));
+        if (requested.isEmpty() || requested.size() > maxDocuments) {
+            return Uni.createFrom().failure(new IllegalArgumentException("The number of the requested documents must be between 1 and " + maxDocuments));
+        }
+        return Multi.createFrom().iterable(requested)
+            .onItem()
+            .transformToUni(document -> resolve(token, document))
+            .merge(accessConcurrency)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect()
+            .asList()
+            .map(entries -> {
+                if (entries.isEmpty()) {
+                    throw new NoSuchElementException("None of the requested documents can be accessed");
+                }
+                return new FileStream(-1, zip(withUniqueNames(entries), request.compression() == BatchDownloadRequest.Compression.DEFLATE));
+            });
+    }
+
+    private Uni<Optional<ArchiveEntry>> resolve(String token, RequestedDocument document) {
+        return document.fileAccess().apply(token, document.id())
+            .flatMap(access -> document.store().stat(access)
+                .map(__ -> Optional.of(new ArchiveEntry(document.index(), document.folder() + access.fileName(), access, document.store()))))
+            .onFailure()
+            .recoverWithItem(failure -> {
+                logger.warn("Document {}{} is left out of the archive: {}", document.folder(), document.id(), failure.getMessage());
+                return Optional.empty();
+            });
+    }
+
+    private Multi<Buffer> zip(List<ArchiveEntry> entries, boolean compress) {
+        return Multi.createFrom().deferred(() -> zip(new ZipStream(compress), entries));
+    }
+
+    private Multi<Buffer> zip(ZipStream zip, List<ArchiveEntry> entries) {
+        return Multi.createFrom().iterable(entries)
+            .onItem()
+            .transformToMultiAndConcatenate(entry -> entry.store().open(entry.access())
+                .map(Optional::of)
+                .onFailure()
+                .recoverWithItem(failure -> {
+                    logger.warn("Document {} is left out of the archive", entry.name(), failure);
+                    return Optional.empty();
+                })
+                .onItem()
+                .transformToMulti(file -> file.map(f -> zipEntry(zip, entry, f)).orElseGet(() -> Multi.createFrom().empty())))
+            .onCompletion()
+            .continueWith(() -> List.of(zip.finish()))
+            .filter(chunk -> chunk.length() > 0)
+            .onTermination()
+            .invoke(zip::close);
+    }
+
+    /**
+     * The chunks are copied into the archive on the thread that emits them, thus the file can be closed right after its last chunk,
+     * even if its chunks are views of a memory mapped file.
+     */
+    private Multi<Buffer> zipEntry(ZipStream zip, ArchiveEntry entry, ReadableFile file) {
+        return Multi.createBy().concatenating().streams(
+                Multi.createFrom().item(() -> zip.putEntry(entry.name(), file.lastModified())),
+                file.read(0, file.size()).map(zip::write),
+                Multi.createFrom().item(zip::closeEntry))
+            .onTermination()
+            .call(file::close);
+    }
+
+    /**
+     * Restores the requested order of the documents, and makes the entry names unique by numbering the repeated ones.
+     */
+    private List<ArchiveEntry> withUniqueNames(List<ArchiveEntry> entries) {
+        var occurrences = new HashMap<String, Integer>();
+        return entries.stream()
+            .sorted(Comparator.comparingInt(ArchiveEntry::index))
+            .map(entry -> {
+                var occurrence = occurrences.merge(entry.name(), 1, Integer::sum);
+                return occurrence == 1 ? entry : entry.withName(numbered(entry.name(), occurrence - 1));
+            })
+            .toList();
+    }
+
+    private static String numbered(String name, int number) {
+        var dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') + 1
+            ? name.substring(0, dot) + " (" + number + ")" + name.substring(dot)
+            : name + " (" + number + ")";
+    }
+
+    private record RequestedDocument(int index, String folder, Long id, BiFunction<String, Long, Uni<DocumentFileAccess>> fileAccess,
+                                     DocumentStore store) {}
+
+    private record ArchiveEntry(int index, String name, DocumentFileAccess access, DocumentStore store) {
+
+        ArchiveEntry withName(String name) {
+            return new ArchiveEntry(index, name, access, store);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.reactivefs.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.io.DecodeExecutor;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.model.BatchWriteResult;
+import io.reactivefs.model.DocumentCreateRequest;
+import io.reactivefs.model.DocumentUploadRequest;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Writes many documents sent in one request body, thus the caller is authorized once, and the documents are not limited by the
+ * overhead of the separate requests.<p>
+ * The body is a stream of {@link DocumentCreateRequest} objects, like NDJSON. The objects are decoded one after the other into temporary
+ * files by the {@link DocumentCreateRequestDecoder}, while the decoded documents are stored concurrently: the decoder runs ahead of the
+ * stores by a bounded number of documents, and it pauses the body when the stores cannot keep up.<p>
+ * The failure of a document does not stop the batch, unless the rest of the body cannot be parsed.
+ */
+@ApplicationScoped
+public class DocumentBatchWriter {
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /** The maximum number of the documents of a batch that are stored concurrently. */
+    @ConfigProperty(name = RFSConfig.BATCH_WRITE_CONCURRENCY, defaultValue = "8")
+    int concurrency;
+
+    /** The maximum number of the decoded documents of a batch that wait for their store, or are being stored. */
+    @ConfigProperty(name = RFSConfig.BATCH_WRITE_PREFETCH, defaultValue = "16")
+    int prefetch;
+
+    @Inject
+    DocumentCreateRequestDecoder decoder;
+
+    @Inject
+    FileIoExecutor io;
+
+    @Inject
+    DecodeExecutor decodeExecutor;
+
+    /**
+     * Decodes the documents of the request body, and passes them to the store as they are decoded.
+     *
+     * @param body The stream of the {@link DocumentCreateRequest} JSON objects, that must be paused until it is decoded.
+     * @param store Stores the decoded document from the temporary file, like {@link DocumentStore#write(DocumentUploadRequest, Path)}.
+     * @return The results of the documents in the order of their completion.
+     */
+    public Multi<BatchWriteResult> write(ReadStream<Buffer> body, BiFunction<DocumentUploadRequest, Path, Uni<Void>> store) {
+        return Multi.createFrom().deferred(() -> {
+            var pending = new Semaphore(Math.max(prefetch, concurrency));
+            return Multi.createFrom().<DecodedDocument>emitter(emitter -> {
+                    emitter.onTermination(() -> pending.release(Integer.MAX_VALUE / 2));
+                    decodeExecutor.execute(() -> {
+                            decode(body, emitter, pending);
+                            return null;
+                        })
+                        .subscribe()
+                        .with(__ -> emitter.complete(), emitter::fail);
+                })
+                .onItem()
+                .transformToUni(document -> store(document, store)
+                    .onTermination()
+                    .invoke(() -> pending.release()))
+                .merge(concurrency);
+        });
+    }
+
+    private Uni<BatchWriteResult> store(DecodedDocument document, BiFunction<DocumentUploadRequest, Path, Uni<Void>> store) {
+        if (document.failure() != null) {
+            return Uni.createFrom().item(BatchWriteResult.failed(document.index(), null, document.failure()));
+        }
+        var fileName = document.uploadRequest().fileName();
+        return store.apply(document.uploadRequest(), document.file())
+            .map(__ -> BatchWriteResult.written(document.index(), fileName))
+            .onFailure()
+            .recoverWithItem(failure -> {
+                logger.warn("Document {} of the batch cannot be written", document.index(), failure);
+                return BatchWriteResult.failed(document.index(), fileName, failure);
+            })
+            .onTermination()
+            .call(() -> io.runChecked(() -> Files.deleteIfExists(document.file()))
+                .onFailure()
+                .recoverWithNull());
+    }
+
+    /**
+     * Decodes the documents one after the other on the {@link DecodeExecutor}, but it waits for a free slot before each, thus the decoded
+     * documents cannot pile up. The batch fails if no slot is freed within the idle time of the decoding.
+     */
+    private void decode(ReadStream<Buffer> body, MultiEmitter<? super DecodedDocument> emitter, Semaphore pending)
+        throws IOException, InterruptedException, TimeoutException {
+        try (var json = decodeExecutor.inputStream(body, DocumentCreateRequestDecoder.MAX_QUEUED_BYTES);
+             var parser = DocumentCreateRequestDecoder.createParser(json)) {
+            for (var index = 0; ; index++) {
+                if (!pending.tryAcquire(decodeExecutor.idleTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("Documents of the batch have not been stored for " + decodeExecutor.idleTimeout().toMillis() + " ms");
+                }
+                if (emitter.isCancelled()) {
+                    return;
+                }
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                } catch (IOException e) {
+                    emitter.emit(DecodedDocument.failed(index, e));
+                    return;
+                }
+                if (token == null) {
+                    return;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    emitter.emit(DecodedDocument.failed(index, new IllegalArgumentException("Document creation request must be a JSON object")));
+                    return;
+                }
+                var document = decodeObject(index, parser);
+                emitter.emit(document);
+                if (document.failure() != null && !isAtNextDocument(parser, document.failure())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private DecodedDocument decodeObject(int index, JsonParser parser) throws IOException {
+        var file = decoder.createTempFile();
+        try (var content = new BufferedOutputStream(Files.newOutputStream(file), DocumentCreateRequestDecoder.WRITE_BUFFER_SIZE)) {
+            return new DecodedDocument(index, DocumentCreateRequestDecoder.readObject(parser, content), file, null);
+        } catch (IOException | IllegalArgumentException e) {
+            Files.deleteIfExists(file);
+            return DecodedDocument.failed(index, e);
+        }
+    }
+
+    /**
+     * @return true if the failed document has been read until its end, thus the next document can be decoded, like when its content is missing.
+     */
+    private static boolean isAtNextDocument(JsonParser parser, Throwable failure) {
+        return failure instanceof IllegalArgumentException
+            && parser.currentToken() == JsonToken.END_OBJECT
+            && parser.getParsingContext().inRoot();
+    }
+
+    private record DecodedDocument(int index, DocumentUploadRequest uploadRequest, Path file, Throwable failure) {
+
+        static DecodedDocument failed(int index, Throwable failure) {
+            return new DecodedDocument(index, null, null, failure);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.reactivefs.service;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.io.DecodeExecutor;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.model.DocumentCreateRequest;
+import io.reactivefs.model.DocumentUploadRequest;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.BiFunction;
+
+/**
+ * Decodes the {@link DocumentCreateRequest} JSON of the request body as it arrives, without holding the body or the content in the memory.<p>
+ * The fields are read by the streaming parser of Jackson, and the Base64 <i>content</i> is decoded chunk by chunk into a temporary file
+ * in the upload folder. The file is handed over to the store together with the owners of the document, that can be anywhere in the JSON,
+ * and the store moves it into its place. The temporary file is deleted if the store does not take it.<p>
+ * The parser blocks while it waits for the next chunk of the body, thus it runs on the pool of the {@link DecodeExecutor}, and it fails
+ * if the body stops arriving for the idle time of the pool.
+ */
+@ApplicationScoped
+public class DocumentCreateRequestDecoder {
+
+    /** The standard Base64 alphabet without line feeds, that accepts the content with or without padding like {@link java.util.Base64#getDecoder()}. */
+    private static final Base64Variant BASE64 = Base64Variants.MIME_NO_LINEFEEDS.withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** The maximum number of the arrived bytes of the body that wait for the decoder, above the body is paused. */
+    static final int MAX_QUEUED_BYTES = 256 * 1024;
+
+    static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /** The folder of the temporary files of the decoded content. */
+    @ConfigProperty(name = RFSConfig.UPLOAD_DIRECTORY, defaultValue = "/tmp/fs/upload")
+    String uploadDirectory;
+
+    @Inject
+    FileIoExecutor io;
+
+    @Inject
+    DecodeExecutor decodeExecutor;
+
+    /**
+     * Decodes the request body, then passes the decoded document to the store.
+     *
+     * @param body The JSON of the {@link DocumentCreateRequest}, that must be paused until it is decoded.
+     * @param store Stores the decoded document from the temporary file, like {@link DocumentStore#write(DocumentUploadRequest, Path)}.
+     * @return The lazy asynchronous action, that fails with {@link IllegalArgumentException} if the body is not a valid request.
+     */
+    public Uni<Void> decode(ReadStream<Buffer> body, BiFunction<DocumentUploadRequest, Path, Uni<Void>> store) {
+        return decodeExecutor.execute(() -> spool(body))
+            .flatMap(decoded -> store.apply(decoded.uploadRequest(), decoded.file())
+                .onTermination()
+                .call(() -> io.runChecked(() -> Files.deleteIfExists(decoded.file()))));
+    }
+
+    /**
+     * @return The new empty temporary file in the upload folder, that receives the decoded content of a document. The upload folder
+     * is created only when it is missing.
+     */
+    Path createTempFile() throws IOException {
+        var directory = Paths.get(uploadDirectory);
+        try {
+            return Files.createTempFile(directory, "upload-", ".tmp");
+        } catch (NoSuchFileException e) {
+            return Files.createTempFile(Files.createDirectories(directory), "upload-", ".tmp");
+        }
+    }
+
+    private DecodedDocument spool(ReadStream<Buffer> body) throws IOException {
+        var file = createTempFile();
+        try (var json = decodeExecutor.inputStream(body, MAX_QUEUED_BYTES);
+             var content = new BufferedOutputStream(Files.newOutputStream(file), WRITE_BUFFER_SIZE)) {
+            return new DecodedDocument(read(json, content), file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the fields of the {@link DocumentCreateRequest} JSON, and writes the decoded content into the given stream.
+     *
+     * @param json The JSON of the request.
+     * @param content Receives the decoded content.
+     * @return The owners and the name of the document.
+     * @throws IllegalArgumentException if the JSON is not a request object, or its content is missing or not in Base64 format.
+     * @throws IOException if the JSON cannot be parsed.
+     */
+    static DocumentUploadRequest read(InputStream json, OutputStream content) throws IOException {
+        try (var parser = createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Document creation request must be a JSON object");
+            }
+            return readObject(parser, content);
+        }
+    }
+
+    /**
+     * @param json The JSON of one or more requests, the requests can follow each other, like in NDJSON format.
+     * @return The streaming parser of the requests.
+     */
+    static JsonParser createParser(InputStream json) throws IOException {
+        return JSON.createParser(json);
+    }
+
+    /**
+     * Reads the fields of the {@link DocumentCreateRequest} object, whose start is the current token of the parser, until its end.
+     *
+     * @param parser The parser of the JSON.
+     * @param content Receives the decoded content.
+     * @return The owners and the name of the document.
+     * @throws IllegalArgumentException if the content is missing or not in Base64 format, or a field is invalid.
+     * @throws IOException if the JSON cannot be parsed.
+     */
+    static DocumentUploadRequest readObject(JsonParser parser, OutputStream content) throws IOException {
+        String organizationId = null;
+        String userId = null;
+        String fileName = null;
+        var contentSize = -1L;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            var token = parser.nextToken();
+            switch (field) {
+                case "organizationId" -> organizationId = text(parser, token);
+                case "userId" -> userId = text(parser, token);
+                case "fileName" -> fileName = text(parser, token);
+                case "content" -> {
+                    if (contentSize >= 0) {
+                        throw new IllegalArgumentException("Document content is duplicated");
+                    }
+                    contentSize = token == JsonToken.VALUE_STRING ? parser.readBinaryValue(BASE64, content) : 0;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (contentSize <= 0) {
+            throw new IllegalArgumentException("Document content is missing");
+        }
+        return new DocumentUploadRequest(organizationId, userId, fileName);
+    }
+
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new IllegalArgumentException("Document creation request field must be a string: " + parser.currentName());
+        }
+        return parser.getText();
+    }
+
+    private record DecodedDocument(DocumentUploadRequest uploadRequest, Path file) {}
+}
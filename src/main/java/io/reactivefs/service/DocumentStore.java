@@ -1,9 +1,16 @@
 package io.reactivefs.service;
 
+import io.reactivefs.io.ContentEncoding;
+import io.reactivefs.io.FileAttributes;
+import io.reactivefs.io.ReadableFile;
 import io.reactivefs.model.DocumentCreateRequest;
 import io.reactivefs.model.DocumentFileAccess;
+import io.reactivefs.model.DocumentUploadRequest;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+
+import java.nio.file.Path;
 
 /**
  * Defines the API for storing and accessing documents.
@@ -21,6 +28,49 @@ public interface DocumentStore {
      */
     Uni<Buffer> read(DocumentFileAccess fileAccess);
 
+    /**
+     * Opens the given document for reading its content in chunks, without loading it into the memory.
+     *
+     * @param fileAccess contains the information that is used for the identification of the requested file
+     * @return the opened file that must be closed by the caller
+     * @throws io.vertx.core.file.FileSystemException if the file does not exist
+     * @throws IllegalArgumentException               if file access parameter is invalid
+     */
+    Uni<ReadableFile> open(DocumentFileAccess fileAccess);
+
+    /**
+     * Opens the variant of the given document in the given encoding, like its pre-compressed variant.
+     *
+     * @param fileAccess contains the information that is used for the identification of the requested file
+     * @param encoding   the encoding of the requested variant
+     * @return the opened variant that must be closed by the caller
+     * @throws io.vertx.core.file.FileSystemException if the variant does not exist
+     * @throws IllegalArgumentException               if file access parameter is invalid
+     * @see #hasVariant(DocumentFileAccess, FileAttributes, ContentEncoding)
+     */
+    Uni<ReadableFile> open(DocumentFileAccess fileAccess, ContentEncoding encoding);
+
+    /**
+     * Checks whether the given document has a variant in the given encoding, that belongs to its current content.
+     *
+     * @param fileAccess contains the information that is used for the identification of the requested file
+     * @param attributes the current attributes of the document
+     * @param encoding   the encoding of the requested variant
+     * @return true if the variant can be served instead of the document
+     * @throws IllegalArgumentException if file access parameter is invalid
+     */
+    Uni<Boolean> hasVariant(DocumentFileAccess fileAccess, FileAttributes attributes, ContentEncoding encoding);
+
+    /**
+     * Gets the attributes of the given document, like its size and last modification time, without reading its content.
+     *
+     * @param fileAccess contains the information that is used for the identification of the requested file
+     * @return the attributes of the file
+     * @throws io.vertx.core.file.FileSystemException if the file does not exist
+     * @throws IllegalArgumentException               if file access parameter is invalid
+     */
+    Uni<FileAttributes> stat(DocumentFileAccess fileAccess);
+
     /**
      * Writes the provided document to the configured storage. If the document path does not exist, it creates automatically.
      *
@@ -30,4 +80,36 @@ public interface DocumentStore {
      * @throws IllegalArgumentException               if file parameter is invalid
      */
     Uni<Void> write(DocumentCreateRequest createRequest);
+
+    /**
+     * Writes the uploaded document to the configured storage as its content arrives, without holding the content in the memory.
+     * If the document path does not exist, it creates automatically.
+     *
+     * @param uploadRequest contains the information about the owner of the document, like organization and user
+     * @param content       the binary content of the document
+     * @return The lazy asynchronous action that the caller can subscribe to.
+     * @throws io.vertx.core.file.FileSystemException if the file cannot be written to the storage
+     * @throws IllegalArgumentException               if file parameter is invalid
+     */
+    Uni<Void> write(DocumentUploadRequest uploadRequest, ReadStream<Buffer> content);
+
+    /**
+     * Stores the document that was already uploaded into a temporary file, by moving the file into the configured storage.
+     * If the document path does not exist, it creates automatically.
+     *
+     * @param uploadRequest contains the information about the owner of the document, like organization and user
+     * @param uploadedFile  the temporary file that contains the binary content of the document
+     * @return The lazy asynchronous action that the caller can subscribe to.
+     * @throws io.vertx.core.file.FileSystemException if the file cannot be moved to the storage
+     * @throws IllegalArgumentException               if file parameter is invalid
+     */
+    Uni<Void> write(DocumentUploadRequest uploadRequest, Path uploadedFile);
+
+    /**
+     * Checks whether the uploaded document can be stored, before its content is received, like at the start of a resumable upload.
+     *
+     * @param uploadRequest contains the information about the owner of the document, like organization and user
+     * @throws IllegalArgumentException if file parameter is invalid
+     */
+    void validate(DocumentUploadRequest uploadRequest);
 }
@@ -0,0 +1,56 @@
+package io.reactivefs.service;
+
+import io.reactivefs.io.FileAttributes;
+import io.reactivefs.io.ReadableFile;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.buffer.Buffer;
+
+/**
+ * Holds the bulkhead slot of the store that opened the file until the file is closed, thus the slot covers the whole download,
+ * not only the opening of the file.
+ *
+ * @see StoreBulkhead#open
+ */
+class GuardedReadableFile implements ReadableFile {
+
+    private final ReadableFile file;
+
+    private final Runnable release;
+
+    /**
+     * @param file The opened file.
+     * @param release Releases the slot of the bulkhead.
+     */
+    GuardedReadableFile(ReadableFile file, Runnable release) {
+        this.file = file;
+        this.release = release;
+    }
+
+    @Override
+    public long size() {
+        return file.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public FileAttributes attributes() {
+        return file.attributes();
+    }
+
+    @Override
+    public Multi<Buffer> read(long offset, long length) {
+        return file.read(offset, length);
+    }
+
+    @Override
+    public Uni<Void> close() {
+        return Uni.createFrom().deferred(file::close)
+            .onTermination()
+            .invoke(release);
+    }
+}
@@ -1,12 +1,24 @@
 package io.reactivefs.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
+import io.reactivefs.io.ContentEncoding;
+import io.reactivefs.io.FileAttributes;
 import io.reactivefs.io.FileSystemHandler;
+import io.reactivefs.io.MeteredReadableFile;
+import io.reactivefs.io.ReadableFile;
 import io.reactivefs.model.DocumentCreateRequest;
 import io.reactivefs.model.DocumentFileAccess;
+import io.reactivefs.model.DocumentUploadRequest;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.nio.file.Path;
 
@@ -17,6 +29,8 @@ import static org.apache.commons.lang3.StringUtils.isAnyBlank;
 @ApplicationScoped
 public class PerformanceResultDocumentStore implements DocumentStore {
 
+    public static final String STORE_NAME = "performance-result";
+
     @Inject
     FileSystemHandler fileSystemHandler;
 
@@ -24,12 +38,71 @@ public class PerformanceResultDocumentStore implements DocumentStore {
     @Inject
     DocumentPathResolver pathResolver;
 
+    /** The maximum number of the concurrent storage operations of the store. */
+    @ConfigProperty(name = RFSConfig.PERFORMANCE_DOCUMENT_BULKHEAD_MAX_CONCURRENT, defaultValue = "8")
+    int bulkheadMaxConcurrent;
+
+    /** The maximum number of the storage operations of the store waiting for a slot. */
+    @ConfigProperty(name = RFSConfig.PERFORMANCE_DOCUMENT_BULKHEAD_MAX_QUEUE, defaultValue = "256")
+    int bulkheadMaxQueue;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RFSMetrics metrics;
+
+    private StoreBulkhead bulkhead;
+
+    private Counter bytesRead;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new StoreBulkhead(STORE_NAME, bulkheadMaxConcurrent, bulkheadMaxQueue, registry);
+        bytesRead = metrics.bytesRead(STORE_NAME);
+    }
+
     @Override
     public Uni<Buffer> read(DocumentFileAccess fileAccess) {
         return Uni.createFrom().item(fileAccess)
             .map(function(this::performanceReportPath))
             .onItem()
-            .transformToUni(fileSystemHandler::readFile);
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.readFile(path)))
+            .invoke(content -> bytesRead.increment(content.length()));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::performanceReportPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(path), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<FileAttributes> stat(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::performanceReportPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.getAttributes(path)));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::performanceReportPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(encoding.resolve(path)), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<Boolean> hasVariant(DocumentFileAccess fileAccess, FileAttributes attributes, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::performanceReportPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.hasVariant(path, attributes, encoding)));
     }
 
     /**
@@ -41,10 +114,41 @@ public class PerformanceResultDocumentStore implements DocumentStore {
         throw new UnsupportedOperationException("User performance report write is not supported");
     }
 
+    /**
+     * @throws UnsupportedOperationException User performance report write is not supported
+     * @see #write(DocumentCreateRequest)
+     */
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, ReadStream<Buffer> content) {
+        throw new UnsupportedOperationException("User performance report write is not supported");
+    }
+
+    /**
+     * @throws UnsupportedOperationException User performance report write is not supported
+     * @see #write(DocumentCreateRequest)
+     */
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, Path uploadedFile) {
+        throw new UnsupportedOperationException("User performance report write is not supported");
+    }
+
+    /**
+     * @throws UnsupportedOperationException User performance report write is not supported
+     * @see #write(DocumentCreateRequest)
+     */
+    @Override
+    public void validate(DocumentUploadRequest uploadRequest) {
+        throw new UnsupportedOperationException("User performance report write is not supported");
+    }
+
     private Path performanceReportPath(DocumentFileAccess fileAccess) {
         if (isAnyBlank(fileAccess.organizationId(), fileAccess.userId())) {
             throw new IllegalArgumentException("User performance report file cannot be identified");
         }
-        return pathResolver.resolve(fileAccess.organizationId(), fileAccess.userId(), null);
+        return resolvePath(fileAccess.organizationId(), fileAccess.userId(), null);
+    }
+
+    private Path resolvePath(String organizationId, String userId, String fileName) {
+        return metrics.timed(RFSMetrics.PATH_RESOLUTION, () -> pathResolver.resolve(organizationId, userId, fileName), "store", STORE_NAME);
     }
 }
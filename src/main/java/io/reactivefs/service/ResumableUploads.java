@@ -0,0 +1,263 @@
+package io.reactivefs.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.io.FileSystemHandler;
+import io.reactivefs.model.DocumentUploadRequest;
+import io.reactivefs.model.ResumableUploadRequest;
+import io.reactivefs.model.UploadStatus;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.unchecked.Unchecked;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Receives large documents in chunks, thus a broken upload can be continued by sending only the missing chunks again.<p>
+ * An upload is started with the size and the owners of the document, then its chunks can be sent at their offsets in any order,
+ * even in parallel; they are written straight into a sparse temporary file in the upload folder, without holding them in the memory.
+ * When the whole content has arrived, the upload is committed: the temporary file is moved by the store of the document into its place.<p>
+ * The uploads are kept in the memory; the ones that are not touched for the configured time are dropped together with their files.
+ * An upload does not expire while a chunk is being written or it is being committed, however long that takes.
+ */
+@ApplicationScoped
+public class ResumableUploads {
+
+    public static final String CACHE_NAME = "fs.upload.sessions";
+
+    private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    /** The folder of the temporary files of the uploads. */
+    @ConfigProperty(name = RFSConfig.UPLOAD_DIRECTORY, defaultValue = "/tmp/fs/upload")
+    String uploadDirectory;
+
+    /** The time in millis after an untouched upload is dropped. */
+    @ConfigProperty(name = RFSConfig.UPLOAD_SESSION_TTL_MS, defaultValue = "86400000")
+    long sessionTtl;
+
+    /** The maximum number of the unfinished uploads, the least recently used one is dropped above it. */
+    @ConfigProperty(name = RFSConfig.UPLOAD_MAX_SESSIONS, defaultValue = "1000")
+    int maxSessions;
+
+    /** The maximum size of an uploaded document in bytes. */
+    @ConfigProperty(name = RFSConfig.UPLOAD_MAX_SIZE, defaultValue = "10737418240")
+    long maxSize;
+
+    @Inject
+    FileSystemHandler fileSystemHandler;
+
+    @Inject
+    FileIoExecutor io;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Cache<String, UploadSession> sessions;
+
+    @PostConstruct
+    void init() {
+        sessions = Caffeine.newBuilder()
+            .maximumSize(maxSessions)
+            .expireAfter(new SessionExpiry(Duration.ofMillis(sessionTtl).toNanos()))
+            .removalListener(this::onRemoval)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, sessions, CACHE_NAME);
+    }
+
+    /**
+     * Starts an upload, whose content is sent in chunks later.
+     *
+     * @param store The store of the uploaded document.
+     * @param request The owners, the name and the size of the document.
+     * @return The state of the new upload, that contains its identifier.
+     * @throws IllegalArgumentException if the owners, the name or the size of the document is invalid.
+     */
+    public Uni<UploadStatus> start(DocumentStore store, ResumableUploadRequest request) {
+        if (isBlank(request.fileName()) || request.size() <= 0 || request.size() > maxSize) {
+            return Uni.createFrom().failure(new IllegalArgumentException("Upload must have a file name, and its size must be between 1 and " + maxSize));
+        }
+        var uploadRequest = new DocumentUploadRequest(request.organizationId(), request.userId(), request.fileName());
+        return Uni.createFrom().item(uploadRequest)
+            .invoke(store::validate)
+            .chain(() -> io.execute(Unchecked.supplier(() -> createSparseFile(request.size()))))
+            .map(file -> {
+                var session = new UploadSession(UUID.randomUUID().toString(), store, uploadRequest, file, request.size());
+                sessions.put(session.id(), session);
+                logger.info("Upload {} is started for {} bytes", session.id(), session.size());
+                return session.status();
+            });
+    }
+
+    /**
+     * Writes the chunk into the upload at the given offset as it arrives. The chunks may overlap, the later one overwrites the earlier one.
+     *
+     * @param uploadId The identifier of the upload.
+     * @param offset The position of the chunk in the content.
+     * @param chunk The content of the chunk.
+     * @return The state of the upload after the chunk has been written.
+     * @throws NoSuchElementException if the upload does not exist.
+     * @throws IllegalArgumentException if the chunk is outside the content, or it overruns the size of the upload.
+     * @throws IllegalStateException if the upload is being committed.
+     */
+    public Uni<UploadStatus> write(String uploadId, long offset, ReadStream<Buffer> chunk) {
+        return session(uploadId)
+            .invoke(session -> {
+                session.beginWrite(offset);
+                touch(session);
+            })
+            .flatMap(session -> fileSystemHandler.writeFile(session.file(), offset, session.size() - offset, chunk)
+                .onItemOrFailure()
+                .transformToUni((written, failure) -> {
+                    try {
+                        session.endWrite(offset, failure == null ? written : 0);
+                    } finally {
+                        touch(session);
+                    }
+                    return failure == null ? Uni.createFrom().item(session.status()) : Uni.createFrom().failure(failure);
+                }));
+    }
+
+    /**
+     * @param uploadId The identifier of the upload.
+     * @return The state of the upload, that tells which chunks have arrived.
+     * @throws NoSuchElementException if the upload does not exist.
+     */
+    public Uni<UploadStatus> status(String uploadId) {
+        return session(uploadId).map(UploadSession::status);
+    }
+
+    /**
+     * Stores the uploaded document, when its whole content has arrived. The upload is finished if the document is stored,
+     * otherwise it is kept, thus the commit can be tried again.
+     *
+     * @param uploadId The identifier of the upload.
+     * @return The lazy asynchronous action that the caller can subscribe to.
+     * @throws NoSuchElementException if the upload does not exist.
+     * @throws IllegalArgumentException if the content has not arrived completely, or the document cannot be identified.
+     * @throws IllegalStateException if a chunk is being written, or the upload is already being committed.
+     */
+    public Uni<Void> commit(String uploadId) {
+        return session(uploadId)
+            .invoke(session -> {
+                session.beginCommit();
+                touch(session);
+            })
+            .flatMap(session -> session.store().write(session.uploadRequest(), session.file())
+                .invoke(() -> {
+                    sessions.invalidate(uploadId);
+                    logger.info("Upload {} is committed", uploadId);
+                })
+                .onFailure()
+                .invoke(() -> {
+                    session.abortCommit();
+                    touch(session);
+                }));
+    }
+
+    /**
+     * Drops the upload together with its arrived content.
+     *
+     * @param uploadId The identifier of the upload.
+     * @throws NoSuchElementException if the upload does not exist.
+     */
+    public Uni<Void> abort(String uploadId) {
+        return session(uploadId)
+            .invoke(() -> sessions.invalidate(uploadId))
+            .replaceWithVoid();
+    }
+
+    private Uni<UploadSession> session(String uploadId) {
+        return Uni.createFrom().item(() -> {
+            var session = sessions.getIfPresent(uploadId);
+            if (session == null) {
+                throw new NoSuchElementException("Upload does not exist: " + uploadId);
+            }
+            return session;
+        });
+    }
+
+    /**
+     * Accesses the upload after its state has changed, thus its expiration is computed again by the {@link SessionExpiry}.
+     */
+    private void touch(UploadSession session) {
+        sessions.getIfPresent(session.id());
+    }
+
+    /**
+     * Creates the temporary file of the upload with its final size, that does not allocate the disk space on the file systems that
+     * support sparse files, until the chunks are written.
+     */
+    private Path createSparseFile(long size) throws IOException {
+        var file = Files.createTempFile(Files.createDirectories(Paths.get(uploadDirectory)), "resumable-", ".tmp");
+        try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Deletes the temporary file of the dropped upload; the file of a committed upload has already been moved.
+     */
+    private void onRemoval(String uploadId, UploadSession session, RemovalCause cause) {
+        if (session == null) {
+            return;
+        }
+        if (cause.wasEvicted()) {
+            logger.warn("Upload {} is dropped: {}", uploadId, cause);
+        }
+        try {
+            Files.deleteIfExists(session.file());
+        } catch (IOException e) {
+            logger.warn("Upload file cannot be deleted: {}", session.file(), e);
+        }
+    }
+
+    /**
+     * Expires the uploads that are not touched for the configured time, but it pins the busy ones, thus the file of an upload is
+     * not deleted while a chunk is written into it, or while it is moved by the commit.
+     */
+    private record SessionExpiry(long ttlNanos) implements Expiry<String, UploadSession> {
+
+        @Override
+        public long expireAfterCreate(String uploadId, UploadSession session, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String uploadId, UploadSession session, long currentTime, long currentDuration) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String uploadId, UploadSession session, long currentTime, long currentDuration) {
+            return session.isBusy() ? Long.MAX_VALUE : ttlNanos;
+        }
+    }
+}
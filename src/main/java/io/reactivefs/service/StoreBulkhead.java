@@ -0,0 +1,242 @@
+package io.reactivefs.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of the concurrent storage operations of a store, thus a store whose volume is saturated cannot occupy
+ * all the I/O threads, and the operations of the other stores are not queued behind its operations. The stores share the file
+ * I/O pool, thus the limits of all the stores together must not exceed its size, otherwise the operations of a saturated store
+ * can still occupy the threads that the others need.<p>
+ * The operations above the limit wait in a bounded queue in arrival order, without blocking any thread. When the queue is full,
+ * the operation is rejected with a {@link BulkheadFullException}. The active, the queued and the rejected operations are published
+ * as the <i>fs.store.bulkhead</i> metrics tagged by the store.
+ */
+public class StoreBulkhead {
+
+    public static final String METRIC_PREFIX = "fs.store.bulkhead";
+
+    private final String store;
+
+    private final int maxConcurrent;
+
+    private final int maxQueued;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Queue<Call<?>> waiting = new ConcurrentLinkedQueue<>();
+
+    private final Counter rejected;
+
+    /**
+     * @param store The name of the store that tags the metrics.
+     * @param maxConcurrent The maximum number of the concurrent operations.
+     * @param maxQueued The maximum number of the operations waiting for a slot.
+     * @param registry The registry of the metrics.
+     */
+    public StoreBulkhead(String store, int maxConcurrent, int maxQueued, MeterRegistry registry) {
+        if (maxConcurrent <= 0 || maxQueued < 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive, and maxQueued must not be negative");
+        }
+        this.store = store;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        Gauge.builder(METRIC_PREFIX + ".active", active, AtomicInteger::get)
+            .tag("store", store)
+            .description("The number of the running storage operations")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", queued, AtomicInteger::get)
+            .tag("store", store)
+            .description("The number of the storage operations waiting for a slot")
+            .register(registry);
+        rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+            .tag("store", store)
+            .description("The number of the storage operations rejected because the queue was full")
+            .register(registry);
+    }
+
+    /**
+     * Runs the given operation when a slot is free; the slot is held until the operation terminates or it is cancelled.
+     *
+     * @param operation The storage operation.
+     * @return The result of the operation, or a {@link BulkheadFullException} if it cannot be queued.
+     */
+    public <T> Uni<T> execute(Supplier<Uni<T>> operation) {
+        return submit(operation, null);
+    }
+
+    /**
+     * Opens a resource in a slot like {@link #execute(Supplier)}, but the slot is held until the opened resource is closed, like
+     * a file whose content is streamed after it has been opened.
+     *
+     * @param operation Opens the resource.
+     * @param guard Wraps the opened resource, thus the given release action is run when the resource is closed; the release
+     *              can be run more than once, the slot is released only the first time.
+     * @return The wrapped resource, or a {@link BulkheadFullException} if it cannot be queued.
+     */
+    public <T> Uni<T> open(Supplier<Uni<T>> operation, BiFunction<T, Runnable, T> guard) {
+        return submit(operation, guard);
+    }
+
+    /**
+     * @param guard Wraps the result of the operation that holds the slot until it is released, or null if the slot is released when
+     *              the operation terminates.
+     */
+    private <T> Uni<T> submit(Supplier<Uni<T>> operation, BiFunction<T, Runnable, T> guard) {
+        return Uni.createFrom().emitter(emitter -> {
+            var call = new Call<>(operation, guard, emitter);
+            emitter.onTermination(call::cancel);
+            if (tryAcquire()) {
+                call.start();
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.increment();
+                emitter.fail(new BulkheadFullException(store));
+                return;
+            }
+            waiting.add(call);
+            drain();
+        });
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            var current = active.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        active.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Starts the waiting operations while there are free slots; it is called whenever a slot is released or an operation is queued,
+     * because a slot may have been released between the failed acquisition and the queueing.
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && tryAcquire()) {
+            var call = waiting.poll();
+            if (call == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            queued.decrementAndGet();
+            call.start();
+        }
+    }
+
+    private class Call<T> {
+
+        private static final int WAITING = 0;
+
+        private static final int RUNNING = 1;
+
+        private static final int HELD = 2;
+
+        private static final int DONE = 3;
+
+        private final Supplier<Uni<T>> operation;
+
+        private final BiFunction<T, Runnable, T> guard;
+
+        private final UniEmitter<? super T> emitter;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private volatile Cancellable subscription;
+
+        Call(Supplier<Uni<T>> operation, BiFunction<T, Runnable, T> guard, UniEmitter<? super T> emitter) {
+            this.operation = operation;
+            this.guard = guard;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Runs the operation in the acquired slot, or gives the slot back if the call has been cancelled meanwhile.
+         */
+        void start() {
+            if (!state.compareAndSet(WAITING, RUNNING)) {
+                release();
+                return;
+            }
+            subscription = Uni.createFrom().deferred(operation::get)
+                .subscribe()
+                .with(item -> {
+                    if (guard == null) {
+                        if (finish()) {
+                            emitter.complete(item);
+                        }
+                    } else if (state.compareAndSet(RUNNING, HELD)) {
+                        emitter.complete(guard.apply(item, this::close));
+                    }
+                }, failure -> {
+                    if (finish()) {
+                        emitter.fail(failure);
+                    }
+                });
+        }
+
+        /**
+         * Cancels the waiting or the running operation; the slot of an opened resource is held until the resource is closed.
+         */
+        void cancel() {
+            if (state.compareAndSet(WAITING, DONE)) {
+                if (waiting.remove(this)) {
+                    queued.decrementAndGet();
+                }
+            } else if (state.compareAndSet(RUNNING, DONE)) {
+                var current = subscription;
+                if (current != null) {
+                    current.cancel();
+                }
+                release();
+            }
+        }
+
+        /**
+         * Releases the slot held by the opened resource when it is closed.
+         */
+        private void close() {
+            if (state.compareAndSet(HELD, DONE)) {
+                release();
+            }
+        }
+
+        private boolean finish() {
+            if (state.compareAndSet(RUNNING, DONE)) {
+                release();
+                return true;
+            }
+            return false;
+        }
+    }
+}
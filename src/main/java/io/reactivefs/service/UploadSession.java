@@ -0,0 +1,150 @@
+package io.reactivefs.service;
+
+import io.reactivefs.model.DocumentUploadRequest;
+import io.reactivefs.model.UploadStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of a resumable upload: the ranges of the content that have arrived into its temporary file, and the chunks being written.<p>
+ * The upload can be committed only when its whole content has arrived and no chunk is being written, and no chunk is accepted while
+ * it is being committed, thus the committed file cannot be changed by a late chunk.
+ */
+final class UploadSession {
+
+    private final String id;
+
+    private final DocumentStore store;
+
+    private final DocumentUploadRequest uploadRequest;
+
+    private final Path file;
+
+    private final long size;
+
+    /** The arrived ranges by their offset, the value is the end of the range (exclusive); the ranges do not overlap or touch. */
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    private int writing;
+
+    private boolean committing;
+
+    UploadSession(String id, DocumentStore store, DocumentUploadRequest uploadRequest, Path file, long size) {
+        this.id = id;
+        this.store = store;
+        this.uploadRequest = uploadRequest;
+        this.file = file;
+        this.size = size;
+    }
+
+    String id() {
+        return id;
+    }
+
+    DocumentStore store() {
+        return store;
+    }
+
+    DocumentUploadRequest uploadRequest() {
+        return uploadRequest;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Registers a chunk that starts being written.
+     *
+     * @throws IllegalArgumentException if the offset is outside the content.
+     * @throws IllegalStateException if the upload is being committed.
+     */
+    synchronized void beginWrite(long offset) {
+        if (offset < 0 || offset >= size) {
+            throw new IllegalArgumentException("Chunk offset is outside the upload: " + offset);
+        }
+        if (committing) {
+            throw new IllegalStateException("Upload is being committed: " + id);
+        }
+        writing++;
+    }
+
+    /**
+     * Registers the written chunk, or the failed one if its length is 0.
+     *
+     * @throws IllegalArgumentException if the chunk exceeds the size of the upload, it is not registered then.
+     */
+    synchronized void endWrite(long offset, long length) {
+        writing--;
+        if (offset + length > size) {
+            throw new IllegalArgumentException("Chunk exceeds the size of the upload: " + offset + "+" + length);
+        }
+        if (length > 0) {
+            add(offset, offset + length);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the content has not arrived completely.
+     * @throws IllegalStateException if a chunk is being written, or the upload is being committed.
+     */
+    synchronized void beginCommit() {
+        if (committing || writing > 0) {
+            throw new IllegalStateException("Upload has pending chunks or it is being committed: " + id);
+        }
+        if (!isComplete()) {
+            throw new IllegalArgumentException("Upload content has not arrived completely: " + id);
+        }
+        committing = true;
+    }
+
+    /**
+     * Accepts the chunks again, if the commit failed and the upload is kept.
+     */
+    synchronized void abortCommit() {
+        committing = false;
+    }
+
+    /**
+     * @return true if a chunk is being written, or the upload is being committed, thus its file is in use.
+     */
+    synchronized boolean isBusy() {
+        return writing > 0 || committing;
+    }
+
+    synchronized UploadStatus status() {
+        var arrived = new ArrayList<UploadStatus.Range>(ranges.size());
+        var received = 0L;
+        for (var range : ranges.entrySet()) {
+            arrived.add(new UploadStatus.Range(range.getKey(), range.getValue() - range.getKey()));
+            received += range.getValue() - range.getKey();
+        }
+        return new UploadStatus(id, size, received, isComplete(), arrived);
+    }
+
+    private boolean isComplete() {
+        return ranges.size() == 1 && ranges.firstKey() == 0 && ranges.firstEntry().getValue() == size;
+    }
+
+    /**
+     * Adds the range, merging it with the overlapping and the adjacent ones.
+     */
+    private void add(long start, long end) {
+        var previous = ranges.floorEntry(start);
+        if (previous != null && previous.getValue() >= start) {
+            start = previous.getKey();
+            end = Math.max(end, previous.getValue());
+        }
+        for (var next = ranges.ceilingEntry(start); next != null && next.getKey() <= end; next = ranges.ceilingEntry(start)) {
+            end = Math.max(end, next.getValue());
+            ranges.remove(next.getKey());
+        }
+        ranges.put(start, end);
+    }
+}
@@ -1,13 +1,21 @@
 package io.reactivefs.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.RFSMetrics;
 import io.reactivefs.io.*;
 import io.reactivefs.model.DocumentCreateRequest;
 import io.reactivefs.model.DocumentFileAccess;
 import io.reactivefs.model.DocumentRemoveRequest;
+import io.reactivefs.model.DocumentUploadRequest;
 import io.smallrye.mutiny.Uni;
 import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +31,8 @@ import static org.apache.commons.lang3.StringUtils.isAnyBlank;
 @ApplicationScoped
 public class UserDocumentStore implements DocumentStore, DocumentRemoval {
 
+    public static final String STORE_NAME = "user-document";
+
     private final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     @Inject
@@ -32,12 +42,39 @@ public class UserDocumentStore implements DocumentStore, DocumentRemoval {
     @Inject
     DocumentPathResolver pathResolver;
 
+    /** The maximum number of the concurrent storage operations of the store. */
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_BULKHEAD_MAX_CONCURRENT, defaultValue = "12")
+    int bulkheadMaxConcurrent;
+
+    /** The maximum number of the storage operations of the store waiting for a slot. */
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_BULKHEAD_MAX_QUEUE, defaultValue = "256")
+    int bulkheadMaxQueue;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    RFSMetrics metrics;
+
+    private StoreBulkhead bulkhead;
+
+    private Counter bytesRead;
+
+    private Counter bytesWritten;
+
+    @PostConstruct
+    void init() {
+        bulkhead = new StoreBulkhead(STORE_NAME, bulkheadMaxConcurrent, bulkheadMaxQueue, registry);
+        bytesRead = metrics.bytesRead(STORE_NAME);
+        bytesWritten = metrics.bytesWritten(STORE_NAME);
+    }
+
     @Override
     public Uni<Void> remove(DocumentRemoveRequest removeRequest) {
         return Uni.createFrom().item(removeRequest)
             .map(function(this::documentPath))
             .onItem()
-                .transformToUni(fileSystemHandler::deleteFile)
+                .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.deleteFile(path)))
                 .onFailure().recoverWithUni(failure -> {
                     logger.warn("Document removal error", failure);
                     return Uni.createFrom().voidItem();
@@ -49,7 +86,42 @@ public class UserDocumentStore implements DocumentStore, DocumentRemoval {
         return Uni.createFrom().item(fileAccess)
             .map(function(this::documentPath))
             .onItem()
-            .transformToUni(fileSystemHandler::readFile);
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.readFile(path)))
+            .invoke(content -> bytesRead.increment(content.length()));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::documentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(path), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<FileAttributes> stat(DocumentFileAccess fileAccess) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::documentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.getAttributes(path)));
+    }
+
+    @Override
+    public Uni<ReadableFile> open(DocumentFileAccess fileAccess, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::documentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.open(() -> fileSystemHandler.openFile(encoding.resolve(path)), GuardedReadableFile::new))
+            .map(file -> new MeteredReadableFile(file, bytesRead));
+    }
+
+    @Override
+    public Uni<Boolean> hasVariant(DocumentFileAccess fileAccess, FileAttributes attributes, ContentEncoding encoding) {
+        return Uni.createFrom().item(fileAccess)
+            .map(function(this::documentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.hasVariant(path, attributes, encoding)));
     }
 
     @Override
@@ -57,20 +129,54 @@ public class UserDocumentStore implements DocumentStore, DocumentRemoval {
         return Uni.createFrom().item(createRequest)
             .map(function(this::toFileContent))
             .onItem()
-            .call(fileContent -> fileSystemHandler.createDirectories(fileContent.path().getParent()))
+            .transformToUni(fileContent -> bulkhead.execute(() -> fileSystemHandler.writeInDirectory(fileContent.path().getParent(),
+                () -> fileSystemHandler.writeFile(fileContent)))
+                .invoke(() -> bytesWritten.increment(fileContent.content().length)));
+    }
+
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, ReadStream<Buffer> content) {
+        return Uni.createFrom().item(uploadRequest)
+            .map(function(this::documentPath))
             .onItem()
-            .transformToUni(fileSystemHandler::writeFile);
+            .transformToUni(path -> fileSystemHandler.writeInDirectory(path.getParent(),
+                () -> fileSystemHandler.writeFile(path, content, bulkhead::execute)))
+            .invoke(size -> bytesWritten.increment(size))
+            .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> write(DocumentUploadRequest uploadRequest, Path uploadedFile) {
+        return Uni.createFrom().item(uploadRequest)
+            .map(function(this::documentPath))
+            .onItem()
+            .transformToUni(path -> bulkhead.execute(() -> fileSystemHandler.writeInDirectory(path.getParent(),
+                () -> fileSystemHandler.moveFile(uploadedFile, path))))
+            .invoke(size -> bytesWritten.increment(size))
+            .replaceWithVoid();
+    }
+
+    @Override
+    public void validate(DocumentUploadRequest uploadRequest) {
+        documentPath(uploadRequest);
     }
 
     private Path documentPath(DocumentFileAccess fileAccess) {
         if (isAnyBlank(fileAccess.organizationId(), fileAccess.userId(), fileAccess.fileName())) {
             throw new IllegalArgumentException("User document file cannot be identified");
         }
-        return pathResolver.resolve(fileAccess.organizationId(), fileAccess.userId(), fileAccess.fileName());
+        return resolvePath(fileAccess.organizationId(), fileAccess.userId(), fileAccess.fileName());
+    }
+
+    private Path documentPath(DocumentUploadRequest uploadRequest) {
+        if (isAnyBlank(uploadRequest.organizationId(), uploadRequest.userId(), uploadRequest.fileName())) {
+            throw new IllegalArgumentException("User document file path cannot be determined");
+        }
+        return resolvePath(uploadRequest.organizationId(), uploadRequest.userId(), uploadRequest.fileName());
     }
 
     private Path documentPath(DocumentRemoveRequest removeRequest) {
-        return pathResolver.resolve(removeRequest.organizationId(), removeRequest.userId(), removeRequest.fileName());
+        return resolvePath(removeRequest.organizationId(), removeRequest.userId(), removeRequest.fileName());
     }
 
     /**
@@ -80,11 +186,15 @@ public class UserDocumentStore implements DocumentStore, DocumentRemoval {
      * @return The file path and content that should be written.
      * @throws IllegalArgumentException if the content is not Base64 format or the file path cannot be determined
      */
-    private FileContent toFileContent(DocumentCreateRequest createRequest) {
+    FileContent toFileContent(DocumentCreateRequest createRequest) {
         if (isAnyBlank(createRequest.organizationId(), createRequest.userId(), createRequest.fileName(), createRequest.content())) {
             throw new IllegalArgumentException("User document file path cannot be determined");
         }
         var content = Base64.getDecoder().decode(createRequest.content().getBytes(StandardCharsets.UTF_8));
-        return new FileContent(pathResolver.resolve(createRequest.organizationId(), createRequest.userId(), createRequest.fileName()), content);
+        return new FileContent(resolvePath(createRequest.organizationId(), createRequest.userId(), createRequest.fileName()), content);
+    }
+
+    private Path resolvePath(String organizationId, String userId, String fileName) {
+        return metrics.timed(RFSMetrics.PATH_RESOLUTION, () -> pathResolver.resolve(organizationId, userId, fileName), "store", STORE_NAME);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package io.reactivefs.ext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1000, 2, nanos::get);
+
+    @Test
+    void breakerOpensWhenFailureRatioIsReached() {
+        call(true);
+        call(false);
+        call(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "the window has fewer calls than the minimum");
+        call(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void breakerStaysClosedBelowFailureRatio() {
+        for (int i = 0; i < 20; i++) {
+            call(i % 4 == 3);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void breakerClosesWhenTrialCallsSucceed() {
+        open();
+        nanos.addAndGet(1_000_000_000L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only the configured number of trial calls are let through");
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void breakerOpensAgainWhenTrialCallFails() {
+        open();
+        nanos.addAndGet(1_000_000_000L);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void retryBudgetAllowsRatioOfFirstAttempts() {
+        var budget = new RetryBudget(0.5, 2);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw(), "the initial balance is used up");
+        budget.deposit();
+        assertFalse(budget.tryWithdraw(), "half of a retry is not enough");
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(2, budget.available(), "the balance is capped");
+    }
+
+    @Test
+    void onlyTransientFailuresAreRetryable() {
+        assertTrue(AccessServiceGuard.isRetryable(new jakarta.ws.rs.WebApplicationException(503)));
+        assertTrue(AccessServiceGuard.isRetryable(new jakarta.ws.rs.WebApplicationException(429)));
+        assertTrue(AccessServiceGuard.isRetryable(new jakarta.ws.rs.ProcessingException(new java.net.ConnectException())));
+        assertFalse(AccessServiceGuard.isRetryable(new jakarta.ws.rs.WebApplicationException(404)));
+        assertFalse(AccessServiceGuard.isRetryable(new jakarta.ws.rs.WebApplicationException(401)));
+        assertFalse(AccessServiceGuard.isRetryable(new CircuitBreakerOpenException(AccessServiceGuard.SERVICE_NAME)));
+        assertFalse(AccessServiceGuard.isRetryable(new IllegalArgumentException()));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private void call(boolean fail) {
+        assertTrue(breaker.tryAcquire());
+        if (fail) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncReadableFileTest {
+
+    private final Vertx vertx = Vertx.vertx();
+
+    private Path path;
+
+    @BeforeEach
+    void init() throws IOException {
+        path = Files.writeString(Files.createTempFile("async", ".tmp"), "0123456789");
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        vertx.closeAndAwait();
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void rangeIsReadInChunks() {
+        var file = open(10);
+        var chunks = file.read(2, 7)
+            .subscribe()
+            .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .awaitCompletion(Duration.ofSeconds(1))
+            .getItems();
+        assertEquals(3, chunks.size());
+        assertEquals("2345678", chunks.stream().map(Buffer::toString).reduce("", String::concat));
+        file.close().await().atMost(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void readFailsWhenFileWasTruncated() {
+        var file = open(20);
+        file.read(0, 20)
+            .subscribe()
+            .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .awaitFailure(Duration.ofSeconds(1))
+            .assertFailedWith(EOFException.class);
+        file.close().await().atMost(Duration.ofSeconds(1));
+    }
+
+    private AsyncReadableFile open(long size) {
+        return new AsyncReadableFile(vertx.fileSystem().openBlocking(path.toString(), new OpenOptions().setRead(true)), size, 0, 3);
+    }
+}
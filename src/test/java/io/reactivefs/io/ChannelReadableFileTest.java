@@ -0,0 +1,70 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.vertx.mutiny.core.buffer.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChannelReadableFileTest {
+
+    private final FileIoExecutor io = new FileIoExecutor();
+
+    private Path path;
+
+    @BeforeEach
+    void init() throws IOException {
+        io.engine = FileIoExecutor.VIRTUAL_THREADS_ENGINE;
+        io.poolSize = 2;
+        io.queueSize = 16;
+        io.registry = new SimpleMeterRegistry();
+        io.init();
+        path = Files.writeString(Files.createTempFile("channel", ".tmp"), "0123456789");
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        io.shutdown();
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void rangeIsReadInChunks() throws IOException {
+        var file = open(new FileAttributes(10, 0));
+        var chunks = file.read(2, 7)
+            .subscribe()
+            .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .awaitCompletion(Duration.ofSeconds(1))
+            .getItems();
+        assertEquals(3, chunks.size());
+        assertEquals("2345678", chunks.stream().map(Buffer::toString).reduce("", String::concat));
+        file.close().await().atMost(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void readFailsWhenFileWasTruncated() throws IOException {
+        var file = open(new FileAttributes(20, 0));
+        var failure = file.read(0, 20)
+            .subscribe()
+            .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+            .awaitFailure(Duration.ofSeconds(1))
+            .getFailure();
+        assertInstanceOf(EOFException.class, failure.getCause());
+        file.close().await().atMost(Duration.ofSeconds(1));
+    }
+
+    private ChannelReadableFile open(FileAttributes attributes) throws IOException {
+        return new ChannelReadableFile(FileChannel.open(path, StandardOpenOption.READ), attributes, 3, io);
+    }
+}
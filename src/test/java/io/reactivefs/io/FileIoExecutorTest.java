@@ -0,0 +1,83 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileIoExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final FileIoExecutor executor = new FileIoExecutor();
+
+    @BeforeEach
+    void init() {
+        executor.poolSize = 1;
+        executor.queueSize = 1;
+        executor.registry = registry;
+        executor.init();
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void operationRunsOnThePool() {
+        var thread = executor.execute(() -> Thread.currentThread().getName()).await().atMost(Duration.ofSeconds(1));
+        assertTrue(thread.startsWith(FileIoExecutor.POOL_NAME));
+    }
+
+    @Test
+    void operationIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = executor.run(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        }).subscribeAsCompletionStage();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        var queued = executor.execute(() -> "queued").subscribeAsCompletionStage();
+        assertEquals(1, executor.queued());
+        assertEquals(1.0, registry.get(FileIoExecutor.POOL_NAME + ".pool.utilization").gauge().value());
+
+        var rejected = executor.execute(() -> "rejected");
+        assertThrows(RejectedExecutionException.class, () -> rejected.await().atMost(Duration.ofSeconds(1)));
+
+        release.countDown();
+        running.toCompletableFuture().join();
+        assertEquals("queued", queued.toCompletableFuture().join());
+    }
+
+    @Test
+    void channelEngineIsUsedOnlyWithVirtualThreads() {
+        var io = new FileIoExecutor();
+        io.engine = FileIoExecutor.VIRTUAL_THREADS_ENGINE;
+        io.poolSize = 1;
+        io.queueSize = 1;
+        io.registry = new SimpleMeterRegistry();
+        io.init();
+        try {
+            assertEquals(Runtime.version().feature() >= 21, io.isChannelEngine());
+        } finally {
+            io.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
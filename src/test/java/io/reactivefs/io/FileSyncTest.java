@@ -0,0 +1,139 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSyncTest {
+
+    private final FileIoExecutor io = new FileIoExecutor();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final FileSync fileSync = new FileSync();
+
+    private Path directory;
+
+    @BeforeEach
+    void init() throws IOException {
+        io.engine = FileIoExecutor.VERTX_ENGINE;
+        io.poolSize = 2;
+        io.queueSize = 16;
+        io.registry = registry;
+        io.init();
+        fileSync.io = io;
+        fileSync.registry = registry;
+        fileSync.groupCommitWindowMs = 50;
+        fileSync.groupCommitMaxBatch = 4;
+        directory = Files.createTempDirectory("file-sync");
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        fileSync.shutdown();
+        io.shutdown();
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void concurrentFlushesAreCommittedTogether() throws IOException {
+        fileSync.durability = FileSync.GROUP_COMMIT;
+        fileSync.init();
+        var files = IntStream.range(0, 3).mapToObj(i -> directory.resolve("file-" + i)).toList();
+        for (var file : files) {
+            Files.writeString(file, "content");
+        }
+        var flushes = files.stream().map(fileSync::force).toList();
+        Uni.join().all(flushes).andFailFast()
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1));
+        var batchSize = registry.get("fs.sync.batch.size").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(3, batchSize.totalAmount());
+    }
+
+    @Test
+    void fullBatchIsCommittedWithoutWaitingForTheWindow() throws IOException {
+        fileSync.durability = FileSync.GROUP_COMMIT;
+        fileSync.groupCommitWindowMs = 60_000;
+        fileSync.init();
+        var files = IntStream.range(0, 4).mapToObj(i -> directory.resolve("file-" + i)).toList();
+        for (var file : files) {
+            Files.writeString(file, "content");
+        }
+        Uni.join().all(files.stream().map(fileSync::force).toList()).andFailFast()
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1));
+        assertEquals(4, registry.get("fs.sync.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void flushOfMissingFileFails() {
+        fileSync.durability = FileSync.GROUP_COMMIT;
+        fileSync.init();
+        fileSync.force(directory.resolve("missing"))
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitFailure(Duration.ofSeconds(1))
+            .assertFailedWith(IOException.class);
+    }
+
+    @Test
+    void writersAreCompletedOnTheIoPool() throws IOException {
+        fileSync.durability = FileSync.GROUP_COMMIT;
+        fileSync.init();
+        var file = Files.writeString(directory.resolve("file"), "content");
+        var thread = fileSync.force(file)
+            .map(__ -> Thread.currentThread().getName())
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1))
+            .getItem();
+        assertTrue(thread.startsWith(FileIoExecutor.POOL_NAME), thread);
+    }
+
+    @Test
+    void flushAfterShutdownFails() throws IOException {
+        fileSync.durability = FileSync.GROUP_COMMIT;
+        fileSync.init();
+        var file = Files.writeString(directory.resolve("file"), "content");
+        fileSync.shutdown();
+        fileSync.force(file)
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitFailure(Duration.ofSeconds(1))
+            .assertFailedWith(IllegalStateException.class);
+    }
+
+    @Test
+    void fileAndFolderAreFlushedByEveryWrite() throws IOException {
+        fileSync.durability = FileSync.FSYNC;
+        fileSync.init();
+        var file = Files.writeString(directory.resolve("file"), "content");
+        fileSync.force(file)
+            .chain(() -> fileSync.force(directory))
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1))
+            .assertCompleted();
+        assertTrue(registry.find("fs.sync.batch.size").summaries().isEmpty());
+    }
+}
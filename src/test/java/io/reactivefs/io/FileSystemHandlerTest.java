@@ -2,6 +2,7 @@ package io.reactivefs.io;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.reactivefs.RFSConfig;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
 import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
 import io.vertx.core.file.FileSystemException;
 import io.vertx.mutiny.core.buffer.Buffer;
@@ -14,8 +15,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,6 +29,12 @@ public class FileSystemHandlerTest {
     @Inject
     FileSystemHandler fileSystemHandler;
 
+    @Inject
+    FileContentCache contentCache;
+
+    @Inject
+    DirectoryCache directoryCache;
+
     @ConfigProperty(name = RFSConfig.USER_DOCUMENT_ROOT_DIRECTORY)
     String userDirectory;
 
@@ -115,6 +125,55 @@ public class FileSystemHandlerTest {
         }
     }
 
+    @Test
+    void fileIsReplacedWithoutLeavingTemporaryFiles() throws IOException {
+        var userFolder = createUserFolder(organizationId, "replacedUserId");
+        var filePath = userFolder.resolve("replacedFile.tmp");
+        try {
+            fileSystemHandler.writeFile(new FileContent(filePath, "content".getBytes()))
+                .await().atMost(Duration.ofSeconds(1));
+            fileSystemHandler.writeFile(new FileContent(filePath, "new content".getBytes()))
+                .await().atMost(Duration.ofSeconds(1));
+            assertEquals("new content", Files.readString(filePath));
+            try (var files = Files.list(userFolder)) {
+                assertEquals(List.of(filePath), files.toList());
+            }
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void knownFolderIsCreatedAgainWhenItIsMissing() throws IOException {
+        var userFolder = Paths.get(userDirectory, organizationId.toLowerCase(), "removedUserId");
+        var filePath = userFolder.resolve("recreated.tmp");
+        try {
+            fileSystemHandler.writeInDirectory(userFolder, () -> fileSystemHandler.writeFile(new FileContent(filePath, "content".getBytes())))
+                .await().atMost(Duration.ofSeconds(1));
+            assertTrue(directoryCache.isKnown(userFolder));
+
+            FileUtils.deleteDirectory(userFolder.toFile());
+            fileSystemHandler.writeInDirectory(userFolder, () -> fileSystemHandler.writeFile(new FileContent(filePath, "new content".getBytes())))
+                .await().atMost(Duration.ofSeconds(1));
+            assertEquals("new content", Files.readString(filePath));
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void deletedFolderIsForgotten() throws IOException {
+        var folder = Paths.get(userDirectory, organizationId.toLowerCase(), "deletedUserId");
+        fileSystemHandler.createDirectories(folder)
+            .await().atMost(Duration.ofMillis(500));
+        assertTrue(directoryCache.isKnown(folder));
+
+        fileSystemHandler.deleteFile(folder)
+            .await().atMost(Duration.ofMillis(500));
+        assertFalse(Files.exists(folder));
+        assertFalse(directoryCache.isKnown(folder));
+    }
+
     @Test
     void readExistFile() throws IOException {
         var userId = "userId";
@@ -143,6 +202,192 @@ public class FileSystemHandlerTest {
         }
     }
 
+    @Test
+    void streamExistFileInChunks() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("streamedFile.tmp");
+        var content = new byte[200_000];
+        new Random(42).nextBytes(content);
+        Files.write(filePath, content);
+        try {
+            var file = fileSystemHandler.openFile(filePath)
+                .subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitItem(Duration.ofMillis(500))
+                .getItem();
+            assertEquals(content.length, file.size());
+            var chunks = file.read(0, file.size())
+                .subscribe()
+                .withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+                .awaitCompletion(Duration.ofSeconds(1))
+                .getItems();
+            assertTrue(chunks.size() > 1);
+            var streamed = Buffer.buffer();
+            chunks.forEach(streamed::appendBuffer);
+            assertArrayEquals(content, streamed.getBytes());
+            file.close().await().atMost(Duration.ofMillis(500));
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void openFileDoesNotExist() {
+        fileSystemHandler.openFile(Paths.get("fileDoesNotExists"))
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitFailure(Duration.ofMillis(500))
+            .assertFailedWith(FileSystemException.class);
+    }
+
+    @Test
+    void attributesAreRefreshedWhenFileIsWritten() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("attributes.tmp");
+        try {
+            fileSystemHandler.writeFile(new FileContent(filePath, "content".getBytes()))
+                .await().atMost(Duration.ofMillis(500));
+            assertEquals(7, fileSystemHandler.getAttributes(filePath).await().atMost(Duration.ofMillis(500)).size());
+
+            fileSystemHandler.writeFile(new FileContent(filePath, "new content".getBytes()))
+                .await().atMost(Duration.ofMillis(500));
+            assertEquals(11, fileSystemHandler.getAttributes(filePath).await().atMost(Duration.ofMillis(500)).size());
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void smallFileContentIsServedFromCacheUntilWritten() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("cached.tmp");
+        try {
+            fileSystemHandler.writeFile(new FileContent(filePath, "content".getBytes()))
+                .await().atMost(Duration.ofMillis(500));
+            assertEquals("content", readWholeFile(filePath));
+            var hits = contentCache.stats().hitCount();
+            assertEquals("content", readWholeFile(filePath));
+            assertEquals(hits + 1, contentCache.stats().hitCount());
+
+            fileSystemHandler.writeFile(new FileContent(filePath, "new content".getBytes()))
+                .await().atMost(Duration.ofMillis(500));
+            assertEquals("new content", readWholeFile(filePath));
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void compressedVariantIsWrittenForCompressibleContent() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("report.csv");
+        var variantPath = ContentEncoding.GZIP.resolve(filePath);
+        var content = "id,name,score\n".repeat(200).getBytes();
+        try {
+            fileSystemHandler.writeFile(new FileContent(filePath, content))
+                .await().atMost(Duration.ofSeconds(1));
+            assertTrue(Files.exists(variantPath));
+            try (var gzip = new GZIPInputStream(Files.newInputStream(variantPath))) {
+                assertArrayEquals(content, gzip.readAllBytes());
+            }
+            var attributes = fileSystemHandler.getAttributes(filePath).await().atMost(Duration.ofMillis(500));
+            assertTrue(fileSystemHandler.hasVariant(filePath, attributes, ContentEncoding.GZIP).await().atMost(Duration.ofMillis(500)));
+
+            var random = new byte[2048];
+            new Random(42).nextBytes(random);
+            fileSystemHandler.writeFile(new FileContent(filePath, random))
+                .await().atMost(Duration.ofSeconds(1));
+            assertFalse(Files.exists(variantPath));
+        } finally {
+            removeFile(variantPath);
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void compressedVariantIsWrittenForMovedFile() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("moved.csv");
+        var variantPath = ContentEncoding.GZIP.resolve(filePath);
+        var content = "id,name,score\n".repeat(200).getBytes();
+        var upload = Files.write(Files.createTempFile("upload", ".tmp"), content);
+        try {
+            assertEquals(content.length, fileSystemHandler.moveFile(upload, filePath)
+                .await().atMost(Duration.ofSeconds(1)));
+            try (var gzip = new GZIPInputStream(Files.newInputStream(variantPath))) {
+                assertArrayEquals(content, gzip.readAllBytes());
+            }
+            var attributes = fileSystemHandler.getAttributes(filePath).await().atMost(Duration.ofMillis(500));
+            assertTrue(fileSystemHandler.hasVariant(filePath, attributes, ContentEncoding.GZIP).await().atMost(Duration.ofMillis(500)));
+            try (var files = Files.list(variantPath.getParent())) {
+                assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+            }
+        } finally {
+            removeFile(upload);
+            removeFile(variantPath);
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void compressedVariantOfOtherContentIsNotServed() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("raced.csv");
+        var variantPath = ContentEncoding.GZIP.resolve(filePath);
+        try {
+            fileSystemHandler.writeFile(new FileContent(filePath, "id,name,score\n".repeat(200).getBytes()))
+                .await().atMost(Duration.ofSeconds(1));
+            var attributes = fileSystemHandler.getAttributes(filePath).await().atMost(Duration.ofMillis(500));
+            assertEquals(attributes.lastModified(), Files.getLastModifiedTime(variantPath).toMillis());
+
+            Files.setLastModifiedTime(variantPath, FileTime.fromMillis(attributes.lastModified() + 1000));
+            assertFalse(fileSystemHandler.hasVariant(filePath, attributes, ContentEncoding.GZIP).await().atMost(Duration.ofMillis(500)));
+        } finally {
+            removeFile(variantPath);
+            removeFile(filePath);
+        }
+    }
+
+    @Test
+    void compressedVariantDoesNotTouchTheDocumentsOfTheUser() throws IOException {
+        var userFolder = createUserFolder(organizationId, "userId");
+        var filePath = userFolder.resolve("own.csv");
+        var ownArchive = userFolder.resolve("own.csv.gz");
+        var content = "id,name,score\n".repeat(200).getBytes();
+        try {
+            Files.writeString(ownArchive, "archive of the user");
+            fileSystemHandler.writeFile(new FileContent(filePath, content))
+                .await().atMost(Duration.ofSeconds(1));
+            assertTrue(Files.exists(ContentEncoding.GZIP.resolve(filePath)));
+            fileSystemHandler.deleteFile(filePath)
+                .await().atMost(Duration.ofSeconds(1));
+            assertFalse(Files.exists(ContentEncoding.GZIP.resolve(filePath)));
+            assertEquals("archive of the user", Files.readString(ownArchive));
+
+            fileSystemHandler.writeFile(new FileContent(userFolder.resolve(ContentEncoding.VARIANTS_FOLDER), content))
+                .subscribe()
+                .withSubscriber(UniAssertSubscriber.create())
+                .awaitFailure(Duration.ofSeconds(1))
+                .assertFailedWith(IllegalArgumentException.class);
+        } finally {
+            removeFile(ownArchive);
+            removeFile(filePath);
+        }
+    }
+
+    private String readWholeFile(Path path) {
+        return readAndClose(fileSystemHandler.openFile(path).await().atMost(Duration.ofMillis(500))).toString();
+    }
+
+    private Buffer readAndClose(ReadableFile file) {
+        var content = Buffer.buffer();
+        file.read(0, file.size())
+            .onTermination().call(file::close)
+            .subscribe().asStream()
+            .forEach(content::appendBuffer);
+        return content;
+    }
+
     private Path createOrgTempFile(String organizationId, String fileName) throws IOException {
         return Files.createFile(createOrgFolder(organizationId).resolve(fileName));
     }
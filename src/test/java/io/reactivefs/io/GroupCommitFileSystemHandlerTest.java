@@ -0,0 +1,53 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.reactivefs.RFSConfig;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(GroupCommitProfile.class)
+public class GroupCommitFileSystemHandlerTest {
+
+    @Inject
+    FileSystemHandler fileSystemHandler;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_ROOT_DIRECTORY)
+    String userDirectory;
+
+    @Test
+    void concurrentWritesAreFlushedByGroupCommits() throws IOException {
+        var userFolder = Files.createDirectories(Paths.get(userDirectory, "orgcodegrouptest", "userId"));
+        try {
+            Uni.join().all(IntStream.range(0, 20)
+                    .mapToObj(i -> fileSystemHandler.writeFile(new FileContent(userFolder.resolve("grouped" + i + ".tmp"), ("content " + i).getBytes())))
+                    .toList())
+                .andFailFast()
+                .await().atMost(Duration.ofSeconds(5));
+            for (int i = 0; i < 20; i++) {
+                assertEquals("content " + i, Files.readString(userFolder.resolve("grouped" + i + ".tmp")));
+            }
+            var batches = registry.get("fs.sync.batch.size").summary();
+            assertTrue(batches.count() > 0);
+            assertTrue(batches.totalAmount() <= 40);
+        } finally {
+            FileUtils.deleteQuietly(userFolder.toFile());
+        }
+    }
+}
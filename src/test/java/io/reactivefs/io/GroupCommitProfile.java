@@ -0,0 +1,16 @@
+package io.reactivefs.io;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Starts the server with the <i>group</i> durability, thus the flushes of the concurrent writes are committed together.
+ */
+public class GroupCommitProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("fs.write.durability", FileSync.GROUP_COMMIT);
+    }
+}
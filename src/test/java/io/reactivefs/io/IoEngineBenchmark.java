@@ -0,0 +1,177 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivefs.RFSMetrics;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput and the tail latency of the <i>vertx</i> and the <i>virtual-threads</i> engines of the {@link FileSystemHandler}
+ * on the same workload: every request waits for a simulated ACL call, then opens a document, streams its content and closes it,
+ * subscribed on the request executor of the engine like the resources do.<p>
+ * It is not run by the default build; run it by <code>mvn test -Pbenchmark</code>. The workload can be tuned by the
+ * <i>bench.requests</i>, <i>bench.concurrency</i>, <i>bench.file.size</i> and <i>bench.acl.latency.ms</i> system properties.
+ */
+@Tag("benchmark")
+public class IoEngineBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 5000);
+
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 64);
+
+    private static final int FILE_SIZE = Integer.getInteger("bench.file.size", 256 * 1024);
+
+    private static final int FILES = 32;
+
+    private static final long ACL_LATENCY_MS = Long.getLong("bench.acl.latency.ms", 1);
+
+    private static Vertx vertx;
+
+    private static Path directory;
+
+    private static List<Path> files;
+
+    @BeforeAll
+    static void createFiles() throws IOException {
+        vertx = Vertx.vertx();
+        directory = Files.createTempDirectory("io-engine-benchmark");
+        files = new ArrayList<>();
+        var random = new Random(42);
+        var content = new byte[FILE_SIZE];
+        for (int i = 0; i < FILES; i++) {
+            random.nextBytes(content);
+            files.add(Files.write(directory.resolve("document-" + i + ".bin"), content));
+        }
+    }
+
+    @AfterAll
+    static void deleteFiles() throws IOException {
+        for (var file : files) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+        vertx.closeAndAwait();
+    }
+
+    @Test
+    void compareEngines() {
+        var results = new ArrayList<Result>();
+        for (var engine : List.of(FileIoExecutor.VERTX_ENGINE, FileIoExecutor.VIRTUAL_THREADS_ENGINE)) {
+            var io = fileIoExecutor(engine);
+            try {
+                var handler = fileSystemHandler(io);
+                run(handler, io, REQUESTS / 5);
+                results.add(run(handler, io, REQUESTS).named(engine));
+            } finally {
+                io.shutdown();
+            }
+        }
+        System.out.printf("%nrequests=%d concurrency=%d file.size=%d acl.latency.ms=%d java=%s%n",
+            REQUESTS, CONCURRENCY, FILE_SIZE, ACL_LATENCY_MS, Runtime.version());
+        System.out.printf("%-16s %12s %10s %10s %10s%n", "engine", "requests/s", "p50 ms", "p99 ms", "p999 ms");
+        results.forEach(result -> System.out.printf("%-16s %12.0f %10.2f %10.2f %10.2f%n",
+            result.engine(), result.throughput(), result.percentile(0.5), result.percentile(0.99), result.percentile(0.999)));
+    }
+
+    private Result run(FileSystemHandler handler, FileIoExecutor io, int requests) {
+        var latencies = new long[requests];
+        var bytes = new AtomicLong();
+        var permits = new Semaphore(CONCURRENCY);
+        var completions = new CompletableFuture<?>[requests];
+        var start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            permits.acquireUninterruptibly();
+            var index = i;
+            var path = files.get(i % FILES);
+            var requestStart = System.nanoTime();
+            completions[i] = Uni.createFrom().item(path)
+                .onItem().delayIt().by(Duration.ofMillis(ACL_LATENCY_MS))
+                .flatMap(handler::openFile)
+                .flatMap(file -> file.read(0, file.size())
+                    .onItem().invoke(chunk -> bytes.addAndGet(chunk.length()))
+                    .collect().last()
+                    .call(file::close))
+                .runSubscriptionOn(io.requestExecutor())
+                .onTermination().invoke(() -> {
+                    latencies[index] = System.nanoTime() - requestStart;
+                    permits.release();
+                })
+                .subscribeAsCompletionStage();
+        }
+        CompletableFuture.allOf(completions).join();
+        var elapsed = System.nanoTime() - start;
+        assertEquals((long) requests * FILE_SIZE, bytes.get());
+        Arrays.sort(latencies);
+        return new Result(null, requests * 1e9 / elapsed, latencies);
+    }
+
+    private static FileIoExecutor fileIoExecutor(String engine) {
+        var io = new FileIoExecutor();
+        io.engine = engine;
+        io.poolSize = 16;
+        io.queueSize = 1024;
+        io.registry = new SimpleMeterRegistry();
+        io.init();
+        return io;
+    }
+
+    private static FileSystemHandler fileSystemHandler(FileIoExecutor io) {
+        var registry = new SimpleMeterRegistry();
+        var handler = new FileSystemHandler();
+        handler.vertx = vertx;
+        handler.io = io;
+        handler.registry = registry;
+        handler.metrics = new RFSMetrics(registry);
+        handler.readChunkSize = 65536;
+        handler.attributeCache = new FileAttributeCache();
+        handler.attributeCache.maxSize = 10000;
+        handler.attributeCache.ttl = 5000;
+        handler.contentCache = new FileContentCache();
+        handler.contentCache.enabled = false;
+        handler.contentCache.registry = registry;
+        handler.contentCache.init();
+        handler.mappedFiles = new MappedFileCache();
+        handler.mappedFiles.readMode = "async";
+        handler.mappedFiles.registry = registry;
+        handler.mappedFiles.init();
+        handler.compressor = new FileCompressor();
+        handler.fileSync = new FileSync();
+        handler.fileSync.durability = FileSync.NONE;
+        handler.directoryCache = new DirectoryCache();
+        handler.directoryCache.maxSize = 10000;
+        handler.directoryCache.registry = registry;
+        handler.directoryCache.init();
+        handler.init();
+        return handler;
+    }
+
+    private record Result(String engine, double throughput, long[] sortedLatencies) {
+
+        Result named(String engine) {
+            return new Result(engine, throughput, sortedLatencies);
+        }
+
+        double percentile(double percentile) {
+            var index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.reactivefs.io;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.reactivefs.RFSConfig;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.inject.Inject;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(MappedReadProfile.class)
+public class MappedFileSystemHandlerTest {
+
+    @Inject
+    FileSystemHandler fileSystemHandler;
+
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_ROOT_DIRECTORY)
+    String userDirectory;
+
+    @Test
+    void largeFileIsReadFromMappedRegionsUntilWritten() throws IOException {
+        var userFolder = Files.createDirectories(Paths.get(userDirectory, "orgcodemappedtest", "userId"));
+        var filePath = userFolder.resolve("mapped.tmp");
+        var content = new byte[3_000_000];
+        new Random(11).nextBytes(content);
+        try {
+            Files.write(filePath, content);
+            var file = fileSystemHandler.openFile(filePath).await().atMost(Duration.ofSeconds(1));
+            assertInstanceOf(MappedReadableFile.class, file);
+            assertArrayEquals(content, readAndClose(file).getBytes());
+
+            var rewritten = new byte[2_500_000];
+            new Random(12).nextBytes(rewritten);
+            fileSystemHandler.writeFile(new FileContent(filePath, rewritten))
+                .await().atMost(Duration.ofSeconds(1));
+            assertArrayEquals(rewritten, readAndClose(fileSystemHandler.openFile(filePath).await().atMost(Duration.ofSeconds(1))).getBytes());
+        } finally {
+            removeFile(filePath);
+        }
+    }
+
+    private Buffer readAndClose(ReadableFile file) {
+        var content = Buffer.buffer();
+        file.read(0, file.size())
+            .onTermination().call(file::close)
+            .subscribe().asStream()
+            .forEach(content::appendBuffer);
+        return content;
+    }
+
+    private void removeFile(Path path) {
+        FileUtils.deleteQuietly(path.toFile());
+    }
+}
@@ -0,0 +1,16 @@
+package io.reactivefs.io;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Starts the server in the <i>mmap</i> read mode, thus the files of at least 2 MiB are served from memory mapped regions.
+ */
+public class MappedReadProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("fs.read.mode", "mmap", "fs.mmap.min.size", "2097152");
+    }
+}
@@ -0,0 +1,94 @@
+package io.reactivefs.io;
+
+import io.smallrye.mutiny.vertx.TypeArg;
+import io.vertx.core.Handler;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadStreamInputStreamTest {
+
+    @Test
+    void chunksAreReadUntilTheEnd() throws IOException {
+        var body = new FakeStream();
+        try (var stream = new ReadStreamInputStream(body(body), 1024, Duration.ofSeconds(1))) {
+            body.send("Hello ");
+            body.send("world");
+            body.end();
+            assertEquals("Hello world", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void readFailsWhenNothingArrivesInTheIdleTime() {
+        var body = new FakeStream();
+        try (var stream = new ReadStreamInputStream(body(body), 1024, Duration.ofMillis(50))) {
+            body.send("partial");
+            assertEquals('p', stream.read());
+            assertThrows(SocketTimeoutException.class, stream::readAllBytes);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static ReadStream<Buffer> body(FakeStream body) {
+        return ReadStream.newInstance(body, new TypeArg<>(chunk -> Buffer.newInstance((io.vertx.core.buffer.Buffer) chunk), Buffer::getDelegate));
+    }
+
+    /**
+     * A request body whose chunks are sent by the test.
+     */
+    private static class FakeStream implements io.vertx.core.streams.ReadStream<io.vertx.core.buffer.Buffer> {
+
+        private Handler<io.vertx.core.buffer.Buffer> handler;
+
+        private Handler<Void> endHandler;
+
+        void send(String chunk) {
+            handler.handle(Buffer.buffer(chunk).getDelegate());
+        }
+
+        void end() {
+            endHandler.handle(null);
+        }
+
+        @Override
+        public FakeStream exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public FakeStream handler(Handler<io.vertx.core.buffer.Buffer> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public FakeStream pause() {
+            return this;
+        }
+
+        @Override
+        public FakeStream resume() {
+            return this;
+        }
+
+        @Override
+        public FakeStream fetch(long amount) {
+            return this;
+        }
+
+        @Override
+        public FakeStream endHandler(Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.reactivefs.io;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentIdenticalOperationsShareOneExecution() {
+        var singleFlight = new SingleFlight<String, String>("test", registry);
+        var executions = new AtomicInteger();
+        var first = singleFlight.execute("key", () -> delayed(executions, "result"));
+        var second = singleFlight.execute("key", () -> delayed(executions, "other"));
+
+        var firstResult = first.subscribeAsCompletionStage();
+        var secondResult = second.subscribeAsCompletionStage();
+
+        assertEquals("result", firstResult.join());
+        assertEquals("result", secondResult.join());
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+        var subscribers = registry.get(SingleFlight.SUBSCRIBERS_METRIC).tag("flight", "test").summary();
+        assertEquals(1, subscribers.count());
+        assertEquals(2, subscribers.totalAmount());
+    }
+
+    @Test
+    void operationIsExecutedAgainAfterTermination() {
+        var singleFlight = new SingleFlight<String, String>("test", registry);
+        var executions = new AtomicInteger();
+        assertEquals("first", singleFlight.execute("key", () -> delayed(executions, "first")).await().atMost(Duration.ofSeconds(1)));
+        assertEquals("second", singleFlight.execute("key", () -> delayed(executions, "second")).await().atMost(Duration.ofSeconds(1)));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void differentOperationsAreNotCoalesced() {
+        var singleFlight = new SingleFlight<String, String>("test", registry);
+        var executions = new AtomicInteger();
+        var first = singleFlight.execute("first", () -> delayed(executions, "first")).subscribeAsCompletionStage();
+        var second = singleFlight.execute("second", () -> delayed(executions, "second")).subscribeAsCompletionStage();
+        assertEquals("first", first.join());
+        assertEquals("second", second.join());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void failureIsSharedButNotReused() {
+        var singleFlight = new SingleFlight<String, String>("test", registry);
+        var failed = singleFlight.execute("key", () -> Uni.createFrom().<String>failure(new IllegalStateException("failed")));
+        assertThrows(IllegalStateException.class, () -> failed.await().atMost(Duration.ofSeconds(1)));
+        assertEquals("ok", singleFlight.execute("key", () -> Uni.createFrom().item("ok")).await().atMost(Duration.ofSeconds(1)));
+    }
+
+    private Uni<String> delayed(AtomicInteger executions, String result) {
+        return Uni.createFrom().item(() -> {
+                executions.incrementAndGet();
+                return result;
+            })
+            .onItem()
+            .delayIt()
+            .by(Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,105 @@
+package io.reactivefs.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a recorded access log in the common log format into the schedule of the load generator, keeping the arrival times of the
+ * requests. The log has a resolution of a second, thus the requests of the same second are spread evenly within that second.<p>
+ * The reads are replayed as they were recorded; the identifiers are mapped to the generated files by the {@link AclStandIn}.
+ * The document writes are replayed with the generated bodies, because the log does not contain the bodies. The other requests are skipped.
+ */
+final class AccessLogReplay {
+
+    /** The access log that is replayed when the <i>load.access.log</i> is not set. */
+    static final String SAMPLE_LOG = "/load/access.log";
+
+    private static final Pattern LINE = Pattern.compile("^\\S+ \\S+ \\S+ \\[([^]]+)] \"(\\S+) (\\S+)[^\"]*\" \\d{3} \\S+.*$");
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private record Entry(long second, String method, String path) {}
+
+    private AccessLogReplay() {
+    }
+
+    /**
+     * @param speed The multiplier of the replay speed, 2 replays the log twice as fast as it was recorded.
+     * @return The schedule of the replayed requests.
+     */
+    static List<LoadGenerator.ScheduledRequest> schedule(List<String> lines, RequestMix mix, double speed, long seed) {
+        var entries = lines.stream().map(AccessLogReplay::parse).filter(Objects::nonNull).toList();
+        var random = new Random(seed);
+        var schedule = new ArrayList<LoadGenerator.ScheduledRequest>(entries.size());
+        if (entries.isEmpty()) {
+            return schedule;
+        }
+        var sorted = entries.stream().sorted(Comparator.comparingLong(Entry::second)).toList();
+        var first = sorted.get(0).second();
+        for (int from = 0; from < sorted.size(); ) {
+            var second = sorted.get(from).second();
+            var to = from;
+            while (to < sorted.size() && sorted.get(to).second() == second) {
+                to++;
+            }
+            var count = to - from;
+            for (int i = from; i < to; i++) {
+                var offset = (long) (((second - first) * 1_000_000_000L + (i - from) * 1_000_000_000L / count) / speed);
+                var entry = sorted.get(i);
+                schedule.add(entry.method().equals("POST") ? mix.write(offset, random) : mix.read(offset, entry.method(), entry.path()));
+            }
+            from = to;
+        }
+        return schedule;
+    }
+
+    /**
+     * @return The lines of the configured access log, or the sample log.
+     */
+    static List<String> readLog() {
+        try {
+            if (LoadSettings.ACCESS_LOG != null) {
+                return Files.readAllLines(Paths.get(LoadSettings.ACCESS_LOG));
+            }
+            try (var reader = new BufferedReader(new InputStreamReader(AccessLogReplay.class.getResourceAsStream(SAMPLE_LOG), StandardCharsets.UTF_8))) {
+                return reader.lines().toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Entry parse(String line) {
+        var matcher = LINE.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+        var method = matcher.group(2);
+        var path = matcher.group(3);
+        var query = path.indexOf('?');
+        path = (query < 0 ? path : path.substring(0, query)).replaceFirst("^/", "");
+        var replayed = switch (method) {
+            case "GET", "HEAD" -> path.startsWith("api/");
+            case "POST" -> path.equals("api/document");
+            default -> false;
+        };
+        if (!replayed) {
+            return null;
+        }
+        return new Entry(OffsetDateTime.parse(matcher.group(1), TIMESTAMP).toEpochSecond(), method, path);
+    }
+}
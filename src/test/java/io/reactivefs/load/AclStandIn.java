@@ -0,0 +1,125 @@
+package io.reactivefs.load;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Stands in for the access checker service (ACL) under load: it writes the generated {@link FileTree} into a temporary folder, points
+ * the document stores to it, and serves the access decisions of its files with the configured latency and error rate.<p>
+ * Every token and ApiKey is authorized, and any document or attachment identifier is mapped to a file of the tree, thus the identifiers
+ * of a replayed access log are served too. The performance results are not generated, so their access is denied by an empty response,
+ * like the ACL does.
+ *
+ * @see LoadSettings
+ */
+public class AclStandIn implements QuarkusTestResourceLifecycleManager {
+
+    private static final String BASE_PATH = "/document-access/";
+
+    private Vertx vertx;
+
+    private Path root;
+
+    private FileTree fileTree;
+
+    @Override
+    public Map<String, String> start() {
+        try {
+            root = Files.createTempDirectory("load-file-tree");
+            fileTree = LoadSettings.fileTree();
+            fileTree.write(root.resolve("user"), root.resolve("attachment"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        vertx = Vertx.vertx();
+        var server = vertx.createHttpServer()
+            .requestHandler(this::handle)
+            .listen(0)
+            .toCompletionStage()
+            .toCompletableFuture()
+            .join();
+        return Map.of(
+            "quarkus.rest-client.\"io.reactivefs.ext.DocumentAccessResourceService\".url", "http://localhost:" + server.actualPort(),
+            "fs.user.document.dir", root.resolve("user").toString(),
+            "fs.attachment.document.dir", root.resolve("attachment").toString(),
+            "fs.performance.document.dir", root.resolve("perf").toString());
+    }
+
+    @Override
+    public void stop() {
+        if (vertx != null) {
+            vertx.close().toCompletionStage().toCompletableFuture().join();
+        }
+        if (root != null) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void handle(HttpServerRequest request) {
+        var random = ThreadLocalRandom.current();
+        var latency = LoadSettings.ACL_LATENCY_MS + (LoadSettings.ACL_JITTER_MS > 0 ? random.nextLong(LoadSettings.ACL_JITTER_MS + 1) : 0);
+        var failed = random.nextDouble() < LoadSettings.ACL_ERROR_RATE;
+        vertx.setTimer(Math.max(1, latency), id -> {
+            if (failed) {
+                request.response().setStatusCode(500).end();
+                return;
+            }
+            var body = respond(request.path());
+            if (body == null) {
+                request.response().setStatusCode(404).end();
+            } else {
+                request.response().putHeader("Content-Type", "application/json").end(body.encode());
+            }
+        });
+    }
+
+    private JsonObject respond(String path) {
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        var resource = path.substring(BASE_PATH.length());
+        if (resource.equals("key")) {
+            return new JsonObject().put("authorized", true);
+        }
+        if (resource.startsWith("document/")) {
+            return access(fileTree.document(parseId(resource)));
+        }
+        if (resource.startsWith("attachment/")) {
+            return access(fileTree.attachment(parseId(resource)));
+        }
+        if (resource.equals("performance-document")) {
+            return new JsonObject().put("organizationId", "").put("userId", "").put("fileName", "");
+        }
+        return null;
+    }
+
+    private static JsonObject access(FileTree.Entry entry) {
+        return new JsonObject()
+            .put("organizationId", entry.organizationId())
+            .put("userId", entry.userId() == null ? "" : entry.userId())
+            .put("fileName", entry.fileName());
+    }
+
+    private static long parseId(String resource) {
+        try {
+            return Long.parseLong(resource.substring(resource.indexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
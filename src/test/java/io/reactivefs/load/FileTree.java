@@ -0,0 +1,145 @@
+package io.reactivefs.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Describes and writes a realistic tree of documents: the organizations have many users, most of the files are small, and a few of them
+ * are large, because the sizes follow a log-normal distribution around the median. The tree is derived from the seed, thus the same
+ * parameters always describe the same files.<p>
+ * The paths follow the layout of the path resolvers: the user documents are stored under
+ * <i>organization/last two digits of the user/file</i>, the attachments under <i>organization/file</i>.
+ */
+final class FileTree {
+
+    record Entry(String organizationId, String userId, String fileName, long size) {}
+
+    private static final int ORGANIZATIONS = 20;
+
+    private static final double SIZE_SIGMA = 1.5;
+
+    private static final long MIN_SIZE = 256;
+
+    private final List<Entry> documents;
+
+    private final List<Entry> attachments;
+
+    private FileTree(List<Entry> documents, List<Entry> attachments) {
+        this.documents = documents;
+        this.attachments = attachments;
+    }
+
+    /**
+     * @param seed The seed of the random generator.
+     * @param documents The number of the user documents.
+     * @param attachments The number of the attachments.
+     * @param medianSize The median of the file sizes in bytes.
+     * @param maxSize The maximum of the file sizes in bytes.
+     */
+    static FileTree describe(long seed, int documents, int attachments, long medianSize, long maxSize) {
+        var random = new Random(seed);
+        var sizes = new SizeDistribution(random, medianSize, maxSize);
+        var documentEntries = new ArrayList<Entry>(documents);
+        for (int i = 0; i < documents; i++) {
+            documentEntries.add(new Entry(organization(random), user(random), "document-" + i + extension(random), sizes.next()));
+        }
+        var attachmentEntries = new ArrayList<Entry>(attachments);
+        for (int i = 0; i < attachments; i++) {
+            attachmentEntries.add(new Entry(organization(random), null, "attachment-" + i + extension(random), sizes.next()));
+        }
+        return new FileTree(documentEntries, attachmentEntries);
+    }
+
+    /**
+     * Writes the files of the tree with random content.
+     */
+    void write(Path userDocumentRoot, Path attachmentRoot) throws IOException {
+        var block = new byte[1024 * 1024];
+        new Random(0).nextBytes(block);
+        for (var entry : documents) {
+            write(documentPath(userDocumentRoot, entry), entry.size(), block);
+        }
+        for (var entry : attachments) {
+            write(attachmentRoot.resolve(entry.organizationId().toLowerCase()).resolve(entry.fileName()), entry.size(), block);
+        }
+    }
+
+    /**
+     * @param id The identifier of the document, any positive number is mapped to a document of the tree.
+     */
+    Entry document(long id) {
+        return documents.get((int) Math.floorMod(id - 1, (long) documents.size()));
+    }
+
+    /**
+     * @param id The identifier of the attachment, any positive number is mapped to an attachment of the tree.
+     */
+    Entry attachment(long id) {
+        return attachments.get((int) Math.floorMod(id - 1, (long) attachments.size()));
+    }
+
+    int documentCount() {
+        return documents.size();
+    }
+
+    int attachmentCount() {
+        return attachments.size();
+    }
+
+    long totalSize() {
+        return documents.stream().mapToLong(Entry::size).sum() + attachments.stream().mapToLong(Entry::size).sum();
+    }
+
+    static Path documentPath(Path userDocumentRoot, Entry entry) {
+        return userDocumentRoot.resolve(entry.organizationId().toLowerCase()).resolve(entry.userId().substring(5)).resolve(entry.fileName());
+    }
+
+    private static void write(Path path, long size, byte[] block) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (OutputStream out = Files.newOutputStream(path)) {
+            for (long written = 0; written < size; written += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, size - written));
+            }
+        }
+    }
+
+    private static String organization(Random random) {
+        return "Org-" + random.nextInt(ORGANIZATIONS);
+    }
+
+    private static String user(Random random) {
+        return String.valueOf(1_000_000 + random.nextInt(9_000_000));
+    }
+
+    private static String extension(Random random) {
+        return random.nextInt(5) == 0 ? ".csv" : ".pdf";
+    }
+
+    /**
+     * Draws the file sizes from a log-normal distribution, that is bounded by the minimum and the maximum size.
+     */
+    static final class SizeDistribution {
+
+        private final Random random;
+
+        private final double mu;
+
+        private final long maxSize;
+
+        SizeDistribution(Random random, long medianSize, long maxSize) {
+            this.random = random;
+            this.mu = Math.log(medianSize);
+            this.maxSize = maxSize;
+        }
+
+        long next() {
+            var size = (long) Math.exp(mu + SIZE_SIGMA * random.nextGaussian());
+            return Math.max(MIN_SIZE, Math.min(maxSize, size));
+        }
+    }
+}
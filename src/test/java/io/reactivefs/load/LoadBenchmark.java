@@ -0,0 +1,73 @@
+package io.reactivefs.load;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the whole server, from the REST resources through the ACL calls to the file system, with a realistic load: the server is started
+ * against the {@link AclStandIn}, that serves a generated tree of files with the configured ACL latency and error rate.<p>
+ * It is not run by the default build; run it by <code>mvn test -Pbenchmark -Dtest=LoadBenchmark</code>. The load can be tuned by the
+ * system properties of {@link LoadSettings}, e.g. <code>-Dload.rate=1000 -Dload.duration.s=60 -Dacl.latency.ms=20 -Dacl.error.rate=0.01</code>,
+ * and a recorded access log can be replayed by <code>-Dload.access.log=/path/to/access.log</code>.
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@Tag("benchmark")
+public class LoadBenchmark {
+
+    @TestHTTPResource
+    URL baseUrl;
+
+    @Test
+    void openLoopReadsAndWrites() throws URISyntaxException {
+        var mix = requestMix();
+        var random = new Random(LoadSettings.SEED);
+        var requests = LoadSettings.RATE * LoadSettings.DURATION_SECONDS;
+        var interval = 1_000_000_000L / LoadSettings.RATE;
+        var warmUp = new ArrayList<LoadGenerator.ScheduledRequest>();
+        for (int i = 0; i < Math.min(requests, LoadSettings.RATE); i++) {
+            warmUp.add(mix.next(i * interval, random));
+        }
+        var schedule = new ArrayList<LoadGenerator.ScheduledRequest>(requests);
+        for (int i = 0; i < requests; i++) {
+            schedule.add(mix.next(i * interval, random));
+        }
+        generator().run("warm-up", warmUp);
+        var report = generator().run("open-loop", schedule);
+        System.out.printf("%nrate=%d/s duration=%d s write.ratio=%.2f attachment.ratio=%.2f acl.latency.ms=%d+%d acl.error.rate=%.3f java=%s%n",
+            LoadSettings.RATE, LoadSettings.DURATION_SECONDS, LoadSettings.WRITE_RATIO, LoadSettings.ATTACHMENT_RATIO,
+            LoadSettings.ACL_LATENCY_MS, LoadSettings.ACL_JITTER_MS, LoadSettings.ACL_ERROR_RATE, Runtime.version());
+        report.print();
+        assertTrue(report.completed() > 0);
+    }
+
+    @Test
+    void replayAccessLog() throws URISyntaxException {
+        var schedule = AccessLogReplay.schedule(AccessLogReplay.readLog(), requestMix(), LoadSettings.REPLAY_SPEED, LoadSettings.SEED);
+        var report = generator().run("replay", schedule);
+        System.out.printf("%naccess.log=%s replay.speed=%.1f%n",
+            LoadSettings.ACCESS_LOG == null ? AccessLogReplay.SAMPLE_LOG : LoadSettings.ACCESS_LOG, LoadSettings.REPLAY_SPEED);
+        report.print();
+        assertTrue(report.completed() > 0);
+    }
+
+    private RequestMix requestMix() throws URISyntaxException {
+        return new RequestMix(baseUrl.toURI(), LoadSettings.fileTree(), LoadSettings.SEED);
+    }
+
+    private static LoadGenerator generator() {
+        return new LoadGenerator(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), LoadSettings.MAX_IN_FLIGHT);
+    }
+}
@@ -0,0 +1,163 @@
+package io.reactivefs.load;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the scheduled requests in open-loop mode: every request is started at its intended time, independently of the responses of the
+ * previous ones, like the clients of a real server do. The latency is measured from the intended start, thus when the server or the
+ * generator falls behind, the waiting time is part of the latency, and the coordinated omission does not hide the queueing.<p>
+ * The heap usage is sampled while the requests are running, because the server runs in the same JVM as the generator.
+ */
+final class LoadGenerator {
+
+    /**
+     * @param offsetNanos The intended start of the request relative to the start of the run.
+     * @param kind The kind of the request that groups the latencies of the report.
+     */
+    record ScheduledRequest(long offsetNanos, String kind, HttpRequest request) {}
+
+    private static final long HEAP_SAMPLE_INTERVAL_NANOS = 50_000_000;
+
+    private final HttpClient client;
+
+    private final int maxInFlight;
+
+    LoadGenerator(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs the schedule and waits for all the responses.
+     *
+     * @param name The name of the run in the report.
+     * @param schedule The requests ordered by their intended start.
+     */
+    LoadReport run(String name, List<ScheduledRequest> schedule) {
+        var latencies = new long[schedule.size()];
+        var kinds = new String[schedule.size()];
+        var statuses = new ConcurrentHashMap<Integer, LongAdder>();
+        var failures = new LongAdder();
+        var dropped = new LongAdder();
+        var inFlight = new AtomicInteger();
+        var heap = new HeapSampler();
+        var gcBefore = GcTotals.now();
+        var completions = new CompletableFuture<?>[schedule.size()];
+        heap.start();
+        var start = System.nanoTime();
+        for (int i = 0; i < schedule.size(); i++) {
+            var scheduled = schedule.get(i);
+            var intendedStart = start + scheduled.offsetNanos();
+            var wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            var index = i;
+            kinds[i] = scheduled.kind();
+            latencies[i] = -1;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                dropped.increment();
+                completions[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            completions[i] = client.sendAsync(scheduled.request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    latencies[index] = System.nanoTime() - intendedStart;
+                    inFlight.decrementAndGet();
+                    if (failure == null) {
+                        statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                    } else {
+                        failures.increment();
+                    }
+                });
+        }
+        CompletableFuture.allOf(completions).exceptionally(failure -> null).join();
+        var elapsed = System.nanoTime() - start;
+        heap.stop();
+        var gc = GcTotals.now().minus(gcBefore);
+        return new LoadReport(name, elapsed, kinds, latencies, toCounts(statuses), failures.sum(), dropped.sum(),
+            heap.peak(), heap.current(), gc.count(), gc.timeMs());
+    }
+
+    private static Map<Integer, Long> toCounts(Map<Integer, LongAdder> statuses) {
+        return statuses.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    /**
+     * Samples the used heap on a daemon thread, and keeps the peak of the samples.
+     */
+    private static final class HeapSampler implements Runnable {
+
+        private final AtomicLong peak = new AtomicLong();
+
+        private final Thread thread = new Thread(this, "load-heap-sampler");
+
+        private volatile boolean running = true;
+
+        void start() {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sample();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                sample();
+                LockSupport.parkNanos(HEAP_SAMPLE_INTERVAL_NANOS);
+            }
+        }
+
+        long peak() {
+            return peak.get();
+        }
+
+        long current() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private void sample() {
+            peak.accumulateAndGet(current(), Math::max);
+        }
+    }
+
+    private record GcTotals(long count, long timeMs) {
+
+        static GcTotals now() {
+            long count = 0;
+            long time = 0;
+            for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, collector.getCollectionCount());
+                time += Math.max(0, collector.getCollectionTime());
+            }
+            return new GcTotals(count, time);
+        }
+
+        GcTotals minus(GcTotals other) {
+            return new GcTotals(count - other.count, timeMs - other.timeMs);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.reactivefs.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * The result of a load run: the throughput, the latency percentiles of the kinds of the requests, the response codes and the heap usage.
+ *
+ * @param elapsedNanos The time from the start of the first request to the end of the last response.
+ * @param kinds The kind of each request.
+ * @param latencies The latency of each request in nanos from its intended start, or -1 if it was dropped.
+ * @param statuses The number of the responses by status code.
+ * @param failures The number of the requests that failed without a response.
+ * @param dropped The number of the requests that were not sent, because too many requests were in flight.
+ */
+record LoadReport(String name, long elapsedNanos, String[] kinds, long[] latencies, Map<Integer, Long> statuses, long failures,
+                  long dropped, long peakHeapBytes, long heapAfterBytes, long gcCount, long gcTimeMs) {
+
+    private static final String ALL = "all";
+
+    long completed() {
+        return statuses.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    double throughput() {
+        return completed() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @param kind The kind of the requests, or <i>all</i>.
+     * @return The percentile of the latencies in millis.
+     */
+    double percentile(String kind, double percentile) {
+        var sorted = sortedLatencies(kind);
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        var index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    void print() {
+        System.out.printf("%n%s: %d requests in %.1f s, %.0f responses/s, statuses=%s, failures=%d, dropped=%d%n",
+            name, latencies.length, elapsedNanos / 1e9, throughput(), new TreeMap<>(statuses), failures, dropped);
+        System.out.printf("heap peak=%d MB, after=%d MB, gc count=%d, gc time=%d ms%n",
+            peakHeapBytes >> 20, heapAfterBytes >> 20, gcCount, gcTimeMs);
+        System.out.printf("%-20s %10s %10s %10s %10s%n", "kind", "requests", "p50 ms", "p99 ms", "p999 ms");
+        var rows = new TreeSet<>(Arrays.asList(kinds));
+        rows.add(ALL);
+        rows.forEach(kind -> System.out.printf("%-20s %10d %10.2f %10.2f %10.2f%n",
+            kind, sortedLatencies(kind).length, percentile(kind, 0.5), percentile(kind, 0.99), percentile(kind, 0.999)));
+    }
+
+    private long[] sortedLatencies(String kind) {
+        return IntStream.range(0, latencies.length)
+            .filter(i -> latencies[i] >= 0 && (ALL.equals(kind) || kind.equals(kinds[i])))
+            .mapToLong(i -> latencies[i])
+            .sorted()
+            .toArray();
+    }
+}
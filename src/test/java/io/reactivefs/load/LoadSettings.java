@@ -0,0 +1,54 @@
+package io.reactivefs.load;
+
+/**
+ * The parameters of the load test, that can be set by system properties, e.g. <code>mvn test -Pbenchmark -Dtest=LoadBenchmark -Dload.rate=500</code>.
+ */
+final class LoadSettings {
+
+    /** The seed of the generated file tree and of the request mix. */
+    static final long SEED = Long.getLong("load.seed", 42);
+
+    static final int DOCUMENTS = Integer.getInteger("load.documents", 2000);
+
+    static final int ATTACHMENTS = Integer.getInteger("load.attachments", 500);
+
+    static final long FILE_MEDIAN_BYTES = Long.getLong("load.file.median.bytes", 64 * 1024);
+
+    static final long FILE_MAX_BYTES = Long.getLong("load.file.max.bytes", 8 * 1024 * 1024);
+
+    /** The number of the requests started per second in the open-loop mode, independently of the responses. */
+    static final int RATE = Integer.getInteger("load.rate", 200);
+
+    static final int DURATION_SECONDS = Integer.getInteger("load.duration.s", 30);
+
+    /** The ratio of the document writes among the requests. */
+    static final double WRITE_RATIO = Double.parseDouble(System.getProperty("load.write.ratio", "0.1"));
+
+    /** The ratio of the attachment reads among the reads. */
+    static final double ATTACHMENT_RATIO = Double.parseDouble(System.getProperty("load.attachment.ratio", "0.2"));
+
+    /** The requests above this number in flight are not sent, but counted as dropped, thus an overloaded server cannot exhaust the harness. */
+    static final int MAX_IN_FLIGHT = Integer.getInteger("load.max.in.flight", 10_000);
+
+    /** The access log that is replayed; the sample log of the test resources is replayed if it is not set. */
+    static final String ACCESS_LOG = System.getProperty("load.access.log");
+
+    /** The multiplier of the replay speed: 2 replays the log twice as fast as it was recorded. */
+    static final double REPLAY_SPEED = Double.parseDouble(System.getProperty("load.replay.speed", "1"));
+
+    /** The fixed latency of the ACL stand-in in millis. */
+    static final long ACL_LATENCY_MS = Long.getLong("acl.latency.ms", 5);
+
+    /** The maximum of the random latency in millis that is added to the fixed latency of the ACL stand-in. */
+    static final long ACL_JITTER_MS = Long.getLong("acl.jitter.ms", 5);
+
+    /** The ratio of the ACL calls that fail with a server error. */
+    static final double ACL_ERROR_RATE = Double.parseDouble(System.getProperty("acl.error.rate", "0"));
+
+    private LoadSettings() {
+    }
+
+    static FileTree fileTree() {
+        return FileTree.describe(SEED, DOCUMENTS, ATTACHMENTS, FILE_MEDIAN_BYTES, FILE_MAX_BYTES);
+    }
+}
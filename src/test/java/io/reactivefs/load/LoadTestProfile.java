@@ -0,0 +1,28 @@
+package io.reactivefs.load;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the server against the {@link AclStandIn} instead of the WireMock stubs of the functional tests, with the circuit breaker of the
+ * ACL calls enabled like in production.
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("fs.acl.circuit.breaker.enabled", "true");
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+        return List.of(new TestResourceEntry(AclStandIn.class));
+    }
+
+    @Override
+    public boolean disableGlobalTestResources() {
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package io.reactivefs.load;
+
+import io.reactivefs.ext.DocumentAccessResourceService;
+import io.vertx.core.json.JsonObject;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the requests of the load test: the document and attachment reads of the users, and the document writes of the applications.<p>
+ * The popularity of the files is skewed, thus a few documents are read much more often than the rest, like in production.
+ * The write bodies are encoded before the run, thus the generator does not compete with the server for the CPU while encoding them.
+ */
+final class RequestMix {
+
+    static final String READ_DOCUMENT = "read-document";
+
+    static final String READ_ATTACHMENT = "read-attachment";
+
+    static final String HEAD = "head";
+
+    static final String WRITE = "write";
+
+    private static final String TOKEN = "load-token";
+
+    private static final String API_KEY = "load-apikey";
+
+    private static final int WRITE_BODIES = 64;
+
+    /** Keeps the encoded bodies below the body limit of the server. */
+    private static final long MAX_WRITE_SIZE = 4 * 1024 * 1024;
+
+    private static final double POPULARITY_SKEW = 3;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final URI baseUri;
+
+    private final FileTree fileTree;
+
+    private final List<byte[]> writeBodies;
+
+    RequestMix(URI baseUri, FileTree fileTree, long seed) {
+        this.baseUri = baseUri;
+        this.fileTree = fileTree;
+        this.writeBodies = writeBodies(fileTree, seed);
+    }
+
+    /**
+     * @return The next request of the configured mix of reads and writes.
+     */
+    LoadGenerator.ScheduledRequest next(long offsetNanos, Random random) {
+        if (random.nextDouble() < LoadSettings.WRITE_RATIO) {
+            return write(offsetNanos, random);
+        }
+        if (random.nextDouble() < LoadSettings.ATTACHMENT_RATIO) {
+            return read(offsetNanos, "GET", "api/attachment/" + popularId(fileTree.attachmentCount(), random));
+        }
+        return read(offsetNanos, "GET", "api/document/" + popularId(fileTree.documentCount(), random));
+    }
+
+    /**
+     * @param method GET or HEAD.
+     * @param path The path of the resource relative to the root of the server.
+     */
+    LoadGenerator.ScheduledRequest read(long offsetNanos, String method, String path) {
+        var request = HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(TIMEOUT)
+            .header(DocumentAccessResourceService.TOKEN_HEADER, TOKEN)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        var kind = method.equals("HEAD") ? HEAD : path.startsWith("api/attachment") ? READ_ATTACHMENT : READ_DOCUMENT;
+        return new LoadGenerator.ScheduledRequest(offsetNanos, kind, request);
+    }
+
+    LoadGenerator.ScheduledRequest write(long offsetNanos, Random random) {
+        var request = HttpRequest.newBuilder(baseUri.resolve("api/document"))
+            .timeout(TIMEOUT)
+            .header(DocumentAccessResourceService.API_KEY_HEADER, API_KEY)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(writeBodies.get(random.nextInt(writeBodies.size()))))
+            .build();
+        return new LoadGenerator.ScheduledRequest(offsetNanos, WRITE, request);
+    }
+
+    private static long popularId(int count, Random random) {
+        return (long) (count * Math.pow(random.nextDouble(), POPULARITY_SKEW)) + 1;
+    }
+
+    private static List<byte[]> writeBodies(FileTree fileTree, long seed) {
+        var random = new Random(seed);
+        var sizes = new FileTree.SizeDistribution(random, LoadSettings.FILE_MEDIAN_BYTES, Math.min(LoadSettings.FILE_MAX_BYTES, MAX_WRITE_SIZE));
+        var bodies = new ArrayList<byte[]>(WRITE_BODIES);
+        for (int i = 0; i < WRITE_BODIES; i++) {
+            var owner = fileTree.document(random.nextInt(fileTree.documentCount()) + 1);
+            var content = new byte[(int) sizes.next()];
+            random.nextBytes(content);
+            bodies.add(new JsonObject()
+                .put("organizationId", owner.organizationId())
+                .put("userId", owner.userId())
+                .put("fileName", "load-write-" + i + ".bin")
+                .put("content", Base64.getEncoder().encodeToString(content))
+                .toBuffer()
+                .getBytes());
+        }
+        return bodies;
+    }
+}
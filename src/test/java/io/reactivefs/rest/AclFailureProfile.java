@@ -0,0 +1,17 @@
+package io.reactivefs.rest;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Starts the server with the circuit breaker of the ACL calls disabled, for the tests that stub the failures of the ACL on purpose:
+ * the breaker would be opened by them, and it would reject the calls of the other tests. The breaker is covered by its unit tests.
+ */
+public class AclFailureProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("fs.acl.circuit.breaker.enabled", "false");
+    }
+}
@@ -0,0 +1,54 @@
+package io.reactivefs.rest;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.reactivefs.ext.DocumentAccessResourceService;
+import jakarta.ws.rs.core.MediaType;
+import jdk.jfr.consumer.RecordingFile;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@QuarkusTestResource(FileAccessResourceWireMockExtension.class)
+public class AdminResourceTest {
+
+    @Test
+    void flightRecordingShouldBeDumped() throws IOException {
+        var response = given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .post("/admin/jfr/dump")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .extract()
+            .jsonPath();
+        var file = Paths.get(response.getString("path"));
+        try {
+            assertEquals(Files.size(file), response.getLong("size"));
+            var events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("io.reactivefs.ApiKeyValidation")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void whenDumpWithInvalidApiKeyErrorShouldReturn() {
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "invalid-apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .post("/admin/jfr/dump")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+    }
+}
@@ -0,0 +1,48 @@
+package io.reactivefs.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ByteRangeTest {
+
+    @Test
+    void whenHeaderIsMissingOrMalformedThenItIsIgnored() {
+        assertEquals(Optional.empty(), ByteRange.parse(null, 100, 16));
+        assertEquals(Optional.empty(), ByteRange.parse("items=0-10", 100, 16));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=10-5", 100, 16));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=-", 100, 16));
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=a-b", 100, 16));
+    }
+
+    @Test
+    void parseSingleRanges() {
+        assertEquals(Optional.of(List.of(new ByteRange(0, 9))), ByteRange.parse("bytes=0-9", 100, 16));
+        assertEquals(Optional.of(List.of(new ByteRange(90, 99))), ByteRange.parse("bytes=90-", 100, 16));
+        assertEquals(Optional.of(List.of(new ByteRange(80, 99))), ByteRange.parse("bytes=-20", 100, 16));
+        assertEquals(Optional.of(List.of(new ByteRange(0, 99))), ByteRange.parse("bytes=-200", 100, 16));
+        assertEquals(Optional.of(List.of(new ByteRange(50, 99))), ByteRange.parse("bytes=50-1000", 100, 16));
+    }
+
+    @Test
+    void overlappingRangesAreMerged() {
+        assertEquals(Optional.of(List.of(new ByteRange(0, 29), new ByteRange(50, 59))),
+            ByteRange.parse("bytes=50-59, 10-29, 0-15", 100, 16));
+        assertEquals(Optional.of(List.of(new ByteRange(0, 19))), ByteRange.parse("bytes=0-9,10-19", 100, 16));
+    }
+
+    @Test
+    void whenNoRangeIsSatisfiableThenListIsEmpty() {
+        assertEquals(Optional.of(List.of()), ByteRange.parse("bytes=100-200", 100, 16));
+        assertEquals(Optional.of(List.of()), ByteRange.parse("bytes=-0", 100, 16));
+        assertEquals(Optional.of(List.of()), ByteRange.parse("bytes=0-", 0, 16));
+    }
+
+    @Test
+    void whenTooManyRangesThenItIsIgnored() {
+        assertEquals(Optional.empty(), ByteRange.parse("bytes=0-1,3-4,6-7", 100, 2));
+    }
+}
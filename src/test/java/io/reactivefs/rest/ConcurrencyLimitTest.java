@@ -0,0 +1,84 @@
+package io.reactivefs.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ConcurrencyLimit limit = new ConcurrencyLimit(4, 2, 8, 0.5, 2.0, 1000, clock::get);
+
+    @Test
+    void requestsAboveTheLimitAreRejected() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+        limit.onIgnore();
+        assertTrue(limit.tryAcquire());
+        assertEquals(4, limit.inFlight());
+    }
+
+    @Test
+    void limitGrowsWhileTheLatencyIsLow() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        limit.onSuccess(10 * MILLIS);
+        assertEquals(5, limit.limit());
+        limit.onSuccess(10 * MILLIS);
+        assertEquals(6, limit.limit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostOfItIsUnused() {
+        assertTrue(limit.tryAcquire());
+        limit.onSuccess(10 * MILLIS);
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void limitIsDecreasedOncePerRoundTripWhenTheLatencyGrows() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        limit.onSuccess(10 * MILLIS);
+        assertEquals(5, limit.limit());
+
+        clock.addAndGet(100 * MILLIS);
+        limit.onSuccess(100 * MILLIS);
+        assertEquals(2, limit.limit());
+        limit.onSuccess(100 * MILLIS);
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void droppedRequestDecreasesTheLimitToTheMinimum() {
+        assertTrue(limit.tryAcquire());
+        limit.onDropped();
+        assertEquals(2, limit.limit());
+        assertEquals(0, limit.inFlight());
+        clock.addAndGet(MILLIS);
+        assertTrue(limit.tryAcquire());
+        limit.onDropped();
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void noLoadLatencyIsMeasuredAgainAfterTheWindow() {
+        assertTrue(limit.tryAcquire());
+        limit.onSuccess(10 * MILLIS);
+        clock.addAndGet(1000 * MILLIS);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        limit.onSuccess(50 * MILLIS);
+        assertEquals(5, limit.limit());
+    }
+}
@@ -2,20 +2,39 @@ package io.reactivefs.rest;
 
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
 import io.reactivefs.RFSConfig;
 import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.io.ContentEncoding;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipInputStream;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @QuarkusTest
+@TestProfile(AclFailureProfile.class)
 @QuarkusTestResource(FileAccessResourceWireMockExtension.class)
 public class DocumentFileAccessResourceTest {
 
@@ -106,6 +125,225 @@ public class DocumentFileAccessResourceTest {
         }
     }
 
+    @Test
+    void getLargeUserDocumentStreamed() throws IOException {
+        var userId = "1267890";
+        var candidateDir = userId.substring(5);
+        var organizationId = "FAKE";
+        var fileName = "document.tmp";
+        var content = new byte[1_000_000];
+        new Random(7).nextBytes(content);
+        var path = Files.createDirectories(Paths.get(userDocumentRootDirectory, organizationId.toLowerCase(), candidateDir));
+        var tempFile = Files.write(path.resolve(fileName), content);
+        try {
+            var body = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Length", String.valueOf(content.length))
+                .extract()
+                .asByteArray();
+            assertArrayEquals(content, body);
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void getUserDocumentRange() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("Range", "bytes=2-5")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.PARTIAL_CONTENT.getStatusCode())
+                .header("Content-Range", "bytes 2-5/10")
+                .header("Content-Length", "4")
+                .body(is("2345"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void getUserDocumentMultipleRanges() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            var response = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("Range", "bytes=0-1,-2")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.PARTIAL_CONTENT.getStatusCode())
+                .header("Content-Type", startsWith("multipart/byteranges; boundary="))
+                .extract();
+            var boundary = response.contentType().substring(response.contentType().indexOf("boundary=") + 9);
+            var expected = "--" + boundary + "\r\nContent-Type: application/octet-stream\r\nContent-Range: bytes 0-1/10\r\n\r\n01\r\n"
+                + "--" + boundary + "\r\nContent-Type: application/octet-stream\r\nContent-Range: bytes 8-9/10\r\n\r\n89\r\n"
+                + "--" + boundary + "--\r\n";
+            assertEquals(expected, response.asString());
+            assertEquals(String.valueOf(expected.length()), response.header("Content-Length"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenRangeIsNotSatisfiableThenErrorShouldReturn() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("Range", "bytes=20-30")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode())
+                .header("Content-Range", "bytes */10");
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenIfRangeDoesNotMatchThenWholeDocumentShouldReturn() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("Range", "bytes=2-5")
+                .header("If-Range", "Thu, 01 Jan 1970 00:00:00 GMT")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Accept-Ranges", "bytes")
+                .body(is("0123456789"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenDocumentNotChangedThenNotModifiedShouldReturn() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            var response = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Cache-Control", "private, no-cache")
+                .header("ETag", notNullValue())
+                .header("Last-Modified", notNullValue())
+                .extract();
+
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("If-None-Match", response.header("ETag"))
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.NOT_MODIFIED.getStatusCode())
+                .header("ETag", response.header("ETag"));
+
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("If-Modified-Since", response.header("Last-Modified"))
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.NOT_MODIFIED.getStatusCode());
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenDocumentChangedThenContentShouldReturn() throws IOException {
+        var tempFile = createUserDocument("0123456789");
+        try {
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("If-None-Match", "\"outdated\"")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .body(is("0123456789"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenClientAcceptsGzipThenCompressedVariantShouldReturn() throws IOException {
+        var content = "id,name,score\n".repeat(200);
+        var report = createUserDocument("report.csv", content);
+        var variant = Files.createDirectories(report.resolveSibling(ContentEncoding.VARIANTS_FOLDER)).resolve("report.csv.gz");
+        try (var gzip = new GZIPOutputStream(Files.newOutputStream(variant))) {
+            gzip.write(content.getBytes());
+        }
+        Files.setLastModifiedTime(variant, Files.getLastModifiedTime(report));
+        try {
+            var compressed = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header("Accept-Encoding", "gzip")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/5")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Encoding", "gzip")
+                .header("Vary", "Accept-Encoding")
+                .header("Content-Length", String.valueOf(Files.size(variant)))
+                .body(is(content))
+                .extract();
+
+            given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header("Accept-Encoding", "gzip")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("If-None-Match", compressed.header("ETag"))
+                .get("/api/document/5")
+                .then()
+                .statusCode(RestResponse.Status.NOT_MODIFIED.getStatusCode());
+
+            var identity = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header("Accept-Encoding", "gzip;q=0")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/5")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Encoding", nullValue())
+                .body(is(content))
+                .extract();
+            assertNotEquals(compressed.header("ETag"), identity.header("ETag"));
+        } finally {
+            Files.delete(variant);
+            Files.delete(report);
+        }
+    }
+
     @Test
     void whenGetAttachmentWithoutTokenErrorShouldReturn() {
         given()
@@ -246,4 +484,175 @@ public class DocumentFileAccessResourceTest {
             Files.delete(tempFile);
         }
     }
+
+    @Test
+    void headUserDocument() throws IOException {
+        var tempFile = createUserDocument("head.tmp", "0123456789");
+        try {
+            var etag = given()
+                .when()
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .head("/api/document/7")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Length", "10")
+                .header("Accept-Ranges", "bytes")
+                .header("Last-Modified", notNullValue())
+                .body(is(""))
+                .extract()
+                .header("ETag");
+            assertNotNull(etag);
+
+            given()
+                .when()
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("If-None-Match", etag)
+                .head("/api/document/7")
+                .then()
+                .statusCode(RestResponse.Status.NOT_MODIFIED.getStatusCode());
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    void whenHeadAttachmentFileNotExistErrorShouldReturn() {
+        given()
+            .when()
+            .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+            .head("/api/attachment/1")
+            .then()
+            .statusCode(RestResponse.Status.NOT_FOUND.getStatusCode());
+    }
+
+    @Test
+    void getUserDocumentMetadata() throws IOException {
+        var tempFile = createUserDocument("metadata.tmp", "0123456789");
+        try {
+            given()
+                .when()
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/8/metadata")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .body("exists", is(true))
+                .body("size", is(10))
+                .body("lastModified", is(Files.getLastModifiedTime(tempFile).toMillis()));
+        } finally {
+            Files.delete(tempFile);
+        }
+        given()
+            .when()
+            .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+            .get("/api/document/9/metadata")
+            .then()
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .body("exists", is(false))
+            .body("size", is(0));
+    }
+
+    @Test
+    void whenGetAttachmentMetadataInvalidFileAccessErrorShouldReturn() {
+        given()
+            .when()
+            .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+            .get("/api/attachment/2/metadata")
+            .then()
+            .statusCode(RestResponse.Status.NOT_FOUND.getStatusCode());
+    }
+
+    @Test
+    void getDocumentArchive() throws IOException {
+        var document = createUserDocument("0123456789");
+        var attachmentPath = Files.createDirectories(Paths.get(attachmentDocumentRootDirectory, "fake"));
+        var attachment = Files.writeString(attachmentPath.resolve("attachment.tmp"), "fake");
+        try {
+            var body = given()
+                .when()
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .contentType("application/json")
+                .body("{\"documentIds\":[1,2,1],\"attachmentIds\":[1]}")
+                .post("/api/documents/archive")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Type", startsWith("application/zip"))
+                .header("Content-Disposition", "attachment; filename=\"documents.zip\"")
+                .extract()
+                .asByteArray();
+
+            var entries = new LinkedHashMap<String, String>();
+            try (var zip = new ZipInputStream(new ByteArrayInputStream(body))) {
+                for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.put(entry.getName(), new String(zip.readAllBytes()));
+                }
+            }
+            assertEquals(Map.of(
+                "documents/document.tmp", "0123456789",
+                "documents/document (1).tmp", "0123456789",
+                "attachments/attachment.tmp", "fake"), entries);
+            assertEquals(List.of("documents/document.tmp", "documents/document (1).tmp", "attachments/attachment.tmp"), List.copyOf(entries.keySet()));
+        } finally {
+            Files.delete(attachment);
+            Files.delete(document);
+        }
+    }
+
+    @Test
+    void whenArchiveRequestsNoDocumentBadRequestShouldReturn() {
+        given()
+            .when()
+            .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+            .contentType("application/json")
+            .body("{\"documentIds\":[],\"attachmentIds\":[]}")
+            .post("/api/documents/archive")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    void whenArchivedDocumentsCannotBeAccessedNotFoundShouldReturn() {
+        given()
+            .when()
+            .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+            .contentType("application/json")
+            .body("{\"documentIds\":[2],\"attachmentIds\":[2]}")
+            .post("/api/documents/archive")
+            .then()
+            .statusCode(RestResponse.Status.NOT_FOUND.getStatusCode());
+    }
+
+    @Test
+    void pipelineMetricsArePublished() throws IOException {
+        var tempFile = createUserDocument("metrics");
+        try {
+            given()
+                .when()
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode());
+
+            given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .body(containsString("fs_acl_call_seconds_bucket{endpoint=\"document\""))
+                .body(containsString("fs_path_resolution_seconds_count{outcome=\"success\",store=\"user-document\"}"))
+                .body(containsString("fs_file_operation_seconds_bucket{operation=\"open\""))
+                .body(containsString("fs_store_bytes_read_bytes_total{store=\"user-document\"}"))
+                .body(containsString("http_server_requests_seconds_bucket"));
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    private Path createUserDocument(String content) throws IOException {
+        return createUserDocument("document.tmp", content);
+    }
+
+    private Path createUserDocument(String fileName, String content) throws IOException {
+        var path = Files.createDirectories(Paths.get(userDocumentRootDirectory, "fake", "90"));
+        return Files.writeString(path.resolve(fileName), content);
+    }
 }
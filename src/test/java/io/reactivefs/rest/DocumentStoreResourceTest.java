@@ -2,20 +2,46 @@ package io.reactivefs.rest;
 
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
 import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.service.Attachment;
+import io.reactivefs.service.DocumentPathResolver;
+import io.reactivefs.service.UserDocument;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.IntStream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
+@TestProfile(AclFailureProfile.class)
 @QuarkusTestResource(FileAccessResourceWireMockExtension.class)
 public class DocumentStoreResourceTest {
 
+    @UserDocument
+    @Inject
+    DocumentPathResolver userDocumentPathResolver;
+
+    @Attachment
+    @Inject
+    DocumentPathResolver attachmentPathResolver;
+
     @Test
     void whenUserDocumentRemovalWithValidApiKeyProvided() {
         given()
@@ -240,4 +266,284 @@ public class DocumentStoreResourceTest {
                 .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
         });
     }
+
+    @Test
+    void whenUserDocumentStreamedWithValidApiKeyProvided() throws IOException {
+        var content = randomContent(3 * 1024 * 1024);
+        given()
+            .body(content)
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM)
+            .post("api/document/ORGID/1234567/streamed.bin")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body(is("true"));
+
+        assertArrayEquals(content, Files.readAllBytes(userDocumentPathResolver.resolve("ORGID", "1234567", "streamed.bin")));
+    }
+
+    @Test
+    void whenUserDocumentStreamedAboveTheDefaultBodyLimit() throws IOException {
+        var content = randomContent(11 * 1024 * 1024);
+        given()
+            .body(content)
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM)
+            .post("api/document/ORGID/1234567/streamed-large.bin")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body(is("true"));
+
+        assertArrayEquals(content, Files.readAllBytes(userDocumentPathResolver.resolve("ORGID", "1234567", "streamed-large.bin")));
+    }
+
+    @Test
+    void whenAttachmentStreamedWithValidApiKeyProvided() throws IOException {
+        var content = randomContent(1024 * 1024 + 17);
+        given()
+            .body(content)
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM)
+            .post("api/attachment/ORGID/streamed-attachment.bin")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body(is("true"));
+
+        assertArrayEquals(content, Files.readAllBytes(attachmentPathResolver.resolve("ORGID", null, "streamed-attachment.bin")));
+    }
+
+    @Test
+    void whenUserDocumentStreamedWithInvalidApiKeyProvided() {
+        given()
+            .body(randomContent(1024))
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "invalid-apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM)
+            .post("api/document/ORGID/1234567/rejected.bin")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+
+        assertFalse(Files.exists(userDocumentPathResolver.resolve("ORGID", "1234567", "rejected.bin")));
+    }
+
+    @Test
+    void whenUserDocumentUploadedWithValidApiKeyProvided() throws IOException {
+        var content = randomContent(2 * 1024 * 1024);
+        given()
+            .multiPart("organizationId", "ORGID")
+            .multiPart("userId", "1234567")
+            .multiPart("fileName", "uploaded.bin")
+            .multiPart("content", "uploaded.bin", content, MediaType.APPLICATION_OCTET_STREAM)
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .post("api/document")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body(is("true"));
+
+        assertArrayEquals(content, Files.readAllBytes(userDocumentPathResolver.resolve("ORGID", "1234567", "uploaded.bin")));
+    }
+
+    @Test
+    void whenAttachmentUploadedWithoutContentProvided() {
+        given()
+            .multiPart("organizationId", "ORGID")
+            .multiPart("fileName", "missing.bin")
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .post("api/attachment")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode())
+            .body(is("false"));
+    }
+
+    @Test
+    void whenUserDocumentsWrittenInBatchWithValidApiKeyProvided() throws IOException {
+        var contents = IntStream.range(0, 20).mapToObj(i -> randomContent(1000 + i)).toList();
+        var body = new StringBuilder();
+        for (var i = 0; i < contents.size(); i++) {
+            body.append("{\"organizationId\":\"ORGID\",\"userId\":\"1234567\",\"fileName\":\"batch-%d.bin\",\"content\":\"%s\"}\n"
+                .formatted(i, Base64.getEncoder().encodeToString(contents.get(i))));
+        }
+        body.append("{\"organizationId\":\"ORGID\",\"userId\":\"1234567\",\"fileName\":\"batch-missing.bin\"}\n");
+        var results = given()
+            .body(body.toString().getBytes(StandardCharsets.UTF_8))
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", DocumentStoreResource.NDJSON_MEDIA_TYPE)
+            .header("Content-Type", DocumentStoreResource.NDJSON_MEDIA_TYPE)
+            .post("api/documents/batch")
+            .then()
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .extract()
+            .asString()
+            .lines()
+            .toList();
+
+        assertEquals(21, results.size());
+        assertEquals(20, results.stream().filter(result -> result.contains("\"written\":true")).count());
+        assertTrue(results.stream().anyMatch(result -> result.contains("\"index\":20") && result.contains("\"written\":false")));
+        for (var i = 0; i < contents.size(); i++) {
+            assertArrayEquals(contents.get(i), Files.readAllBytes(userDocumentPathResolver.resolve("ORGID", "1234567", "batch-" + i + ".bin")));
+        }
+    }
+
+    @Test
+    void whenAttachmentsWrittenInBatchWithInvalidApiKeyProvided() {
+        given()
+            .body("{\"organizationId\":\"ORGID\",\"fileName\":\"rejected-batch.bin\",\"content\":\"SGVsbG8=\"}\n".getBytes(StandardCharsets.UTF_8))
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "invalid-apikey")
+            .header("Accept", DocumentStoreResource.NDJSON_MEDIA_TYPE)
+            .header("Content-Type", DocumentStoreResource.NDJSON_MEDIA_TYPE)
+            .post("api/attachments/batch")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+
+        assertFalse(Files.exists(attachmentPathResolver.resolve("ORGID", null, "rejected-batch.bin")));
+    }
+
+    @Test
+    void whenAttachmentUploadedInChunksOutOfOrder() throws IOException {
+        var content = randomContent(3 * 100_000 + 5);
+        var uploadId = given()
+            .body("{\"organizationId\":\"ORGID\",\"fileName\":\"resumable.bin\",\"size\":%d}".formatted(content.length))
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Content-Type", MediaType.APPLICATION_JSON)
+            .post("api/attachment/uploads")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body("complete", is(false))
+            .extract()
+            .<String>path("uploadId");
+
+        for (var offset : List.of(200_000, 0)) {
+            writeChunk(uploadId, content, offset, 100_000)
+                .statusCode(RestResponse.Status.OK.getStatusCode());
+        }
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .get("api/uploads/" + uploadId)
+            .then()
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .body("received", is(200_000))
+            .body("ranges.offset", is(List.of(0, 200_000)));
+
+        writeChunk(uploadId, content, 100_000, 100_000)
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .body("complete", is(false));
+        writeChunk(uploadId, content, 300_000, 5)
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .body("complete", is(true));
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .post("api/uploads/" + uploadId + "/commit")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .body(is("true"));
+
+        assertArrayEquals(content, Files.readAllBytes(attachmentPathResolver.resolve("ORGID", null, "resumable.bin")));
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .get("api/uploads/" + uploadId)
+            .then()
+            .statusCode(RestResponse.Status.NOT_FOUND.getStatusCode());
+    }
+
+    @Test
+    void whenIncompleteUserDocumentUploadCommitted() {
+        var content = randomContent(1000);
+        var uploadId = given()
+            .body("{\"organizationId\":\"ORGID\",\"userId\":\"1234567\",\"fileName\":\"incomplete.bin\",\"size\":%d}".formatted(content.length))
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Content-Type", MediaType.APPLICATION_JSON)
+            .post("api/document/uploads")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .extract()
+            .<String>path("uploadId");
+        writeChunk(uploadId, content, 0, 500)
+            .statusCode(RestResponse.Status.OK.getStatusCode());
+        writeChunk(uploadId, content, 900, 100)
+            .statusCode(RestResponse.Status.OK.getStatusCode());
+
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .post("api/uploads/" + uploadId + "/commit")
+            .then()
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+        assertFalse(Files.exists(userDocumentPathResolver.resolve("ORGID", "1234567", "incomplete.bin")));
+
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .delete("api/uploads/" + uploadId)
+            .then()
+            .statusCode(RestResponse.Status.NO_CONTENT.getStatusCode());
+    }
+
+    @Test
+    void whenUploadChunkOverrunsTheSize() {
+        var content = randomContent(1100);
+        var uploadId = given()
+            .body("{\"organizationId\":\"ORGID\",\"userId\":\"1234567\",\"fileName\":\"overrun.bin\",\"size\":1000}")
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Content-Type", MediaType.APPLICATION_JSON)
+            .post("api/document/uploads")
+            .then()
+            .statusCode(RestResponse.Status.CREATED.getStatusCode())
+            .extract()
+            .<String>path("uploadId");
+
+        writeChunk(uploadId, content, 900, 200)
+            .statusCode(RestResponse.Status.BAD_REQUEST.getStatusCode());
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .get("api/uploads/" + uploadId)
+            .then()
+            .statusCode(RestResponse.Status.OK.getStatusCode())
+            .body("received", is(0));
+
+        given()
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .delete("api/uploads/" + uploadId)
+            .then()
+            .statusCode(RestResponse.Status.NO_CONTENT.getStatusCode());
+    }
+
+    private static ValidatableResponse writeChunk(String uploadId, byte[] content, int offset, int length) {
+        return given()
+            .body(Arrays.copyOfRange(content, offset, offset + length))
+            .queryParam("offset", offset)
+            .when()
+            .header(DocumentAccessResourceService.API_KEY_HEADER, "apikey")
+            .header("Accept", MediaType.APPLICATION_JSON)
+            .header("Content-Type", MediaType.APPLICATION_OCTET_STREAM)
+            .put("api/uploads/" + uploadId)
+            .then();
+    }
+
+    private static byte[] randomContent(int size) {
+        var content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
 }
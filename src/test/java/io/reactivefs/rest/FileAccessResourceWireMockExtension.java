@@ -64,6 +64,41 @@ public class FileAccessResourceWireMockExtension implements QuarkusTestResourceL
                         .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("test-token"))
                         .willReturn(aResponse().withStatus(500).withFixedDelay(1500)));
 
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/5"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("test-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "report.csv"))));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/6"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("cache-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "cached.tmp"))));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/7"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("test-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "head.tmp"))));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/8"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("test-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "metadata.tmp"))));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/9"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("test-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "missing.tmp"))));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/document/7"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("cache-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("FAKE", "1267890", "shared.tmp")).withFixedDelay(300)));
+
+        wireMockServer.stubFor(
+                get(urlEqualTo(BASE_PATH + "/document-access/attachment/6"))
+                        .withHeader(DocumentAccessResourceService.TOKEN_HEADER, equalTo("cache-token"))
+                        .willReturn(okJson(createFileAccessRequestBody("", "", ""))));
+
         wireMockServer.stubFor(
                 get(urlEqualTo(BASE_PATH + "/document-access/key"))
                         .withHeader(DocumentAccessResourceService.API_KEY_HEADER, equalTo("apikey"))
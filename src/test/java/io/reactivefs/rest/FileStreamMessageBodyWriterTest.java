@@ -0,0 +1,93 @@
+package io.reactivefs.rest;
+
+import io.reactivefs.io.FileStream;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.mutiny.core.buffer.Buffer;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ServerHttpRequest;
+import org.jboss.resteasy.reactive.server.spi.ServerHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class FileStreamMessageBodyWriterTest {
+
+    private final FileStreamMessageBodyWriter writer = new FileStreamMessageBodyWriter();
+
+    @Test
+    void chunksAreCopiedIntoTheOutputStream() throws IOException {
+        var closed = new AtomicInteger();
+        var stream = new FileStream(10, Multi.createFrom().items("hello", " ", "file").map(Buffer::buffer), () -> {
+            closed.incrementAndGet();
+            return Uni.createFrom().voidItem();
+        });
+        var output = new ByteArrayOutputStream();
+        writer.writeTo(stream, FileStream.class, FileStream.class, null, MediaType.APPLICATION_OCTET_STREAM_TYPE, null, output);
+        assertEquals("hello file", output.toString());
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void streamIsReleasedWhenTheCopyFails() {
+        var closed = new AtomicInteger();
+        var stream = new FileStream(10, Multi.createFrom().items("hello", " ", "file").map(Buffer::buffer), () -> {
+            closed.incrementAndGet();
+            return Uni.createFrom().voidItem();
+        });
+        var output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        assertThrows(IOException.class,
+            () -> writer.writeTo(stream, FileStream.class, FileStream.class, null, MediaType.APPLICATION_OCTET_STREAM_TYPE, null, output));
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void failureIsReportedBeforeTheResponseIsStarted() {
+        var response = mock(HttpServerResponse.class);
+        var requestContext = requestContext(response);
+        var failure = new IllegalStateException("File cannot be read");
+        writer.writeResponse(new FileStream(10, Multi.createFrom().failure(failure)), FileStream.class, requestContext);
+        verify(requestContext).resume(failure);
+        verify(response, never()).reset();
+    }
+
+    @Test
+    void connectionIsResetWhenTheStartedResponseFails() {
+        var response = mock(HttpServerResponse.class);
+        when(response.headWritten()).thenReturn(true);
+        var requestContext = requestContext(response);
+        var content = Multi.createBy().concatenating().streams(
+            Multi.createFrom().item(Buffer.buffer("hello")),
+            Multi.createFrom().<Buffer>failure(new IllegalStateException("File cannot be read")));
+        writer.writeResponse(new FileStream(10, content), FileStream.class, requestContext);
+        verify(response).reset();
+        verify(requestContext, never()).resume(any(Throwable.class));
+        verify(requestContext).resume();
+    }
+
+    private static ResteasyReactiveRequestContext requestContext(HttpServerResponse response) {
+        var routingContext = mock(RoutingContext.class);
+        when(routingContext.response()).thenReturn(response);
+        var serverRequest = mock(ServerHttpRequest.class);
+        when(serverRequest.unwrap(RoutingContext.class)).thenReturn(routingContext);
+        var requestContext = mock(ResteasyReactiveRequestContext.class);
+        when(requestContext.serverRequest()).thenReturn(serverRequest);
+        when(requestContext.serverResponse()).thenReturn(mock(ServerHttpResponse.class));
+        return requestContext;
+    }
+}
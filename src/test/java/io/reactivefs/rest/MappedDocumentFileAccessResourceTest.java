@@ -0,0 +1,68 @@
+package io.reactivefs.rest;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.reactivefs.RFSConfig;
+import io.reactivefs.ext.DocumentAccessResourceService;
+import io.reactivefs.io.MappedReadProfile;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+@QuarkusTest
+@TestProfile(MappedReadProfile.class)
+@QuarkusTestResource(FileAccessResourceWireMockExtension.class)
+public class MappedDocumentFileAccessResourceTest {
+
+    @ConfigProperty(name = RFSConfig.USER_DOCUMENT_ROOT_DIRECTORY)
+    String userDocumentRootDirectory;
+
+    @Test
+    void getMappedUserDocumentRanges() throws IOException {
+        var content = new byte[3_000_000];
+        new Random(9).nextBytes(content);
+        var tempFile = createUserDocument(content);
+        try {
+            var body = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.OK.getStatusCode())
+                .header("Content-Length", String.valueOf(content.length))
+                .extract()
+                .asByteArray();
+            assertArrayEquals(content, body);
+
+            var range = given()
+                .when()
+                .header("Accept", "application/octet-stream")
+                .header(DocumentAccessResourceService.TOKEN_HEADER, "test-token")
+                .header("Range", "bytes=2000000-2099999")
+                .get("/api/document/1")
+                .then()
+                .statusCode(RestResponse.Status.PARTIAL_CONTENT.getStatusCode())
+                .extract()
+                .asByteArray();
+            assertArrayEquals(Arrays.copyOfRange(content, 2_000_000, 2_100_000), range);
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+    private Path createUserDocument(byte[] content) throws IOException {
+        var path = Files.createDirectories(Paths.get(userDocumentRootDirectory, "fake", "90"));
+        return Files.write(path.resolve("document.tmp"), content);
+    }
+}
@@ -0,0 +1,76 @@
+package io.reactivefs.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.reactivefs.io.SingleFlight;
+import io.reactivefs.model.DocumentFileAccess;
+import io.reactivefs.rest.AclFailureProfile;
+import io.reactivefs.rest.FileAccessResourceWireMockExtension;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(AclFailureProfile.class)
+@QuarkusTestResource(FileAccessResourceWireMockExtension.class)
+public class DocumentAccessCacheTest {
+
+    @Inject
+    DocumentAccessCache accessCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void grantedAccessIsServedFromCache() {
+        var access = accessCache.getUserDocumentAccess("cache-token", 6L).await().atMost(Duration.ofSeconds(1));
+        assertEquals(new DocumentFileAccess("FAKE", "1267890", "cached.tmp"), access);
+        assertSame(access, accessCache.getUserDocumentAccess("cache-token", 6L).await().atMost(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void deniedAccessIsServedFromCache() {
+        var access = accessCache.getAttachmentAccess("cache-token", 6L).await().atMost(Duration.ofSeconds(1));
+        assertEquals(new DocumentFileAccess("", "", ""), access);
+        assertSame(access, accessCache.getAttachmentAccess("cache-token", 6L).await().atMost(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void accessIsCachedByResourceType() {
+        var document = accessCache.getUserDocumentAccess("test-token", 1L).await().atMost(Duration.ofSeconds(1));
+        var attachment = accessCache.getAttachmentAccess("test-token", 1L).await().atMost(Duration.ofSeconds(1));
+        assertEquals("document.tmp", document.fileName());
+        assertEquals("attachment.tmp", attachment.fileName());
+    }
+
+    @Test
+    void concurrentLookupsShareOneLoad() {
+        var misses = accessCache.stats().missCount();
+        var subscribers = registry.get(SingleFlight.SUBSCRIBERS_METRIC).tag("flight", "acl.lookup").summary();
+        var subscribed = subscribers.totalAmount();
+        var cancelled = accessCache.getUserDocumentAccess("cache-token", 7L).subscribe().with(__ -> {});
+        var shared = accessCache.getUserDocumentAccess("cache-token", 7L).subscribeAsCompletionStage();
+        cancelled.cancel();
+        assertEquals("shared.tmp", shared.toCompletableFuture().orTimeout(3, TimeUnit.SECONDS).join().fileName());
+        assertEquals(misses + 1, accessCache.stats().missCount());
+        await().atMost(Duration.ofSeconds(1)).until(() -> subscribers.totalAmount() >= subscribed + 2);
+    }
+
+    @Test
+    void failedLookupIsNotCached() {
+        var failures = accessCache.stats().loadFailureCount();
+        assertThrows(Exception.class, () -> accessCache.getPerformanceResultAccess("delayed-token").await().atMost(Duration.ofSeconds(3)));
+        await().atMost(Duration.ofSeconds(1)).until(() -> accessCache.stats().loadFailureCount() == failures + 1);
+
+        var misses = accessCache.stats().missCount();
+        assertThrows(Exception.class, () -> accessCache.getPerformanceResultAccess("delayed-token").await().atMost(Duration.ofSeconds(3)));
+        assertEquals(misses + 1, accessCache.stats().missCount());
+    }
+}
@@ -0,0 +1,61 @@
+package io.reactivefs.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentCreateRequestDecoderTest {
+
+    private static ByteArrayInputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void contentIsDecodedWhereverItIsInTheRequest() throws IOException {
+        var payload = new byte[200_000];
+        new Random(42).nextBytes(payload);
+        var content = new ByteArrayOutputStream();
+        var uploadRequest = DocumentCreateRequestDecoder.read(json("""
+            {"content": "%s", "organizationId": "orgId", "userId": "1234567", "fileName": "contract.pdf", "unknown": {"a": [1]}}
+            """.formatted(Base64.getEncoder().encodeToString(payload))), content);
+        assertEquals("orgId", uploadRequest.organizationId());
+        assertEquals("1234567", uploadRequest.userId());
+        assertEquals("contract.pdf", uploadRequest.fileName());
+        assertArrayEquals(payload, content.toByteArray());
+    }
+
+    @Test
+    void contentWithoutPaddingIsDecoded() throws IOException {
+        var content = new ByteArrayOutputStream();
+        DocumentCreateRequestDecoder.read(json("""
+            {"organizationId": "orgId", "fileName": "fake.tmp", "content": "SGVsbG8"}
+            """), content);
+        assertEquals("Hello", content.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void missingContentIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentCreateRequestDecoder.read(json("""
+            {"organizationId": "orgId", "fileName": "fake.tmp", "content": null}
+            """), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void invalidContentEncodingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentCreateRequestDecoder.read(json("""
+            {"organizationId": "orgId", "fileName": "fake.tmp", "content": "cHJvc3RkZXY_YmxvZw=="}
+            """), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void nonObjectRequestIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentCreateRequestDecoder.read(json("[]"), new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,128 @@
+package io.reactivefs.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivefs.io.FileIoExecutor;
+import io.reactivefs.io.FileSystemHandler;
+import io.reactivefs.model.ResumableUploadRequest;
+import io.reactivefs.model.UploadStatus;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.vertx.mutiny.core.buffer.Buffer;
+import io.vertx.mutiny.core.streams.ReadStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ResumableUploadsTest {
+
+    private final FileIoExecutor io = mock(FileIoExecutor.class);
+
+    private final FileSystemHandler fileSystemHandler = mock(FileSystemHandler.class);
+
+    private final DocumentStore store = mock(DocumentStore.class);
+
+    private final ResumableUploads uploads = new ResumableUploads();
+
+    private Path directory;
+
+    @BeforeEach
+    void init() throws IOException {
+        when(io.execute(any())).thenAnswer(invocation -> Uni.createFrom().item(invocation.<Supplier<?>>getArgument(0)));
+        directory = Files.createTempDirectory("resumable-uploads");
+        uploads.uploadDirectory = directory.toString();
+        uploads.sessionTtl = 200;
+        uploads.maxSessions = 10;
+        uploads.maxSize = 1000;
+        uploads.fileSystemHandler = fileSystemHandler;
+        uploads.io = io;
+        uploads.registry = new SimpleMeterRegistry();
+        uploads.init();
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void uploadOfInvalidOwnersIsNotStarted() throws IOException {
+        doThrow(new IllegalArgumentException("User document file path cannot be determined")).when(store).validate(any());
+        uploads.start(store, new ResumableUploadRequest("orgid", "", "file.bin", 10))
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitFailure(Duration.ofSeconds(1))
+            .assertFailedWith(IllegalArgumentException.class);
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void uploadDoesNotExpireWhileChunkIsWritten() throws IOException {
+        when(fileSystemHandler.writeFile(any(), eq(0L), eq(10L), any()))
+            .thenReturn(Uni.createFrom().item(10L).onItem().delayIt().by(Duration.ofMillis(600)));
+        var status = start();
+        var file = uploadedFile();
+
+        uploads.write(status.uploadId(), 0, mockStream())
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(2))
+            .assertItem(new UploadStatus(status.uploadId(), 10, 10, true, List.of(new UploadStatus.Range(0, 10))));
+        assertTrue(Files.exists(file));
+
+        uploads.abort(status.uploadId())
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1));
+        await().atMost(Duration.ofSeconds(1)).until(() -> !Files.exists(file));
+    }
+
+    @Test
+    void idleUploadExpires() throws IOException, InterruptedException {
+        var status = start();
+        Thread.sleep(500);
+        uploads.status(status.uploadId())
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitFailure(Duration.ofSeconds(1))
+            .assertFailedWith(NoSuchElementException.class);
+    }
+
+    private UploadStatus start() {
+        return uploads.start(store, new ResumableUploadRequest("orgid", "userid", "file.bin", 10))
+            .subscribe()
+            .withSubscriber(UniAssertSubscriber.create())
+            .awaitItem(Duration.ofSeconds(1))
+            .getItem();
+    }
+
+    private Path uploadedFile() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReadStream<Buffer> mockStream() {
+        return mock(ReadStream.class);
+    }
+}
@@ -0,0 +1,101 @@
+package io.reactivefs.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.mutiny.subscription.UniEmitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreBulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final StoreBulkhead bulkhead = new StoreBulkhead("test", 2, 1, registry);
+
+    private final List<UniEmitter<? super String>> pending = new ArrayList<>();
+
+    private Uni<String> pendingOperation() {
+        return Uni.createFrom().emitter(pending::add);
+    }
+
+    @Test
+    void operationsAboveTheLimitWaitForASlot() {
+        var first = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        var second = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        var third = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        assertEquals(2, bulkhead.active());
+        assertEquals(1, bulkhead.queued());
+        assertEquals(2, pending.size());
+
+        pending.get(0).complete("first");
+        first.assertItem("first");
+        assertEquals(3, pending.size());
+        assertEquals(0, bulkhead.queued());
+
+        pending.get(1).complete("second");
+        pending.get(2).complete("third");
+        second.assertItem("second");
+        third.assertItem("third");
+        assertEquals(0, bulkhead.active());
+    }
+
+    @Test
+    void operationIsRejectedWhenTheQueueIsFull() {
+        bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        var rejected = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        rejected.assertFailedWith(BulkheadFullException.class);
+        assertEquals(1, bulkhead.queued());
+        assertEquals(1.0, registry.get(StoreBulkhead.METRIC_PREFIX + ".rejected").tag("store", "test").counter().count());
+    }
+
+    @Test
+    void failedOperationReleasesTheSlot() {
+        var failed = bulkhead.execute(() -> Uni.createFrom().<String>failure(new IllegalStateException())).subscribe()
+            .withSubscriber(UniAssertSubscriber.create());
+        failed.assertFailedWith(IllegalStateException.class);
+        assertEquals(0, bulkhead.active());
+    }
+
+    @Test
+    void cancellationReleasesTheSlotAndTheQueue() {
+        var running = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        var waiting = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        waiting.cancel();
+        assertEquals(0, bulkhead.queued());
+        assertEquals(2, pending.size());
+
+        running.cancel();
+        assertEquals(1, bulkhead.active());
+        var next = bulkhead.execute(this::pendingOperation).subscribe().withSubscriber(UniAssertSubscriber.create());
+        assertEquals(2, bulkhead.active());
+        assertEquals(3, pending.size());
+        pending.get(2).complete("next");
+        next.assertItem("next");
+    }
+
+    @Test
+    void openedResourceHoldsTheSlotUntilItIsClosed() {
+        var releases = new ArrayList<Runnable>();
+        var opened = bulkhead.open(() -> Uni.createFrom().item("file"), (file, release) -> {
+                releases.add(release);
+                return file;
+            })
+            .subscribe().withSubscriber(UniAssertSubscriber.create());
+        opened.assertItem("file");
+        assertEquals(1, bulkhead.active());
+
+        releases.get(0).run();
+        releases.get(0).run();
+        assertEquals(0, bulkhead.active());
+    }
+}
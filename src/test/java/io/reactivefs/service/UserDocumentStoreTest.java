@@ -1,5 +1,6 @@
 package io.reactivefs.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.junit.QuarkusTest;
 import io.reactivefs.RFSConfig;
 import io.reactivefs.model.DocumentCreateRequest;
@@ -20,6 +21,7 @@ import java.util.Base64;
 import java.util.stream.IntStream;
 
 import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @QuarkusTest
 public class UserDocumentStoreTest {
@@ -28,6 +30,9 @@ public class UserDocumentStoreTest {
     @UserDocument
     UserDocumentStore documentStore;
 
+    @Inject
+    MeterRegistry registry;
+
     @ConfigProperty(name = RFSConfig.USER_DOCUMENT_ROOT_DIRECTORY)
     String userDocumentDirectory;
 
@@ -147,4 +152,21 @@ public class UserDocumentStoreTest {
             Files.delete(tempFile);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void openedDocumentHoldsTheBulkheadSlotUntilItIsClosed() throws IOException {
+        var path = Files.createDirectories(Paths.get(userDocumentDirectory, "orgid", "90"));
+        var tempFile = Files.writeString(path.resolve("opened.tmp"), "fake");
+        var active = registry.get(StoreBulkhead.METRIC_PREFIX + ".active").tag("store", UserDocumentStore.STORE_NAME).gauge();
+        try {
+            var file = documentStore.open(new DocumentFileAccess("orgId", "1267890", "opened.tmp"))
+                .await().atMost(Duration.ofSeconds(1));
+            assertEquals(1.0, active.value());
+
+            file.close().await().atMost(Duration.ofSeconds(1));
+            assertEquals(0.0, active.value());
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+}